@@ -1,11 +1,39 @@
 package ar.edu.utn.frbb.tup;
 
 
+import ar.edu.utn.frbb.tup.persistence.MotorAlmacenamiento;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorJdbc;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorMemoria;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @ComponentScan
+@EnableScheduling
 public class ApplicationConfig {
 
+    //motor de las tablas: memoria (con journal y snapshots) o h2 (base sql embebida en un archivo)
+    @Bean(destroyMethod = "cerrar")
+    public MotorAlmacenamiento motorAlmacenamiento(@Value("${tup.persistence.backend:memoria}") String backend,
+                                                   @Value("${tup.persistence.h2.url:jdbc:h2:file:./data/tup}") String url,
+                                                   @Value("${tup.persistence.h2.pool:8}") int conexiones,
+                                                   @Value("${tup.journal.enabled:false}") boolean journal,
+                                                   @Value("${tup.snapshot.enabled:false}") boolean snapshot) {
+        switch (backend) {
+            case "memoria":
+                return new MotorMemoria();
+            case "h2":
+                //la base ya es durable: reproducir un journal o cargar un snapshot encima duplicaria el trabajo
+                if (journal || snapshot) {
+                    throw new IllegalStateException("Con tup.persistence.backend=h2 se deben deshabilitar "
+                            + "tup.journal.enabled y tup.snapshot.enabled.");
+                }
+                return new MotorJdbc(url, conexiones);
+            default:
+                throw new IllegalArgumentException("Motor de persistencia desconocido: " + backend + ".");
+        }
+    }
 }
@@ -3,12 +3,17 @@ package ar.edu.utn.frbb.tup.controller;
 import ar.edu.utn.frbb.tup.controller.dto.ClienteDto;
 import ar.edu.utn.frbb.tup.controller.validator.ClienteValidator;
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteAlreadyExistsException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.TipoPersonaNoSoportada;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.PreAprobacionNoExisteException;
 import ar.edu.utn.frbb.tup.service.ClienteService;
+import ar.edu.utn.frbb.tup.service.PerfilCrediticioService;
+import ar.edu.utn.frbb.tup.service.PreAprobacionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +28,12 @@ public class ClienteController {
     @Autowired
     private ClienteValidator clienteValidator;
 
+    @Autowired
+    private PerfilCrediticioService perfilCrediticioService;
+
+    @Autowired
+    private PreAprobacionService preAprobacionService;
+
 
     //crea cliente
     @PostMapping
@@ -43,6 +54,19 @@ public class ClienteController {
         return clienteService.buscarClientePorDni(dni);
     }
 
+    //perfil crediticio del cliente (prestamos aprobados, vigentes y cerrados, cuotas pagadas y saldo por moneda)
+    @GetMapping("/{dni}/features")
+    public PerfilCrediticio obtenerPerfilCrediticio(@PathVariable long dni) throws ClientNoExisteException {
+        clienteService.buscarClientePorDni(dni);
+        return perfilCrediticioService.obtenerPerfil(dni);
+    }
+
+    //limite preaprobado por el proceso nocturno
+    @GetMapping("/{dni}/preaprobacion")
+    public PreAprobacion obtenerPreAprobacion(@PathVariable long dni) throws PreAprobacionNoExisteException {
+        return preAprobacionService.buscarPreAprobacion(dni);
+    }
+
     //desactiva cliente
     @DeleteMapping("/{dni}")
     public Cliente desactivarClient(@PathVariable long dni) throws ClientNoExisteException {
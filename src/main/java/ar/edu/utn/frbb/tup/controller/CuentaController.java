@@ -3,14 +3,17 @@ package ar.edu.utn.frbb.tup.controller;
 import ar.edu.utn.frbb.tup.controller.dto.CuentaDto;
 import ar.edu.utn.frbb.tup.controller.validator.CuentaValidator;
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Movimiento;
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
 import ar.edu.utn.frbb.tup.service.CuentaService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -41,6 +44,14 @@ public class CuentaController {
         return cuentaService.buscarCuentaPorId(id);
     }
 
+    //movimientos de la cuenta, ordenados por fecha; desde y hasta (yyyy-MM-dd) son opcionales
+    @GetMapping("/{id}/movimientos")
+    public List<Movimiento> obtenerMovimientos(@PathVariable long id,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) throws CuentaNoExisteException {
+        return cuentaService.buscarMovimientos(id, desde, hasta);
+    }
+
     //busca cuenta de cliente por dni de cliente
     @GetMapping("/cliente/{dni}")
     public List<Cuenta> obtenerCuentasPorCliente(@PathVariable long dni) throws ClientNoExisteException, CuentaNoExisteException {
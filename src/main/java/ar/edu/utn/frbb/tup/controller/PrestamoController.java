@@ -2,21 +2,27 @@ package ar.edu.utn.frbb.tup.controller;
 
 import ar.edu.utn.frbb.tup.controller.dto.PrestamoDto;
 import ar.edu.utn.frbb.tup.controller.validator.PrestamoValidator;
+import ar.edu.utn.frbb.tup.model.EstadisticasCache;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.PrestamoDetalle;
 import ar.edu.utn.frbb.tup.model.PrestamoRespuesta;
+import ar.edu.utn.frbb.tup.model.ResultadoPreAprobacion;
+import ar.edu.utn.frbb.tup.model.Simulacion;
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoMonedaNoSoportada;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
+import ar.edu.utn.frbb.tup.service.CotizacionService;
+import ar.edu.utn.frbb.tup.service.PreAprobacionService;
 import ar.edu.utn.frbb.tup.service.PrestamoService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/prestamo")
@@ -27,13 +33,44 @@ public class PrestamoController {
     @Autowired
     private PrestamoValidator prestamoValidator;
 
-    //crea el prestamo
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private PreAprobacionService preAprobacionService;
+
+    //crea el prestamo; la respuesta se completa cuando termina la consulta a los buros
     @PostMapping
-    public PrestamoDetalle crearPrestamo(@RequestBody PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException, TipoMonedaNoSoportada, CreditScoreException, PrestamoNoExisteException, CampoIncorrecto {
+    public CompletableFuture<PrestamoDetalle> crearPrestamo(@RequestBody PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException, TipoMonedaNoSoportada, CreditScoreException, PrestamoNoExisteException, CampoIncorrecto {
         prestamoValidator.validatePrestamo(prestamoDto);
         return prestamoService.darAltaPrestamo(prestamoDto);
     }
 
+    //simula varios prestamos sin guardarlos ni modificar balances
+    @PostMapping("/simular")
+    public List<Simulacion> simularPrestamos(@RequestBody List<PrestamoDto> escenarios) throws TipoMonedaNoSoportada, CreditScoreException, CampoIncorrecto {
+        prestamoValidator.validateSimulacion(escenarios);
+        return prestamoService.simularPrestamos(escenarios);
+    }
+
+    //resultado de la ultima corrida del proceso de preaprobacion (vacio si todavia no corrio)
+    @GetMapping("/preaprobacion")
+    public ResultadoPreAprobacion obtenerResultadoPreAprobacion() {
+        return preAprobacionService.getUltimoResultado();
+    }
+
+    //corre el proceso de preaprobacion ahora, sin esperar al horario programado
+    @PostMapping("/preaprobacion")
+    public ResultadoPreAprobacion ejecutarPreAprobacion() {
+        return preAprobacionService.ejecutar();
+    }
+
+    //aciertos, fallos y desalojos de la cache de cotizaciones
+    @GetMapping("/cotizaciones/cache")
+    public EstadisticasCache obtenerEstadisticasCotizaciones() {
+        return cotizacionService.getEstadisticas();
+    }
+
     //obtiene todos los prestamos
     @GetMapping
     public List<Prestamo> obtenerPrestamos() throws PrestamoNoExisteException {
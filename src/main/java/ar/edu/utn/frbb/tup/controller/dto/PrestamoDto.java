@@ -5,6 +5,7 @@ public class PrestamoDto {
     private double montoPrestamo;
     private String tipoMoneda;
     private int plazoMeses;
+    private String metodoAmortizacion; //opcional: D (directo, por defecto), F (frances) o A (aleman)
 
     //getters y setters
     public long getNumeroCliente() {
@@ -35,6 +36,13 @@ public class PrestamoDto {
         this.tipoMoneda = tipoMoneda;
     }
 
+    public String getMetodoAmortizacion() {
+        return metodoAmortizacion;
+    }
+    public void setMetodoAmortizacion(String metodoAmortizacion) {
+        this.metodoAmortizacion = metodoAmortizacion;
+    }
+
     @Override
     public String toString() {
         return "\nPrestamoDto{" +
@@ -1,11 +1,14 @@
 package ar.edu.utn.frbb.tup.controller.handler;
 
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteAlreadyExistsException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.TipoPersonaNoSoportada;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.PreAprobacionNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -36,7 +39,7 @@ public class TupResponseEntityExceptionHandler extends ResponseEntityExceptionHa
     }
 
     //BAD_REQUEST (400)
-    @ExceptionHandler({IllegalArgumentException.class })
+    @ExceptionHandler({IllegalArgumentException.class, CreditScoreException.class })
     protected ResponseEntity<Object> handleInvalidBusinessRules(Exception ex, WebRequest request) {
         CustomApiError error = new CustomApiError();
         error.setErrorCode(400);
@@ -46,7 +49,8 @@ public class TupResponseEntityExceptionHandler extends ResponseEntityExceptionHa
     }
 
     //CONFLICT (409)
-    @ExceptionHandler({TipoCuentaYaExisteException.class, CuentaYaExisteException.class, ClienteAlreadyExistsException.class})
+    @ExceptionHandler({TipoCuentaYaExisteException.class, CuentaYaExisteException.class, ClienteAlreadyExistsException.class,
+            ConflictoDeVersionException.class})
     protected ResponseEntity<Object> handleResourceAlreadyExists(Exception ex, WebRequest request) {
         CustomApiError error = new CustomApiError();
         error.setErrorCode(409);
@@ -56,7 +60,7 @@ public class TupResponseEntityExceptionHandler extends ResponseEntityExceptionHa
     }
 
     //NOT_FOUND (404)
-    @ExceptionHandler({PrestamoNoExisteException.class, ClientNoExisteException.class, CuentaNoExisteException.class, })
+    @ExceptionHandler({PrestamoNoExisteException.class, ClientNoExisteException.class, CuentaNoExisteException.class, PreAprobacionNoExisteException.class})
     protected ResponseEntity<Object> handleResourceNotFound(Exception ex, WebRequest request) {
         CustomApiError error = new CustomApiError();
         error.setErrorCode(404);
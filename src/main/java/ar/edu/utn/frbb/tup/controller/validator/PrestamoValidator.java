@@ -6,8 +6,11 @@ import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoMonedaNoSoportada;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class PrestamoValidator {
+    private static final int MAX_ESCENARIOS = 10_000;
 
     public void validatePrestamo(PrestamoDto prestamoDto) throws CreditScoreException, TipoMonedaNoSoportada, CampoIncorrecto {
         validateTipoMoneda(prestamoDto);
@@ -16,6 +19,18 @@ public class PrestamoValidator {
         //validateEstaedo(prestamoDto);
     }
 
+    public void validateSimulacion(List<PrestamoDto> escenarios) throws CreditScoreException, TipoMonedaNoSoportada, CampoIncorrecto {
+        if (escenarios == null || escenarios.isEmpty()) {
+            throw new CampoIncorrecto("Debe ingresar al menos un escenario para simular.");
+        }
+        if (escenarios.size() > MAX_ESCENARIOS) {
+            throw new CampoIncorrecto("No se pueden simular mas de " + MAX_ESCENARIOS + " escenarios por pedido.");
+        }
+        for (PrestamoDto escenario : escenarios) {
+            validatePrestamo(escenario);
+        }
+    }
+
     public void validateTipoMoneda(PrestamoDto prestamoDto) throws TipoMonedaNoSoportada {
         if (!"P".equals(prestamoDto.getTipoMoneda()) && !"D".equals(prestamoDto.getTipoMoneda())) {
             throw new TipoMonedaNoSoportada("El tipo de moneda no es correcto. Ingrese P: pesos o D: dolares");
@@ -32,6 +47,10 @@ public class PrestamoValidator {
         if (prestamoDto.getPlazoMeses() <= 0) {
             throw new CampoIncorrecto("El plazo no puede ser 0 o nulo.");
         }
+        String metodo = prestamoDto.getMetodoAmortizacion();
+        if (metodo != null && !"D".equals(metodo) && !"F".equals(metodo) && !"A".equals(metodo)) {
+            throw new CampoIncorrecto("El metodo de amortizacion no es correcto. Ingrese D: directo, F: frances o A: aleman");
+        }
     }
 
     private void validateDni(PrestamoDto prestamoDto) {
@@ -16,6 +16,8 @@ public class Cliente extends Persona{
     private Set<Cuenta> cuentas = new HashSet<>();
     private Set<Prestamo> prestamos = new HashSet<>();
     private boolean activo;
+    //version de la fila leida; el dao rechaza el guardado si otro la cambio en el medio
+    private long version;
 
     //constructores
     public Cliente() {
@@ -58,6 +60,13 @@ public class Cliente extends Persona{
         this.activo = activo;
     }
 
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Set<Cuenta> getCuentas() {
         return cuentas;
     }
@@ -0,0 +1,64 @@
+package ar.edu.utn.frbb.tup.model;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Supplier;
+
+//conjunto que se carga recien en el primer acceso (iterar, contar, agregar...). el dao lo arma con una
+//busqueda por indice, asi quien solo mira activo o las cuentas de un cliente no carga sus prestamos.
+//la carga es una sola vez aunque varios hilos lo lean a la vez
+public class ConjuntoDiferido<E> extends AbstractSet<E> {
+    private final Supplier<? extends Collection<E>> cargador;
+    private volatile Set<E> elementos;
+
+    public ConjuntoDiferido(Supplier<? extends Collection<E>> cargador) {
+        this.cargador = cargador;
+    }
+
+    //true si el conjunto ya se cargo (o si no es diferido)
+    public static boolean estaCargado(Set<?> conjunto) {
+        return !(conjunto instanceof ConjuntoDiferido) || ((ConjuntoDiferido<?>) conjunto).elementos != null;
+    }
+
+    private Set<E> elementos() {
+        Set<E> actuales = elementos;
+        if (actuales == null) {
+            synchronized (this) {
+                actuales = elementos;
+                if (actuales == null) {
+                    actuales = new HashSet<>(cargador.get());
+                    elementos = actuales;
+                }
+            }
+        }
+        return actuales;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return elementos().iterator();
+    }
+
+    @Override
+    public int size() {
+        return elementos().size();
+    }
+
+    @Override
+    public boolean contains(Object elemento) {
+        return elementos().contains(elemento);
+    }
+
+    @Override
+    public boolean add(E elemento) {
+        return elementos().add(elemento);
+    }
+
+    @Override
+    public boolean remove(Object elemento) {
+        return elementos().remove(elemento);
+    }
+}
@@ -5,7 +5,6 @@ import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
 
 import java.time.LocalDate;
-import java.util.Random;
 
 public class Cuenta {
     private long numeroCuenta;
@@ -15,10 +14,12 @@ public class Cuenta {
     private TipoCuenta tipoCuenta;
     private TipoMoneda tipoMoneda;
     private boolean estado;
+    //version de la fila leida; el dao rechaza el guardado si otro la cambio en el medio
+    private long version;
 
-    //constructores
+    //constructores; el numero de una cuenta nueva lo asigna el servicio al darla de alta
     public Cuenta() {
-        this.numeroCuenta = new Random().nextLong();
+
     }
     public Cuenta(long numeroCuenta, long dniTitular, LocalDate fechaCreacion, double balance, TipoCuenta tipoCuenta, TipoMoneda tipoMoneda, boolean estado) {
         this.numeroCuenta = numeroCuenta;
@@ -32,7 +33,6 @@ public class Cuenta {
 
     public Cuenta(CuentaDto cuentaDto) {
         dniTitular = cuentaDto.getDniTitular();
-        numeroCuenta = Math.abs(new Random().nextLong() % 1_000_000_000L) + 2_000_000_000L;
         tipoCuenta = TipoCuenta.fromString(cuentaDto.getTipoCuenta());
         tipoMoneda = TipoMoneda.fromString(cuentaDto.getTipoMoneda());
         this.balance = cuentaDto.getBalance();
@@ -92,4 +92,11 @@ public class Cuenta {
         this.estado = estado;
     }
 
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
\ No newline at end of file
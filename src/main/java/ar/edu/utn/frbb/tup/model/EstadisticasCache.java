@@ -0,0 +1,62 @@
+package ar.edu.utn.frbb.tup.model;
+
+public class EstadisticasCache {
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private int tamanio;
+    private int capacidad;
+
+    public EstadisticasCache() {
+
+    }
+
+    public EstadisticasCache(long aciertos, long fallos, long desalojos, int tamanio, int capacidad) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+        this.tamanio = tamanio;
+        this.capacidad = capacidad;
+    }
+
+    //getters y setters
+    public long getAciertos() {
+        return aciertos;
+    }
+    public void setAciertos(long aciertos) {
+        this.aciertos = aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+    public void setFallos(long fallos) {
+        this.fallos = fallos;
+    }
+
+    public long getDesalojos() {
+        return desalojos;
+    }
+    public void setDesalojos(long desalojos) {
+        this.desalojos = desalojos;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+    public void setTamanio(int tamanio) {
+        this.tamanio = tamanio;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+    public void setCapacidad(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public double getTasaAciertos() {
+        long consultas = aciertos + fallos;
+        return consultas == 0 ? 0 : (double) aciertos / consultas;
+    }
+}
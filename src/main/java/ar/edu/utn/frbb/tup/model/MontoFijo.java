@@ -0,0 +1,18 @@
+package ar.edu.utn.frbb.tup.model;
+
+//montos en punto fijo: diezmilesimos de la moneda en un long. los saldos y movimientos se suman asi,
+//sin el error de redondeo de double, y al reproducir el libro de movimientos el saldo da exacto
+public final class MontoFijo {
+    public static final long ESCALA = 10_000L;
+
+    private MontoFijo() {
+    }
+
+    public static long desde(double monto) {
+        return Math.round(monto * ESCALA);
+    }
+
+    public static double aDouble(long montoFijo) {
+        return montoFijo / (double) ESCALA;
+    }
+}
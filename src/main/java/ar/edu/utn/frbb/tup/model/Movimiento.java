@@ -0,0 +1,115 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+//un credito o debito en el libro de una cuenta. el monto va en punto fijo y con signo (los debitos son negativos);
+//el saldo de la cuenta es su saldo de apertura mas la suma de sus movimientos.
+//cada operacion es un asiento de doble partida: la pata de la cuenta del cliente y la pata contraria en la
+//cartera de prestamos de la moneda, con el mismo idAsiento y montos que suman cero
+public class Movimiento {
+    private long id;
+    private long idAsiento;
+    private long numeroCuenta;
+    private long contrapartida;
+    private TipoMovimiento tipo;
+    private long montoFijo;
+    private long idPrestamo;
+    private LocalDateTime fecha;
+
+    public Movimiento() {
+
+    }
+
+    public Movimiento(long numeroCuenta, long contrapartida, TipoMovimiento tipo, double monto, long idPrestamo) {
+        this.numeroCuenta = numeroCuenta;
+        this.contrapartida = contrapartida;
+        this.tipo = tipo;
+        this.montoFijo = MontoFijo.desde(monto);
+        this.idPrestamo = idPrestamo;
+        //se guarda en milisegundos: la fecha reproducida del journal es igual a la original
+        this.fecha = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    //cuentas internas del banco, una por moneda; no son filas de CUENTA (esas se numeran desde 2.000.000.000)
+    public static long cuentaCartera(TipoMoneda moneda) {
+        return moneda.ordinal() + 1;
+    }
+
+    //la otra pata del asiento: cuentas invertidas y monto con el signo contrario
+    public Movimiento pataContraria() {
+        Movimiento pata = new Movimiento();
+        pata.idAsiento = idAsiento;
+        pata.numeroCuenta = contrapartida;
+        pata.contrapartida = numeroCuenta;
+        pata.tipo = tipo;
+        pata.montoFijo = -montoFijo;
+        pata.idPrestamo = idPrestamo;
+        pata.fecha = fecha;
+        return pata;
+    }
+
+    //getters y setters
+    public long getId() {
+        return id;
+    }
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getIdAsiento() {
+        return idAsiento;
+    }
+    public void setIdAsiento(long idAsiento) {
+        this.idAsiento = idAsiento;
+    }
+
+    public long getNumeroCuenta() {
+        return numeroCuenta;
+    }
+    public void setNumeroCuenta(long numeroCuenta) {
+        this.numeroCuenta = numeroCuenta;
+    }
+
+    public long getContrapartida() {
+        return contrapartida;
+    }
+    public void setContrapartida(long contrapartida) {
+        this.contrapartida = contrapartida;
+    }
+
+    public TipoMovimiento getTipo() {
+        return tipo;
+    }
+    public void setTipo(TipoMovimiento tipo) {
+        this.tipo = tipo;
+    }
+
+    public long getMontoFijo() {
+        return montoFijo;
+    }
+    public void setMontoFijo(long montoFijo) {
+        this.montoFijo = montoFijo;
+    }
+
+    public double getMonto() {
+        return MontoFijo.aDouble(montoFijo);
+    }
+
+    public long getIdPrestamo() {
+        return idPrestamo;
+    }
+    public void setIdPrestamo(long idPrestamo) {
+        this.idPrestamo = idPrestamo;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+}
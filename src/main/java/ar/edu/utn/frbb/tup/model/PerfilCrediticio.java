@@ -0,0 +1,139 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+//resumen de tamaño fijo del historial de prestamos de un cliente. se arma una vez recorriendo
+//sus prestamos y despues se actualiza con cada alta, pago o cierre, asi el score no recorre la lista
+public class PerfilCrediticio {
+    private long dniCliente;
+    private int prestamosAprobados;
+    private int prestamosVigentes;
+    private int prestamosCerrados;
+    private int pagosRealizados;
+    private Map<TipoMoneda, Double> saldoPendiente = new EnumMap<>(TipoMoneda.class);
+
+    public PerfilCrediticio() {
+
+    }
+
+    public PerfilCrediticio(long dniCliente) {
+        this.dniCliente = dniCliente;
+    }
+
+    public static PerfilCrediticio desdePrestamos(long dniCliente, Collection<Prestamo> prestamos) {
+        PerfilCrediticio perfil = new PerfilCrediticio(dniCliente);
+        for (Prestamo prestamo : prestamos) {
+            perfil.sumar(prestamo);
+        }
+        return perfil;
+    }
+
+    //lo que suma un solo prestamo al perfil; se toma antes de modificarlo para registrar el cambio despues
+    public static PerfilCrediticio aporte(Prestamo prestamo) {
+        return desdePrestamos(prestamo.getDniTitular(), Collections.singletonList(prestamo));
+    }
+
+    //los registrar* se llaman una vez guardado el prestamo
+    public synchronized void registrarAlta(Prestamo prestamo) {
+        sumar(prestamo);
+    }
+
+    //pago o cierre: se saca lo que aportaba el prestamo antes del cambio y se suma como quedo
+    public synchronized void registrarCambio(PerfilCrediticio anterior, Prestamo prestamo) {
+        prestamosAprobados -= anterior.prestamosAprobados;
+        prestamosVigentes -= anterior.prestamosVigentes;
+        prestamosCerrados -= anterior.prestamosCerrados;
+        pagosRealizados -= anterior.pagosRealizados;
+        for (Map.Entry<TipoMoneda, Double> saldo : anterior.saldoPendiente.entrySet()) {
+            sumarSaldo(saldo.getKey(), -saldo.getValue());
+        }
+        sumar(prestamo);
+    }
+
+    public synchronized PerfilCrediticio copiar() {
+        PerfilCrediticio copia = new PerfilCrediticio(dniCliente);
+        copia.prestamosAprobados = prestamosAprobados;
+        copia.prestamosVigentes = prestamosVigentes;
+        copia.prestamosCerrados = prestamosCerrados;
+        copia.pagosRealizados = pagosRealizados;
+        copia.saldoPendiente.putAll(saldoPendiente);
+        return copia;
+    }
+
+    //un prestamo cerrado fue aprobado antes: sigue contando como aprobado y con sus cuotas pagadas
+    private void sumar(Prestamo prestamo) {
+        LoanStatus estado = prestamo.getLoanStatus();
+        if (estado != LoanStatus.APROBADO && estado != LoanStatus.CERRADO) {
+            return;
+        }
+        prestamosAprobados++;
+        pagosRealizados += prestamo.getPagosRealizados();
+        if (estado == LoanStatus.CERRADO) {
+            prestamosCerrados++;
+        } else {
+            if (prestamo.getPagosRealizados() < prestamo.getPlazoMeses()) {
+                prestamosVigentes++;
+            }
+            sumarSaldo(prestamo.getMoneda(), prestamo.getSaldoRestante());
+        }
+    }
+
+    private void sumarSaldo(TipoMoneda moneda, double monto) {
+        if (moneda != null) {
+            saldoPendiente.merge(moneda, monto, Double::sum);
+        }
+    }
+
+    //getters y setters
+    public long getDniCliente() {
+        return dniCliente;
+    }
+    public void setDniCliente(long dniCliente) {
+        this.dniCliente = dniCliente;
+    }
+
+    public int getPrestamosAprobados() {
+        return prestamosAprobados;
+    }
+    public void setPrestamosAprobados(int prestamosAprobados) {
+        this.prestamosAprobados = prestamosAprobados;
+    }
+
+    public int getPrestamosVigentes() {
+        return prestamosVigentes;
+    }
+    public void setPrestamosVigentes(int prestamosVigentes) {
+        this.prestamosVigentes = prestamosVigentes;
+    }
+
+    public int getPrestamosCerrados() {
+        return prestamosCerrados;
+    }
+    public void setPrestamosCerrados(int prestamosCerrados) {
+        this.prestamosCerrados = prestamosCerrados;
+    }
+
+    public int getPagosRealizados() {
+        return pagosRealizados;
+    }
+    public void setPagosRealizados(int pagosRealizados) {
+        this.pagosRealizados = pagosRealizados;
+    }
+
+    public Map<TipoMoneda, Double> getSaldoPendiente() {
+        return saldoPendiente;
+    }
+    public void setSaldoPendiente(Map<TipoMoneda, Double> saldoPendiente) {
+        this.saldoPendiente = saldoPendiente;
+    }
+
+    public double getSaldoPendiente(TipoMoneda moneda) {
+        return saldoPendiente.getOrDefault(moneda, 0.0);
+    }
+}
@@ -0,0 +1,39 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.amortizacion.MotorAmortizacion;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+//vista de solo lectura de las cuotas pendientes de un prestamo. no guarda un PlanPago por mes:
+//cada cuota se arma al pedirla con el motor de amortizacion a partir del capital, la tasa,
+//el plazo y los pagos realizados
+public class PlanDePagos extends AbstractList<PlanPago> implements RandomAccess {
+    private final MotorAmortizacion motor;
+    private final double capital;
+    private final double tasaAnual;
+    private final int plazoMeses;
+    private final int primeraCuota;
+
+    public PlanDePagos(MotorAmortizacion motor, double capital, double tasaAnual, int plazoMeses, int pagosRealizados) {
+        this.motor = motor;
+        this.capital = capital;
+        this.tasaAnual = tasaAnual;
+        this.plazoMeses = plazoMeses;
+        this.primeraCuota = pagosRealizados + 1;
+    }
+
+    @Override
+    public PlanPago get(int indice) {
+        if (indice < 0 || indice >= size()) {
+            throw new IndexOutOfBoundsException("Cuota " + indice + " fuera del plan de " + size() + " cuotas.");
+        }
+        int cuotaNro = primeraCuota + indice;
+        return new PlanPago(cuotaNro, motor.cuota(capital, tasaAnual, plazoMeses, cuotaNro));
+    }
+
+    @Override
+    public int size() {
+        return Math.max(plazoMeses - primeraCuota + 1, 0);
+    }
+}
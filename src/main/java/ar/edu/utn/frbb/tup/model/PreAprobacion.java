@@ -0,0 +1,61 @@
+package ar.edu.utn.frbb.tup.model;
+
+import java.time.LocalDate;
+
+//limite preaprobado (en pesos) de un cliente, calculado por el proceso nocturno.
+//montoDisponible baja con cada prestamo que se da de alta contra la preaprobacion
+public class PreAprobacion {
+    private long dniCliente;
+    private int score;
+    private double montoPreAprobado;
+    private double montoDisponible;
+    private LocalDate fechaCalculo;
+
+    public PreAprobacion() {
+
+    }
+
+    public PreAprobacion(long dniCliente, int score, double montoPreAprobado, LocalDate fechaCalculo) {
+        this.dniCliente = dniCliente;
+        this.score = score;
+        this.montoPreAprobado = montoPreAprobado;
+        this.montoDisponible = montoPreAprobado;
+        this.fechaCalculo = fechaCalculo;
+    }
+
+    //getters y setters
+    public long getDniCliente() {
+        return dniCliente;
+    }
+    public void setDniCliente(long dniCliente) {
+        this.dniCliente = dniCliente;
+    }
+
+    public int getScore() {
+        return score;
+    }
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public double getMontoPreAprobado() {
+        return montoPreAprobado;
+    }
+    public void setMontoPreAprobado(double montoPreAprobado) {
+        this.montoPreAprobado = montoPreAprobado;
+    }
+
+    public double getMontoDisponible() {
+        return montoDisponible;
+    }
+    public void setMontoDisponible(double montoDisponible) {
+        this.montoDisponible = montoDisponible;
+    }
+
+    public LocalDate getFechaCalculo() {
+        return fechaCalculo;
+    }
+    public void setFechaCalculo(LocalDate fechaCalculo) {
+        this.fechaCalculo = fechaCalculo;
+    }
+}
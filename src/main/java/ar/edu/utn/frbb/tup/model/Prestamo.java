@@ -2,13 +2,17 @@ package ar.edu.utn.frbb.tup.model;
 
 import ar.edu.utn.frbb.tup.controller.dto.PrestamoDto;
 import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
 public class Prestamo {
+    public static final double TASA_INTERES_ANUAL = 0.40;
+    //unico umbral de aprobacion: lo usan el alta, la validacion del score y la preaprobacion
+    public static final int SCORE_APROBACION = 700;
+
     private long id;
     private long dniTitular;
     private double montoSolicitado;
@@ -17,45 +21,47 @@ public class Prestamo {
     private int plazoMeses;
     private LoanStatus loanStatus;
     private String mensaje;
-    List<PlanPago> planDePagos;
+    private MetodoAmortizacion metodoAmortizacion = MetodoAmortizacion.DIRECTO;
 
     //nuevos
     private double saldoRestante;
     private int pagosRealizados;
     private final double tasaInteres;
+    //version de la fila leida; el dao rechaza el guardado si otro la cambio en el medio
+    private long version;
 
     //constructores
     public Prestamo() {
-        this.id = generarIdAleatorio();
-        this.planDePagos = new ArrayList<>();
-        this.tasaInteres = 0.40;
+        this.tasaInteres = TASA_INTERES_ANUAL;
     }
 
     public Prestamo(long dniTitular, double montoSolicitado, LoanStatus loanStatus) {
         this.dniTitular = dniTitular;
         this.montoSolicitado = montoSolicitado;
         this.loanStatus = loanStatus;
-        this.tasaInteres = 0.40;
+        this.tasaInteres = TASA_INTERES_ANUAL;
     }
 
+    //el id lo asigna el servicio al registrar el alta; una simulacion queda sin id
     public Prestamo(PrestamoDto prestamoDto, int score) {
-        this.id = generarIdAleatorio();
         this.dniTitular = prestamoDto.getNumeroCliente();
         this.montoSolicitado = prestamoDto.getMontoPrestamo();
         this.monto = prestamoDto.getMontoPrestamo();
-        this.tasaInteres = 0.40;
+        this.tasaInteres = TASA_INTERES_ANUAL;
         this.moneda = TipoMoneda.fromString(prestamoDto.getTipoMoneda());
         this.plazoMeses = prestamoDto.getPlazoMeses();
-        this.loanStatus = score >= 700 ? LoanStatus.APROBADO : LoanStatus.RECHAZADO;
+        if (prestamoDto.getMetodoAmortizacion() != null) {
+            this.metodoAmortizacion = MetodoAmortizacion.fromString(prestamoDto.getMetodoAmortizacion());
+        }
+        this.loanStatus = score >= SCORE_APROBACION ? LoanStatus.APROBADO : LoanStatus.RECHAZADO;
         this.mensaje = devolverMensaje(this.loanStatus);
     }
 
-    public Prestamo(long id, double monto, int plazoMeses, List<PlanPago> planDePagos) {
+    public Prestamo(long id, double monto, int plazoMeses) {
         this.id = id;
         this.monto = monto;
-        this.tasaInteres = 0.40;
+        this.tasaInteres = TASA_INTERES_ANUAL;
         this.plazoMeses = plazoMeses;
-        this.planDePagos = planDePagos;
     }
 
     //getters & setters
@@ -109,11 +115,19 @@ public class Prestamo {
         this.moneda = moneda;
     }
 
+    //solo los prestamos aprobados tienen cuotas pendientes; se calculan con el metodo de amortizacion
     public List<PlanPago> getPlanDePagos() {
-        return planDePagos;
+        if (loanStatus != LoanStatus.APROBADO) {
+            return Collections.emptyList();
+        }
+        return new PlanDePagos(metodoAmortizacion.getMotor(), montoSolicitado, tasaInteres, plazoMeses, pagosRealizados);
+    }
+
+    public MetodoAmortizacion getMetodoAmortizacion() {
+        return metodoAmortizacion;
     }
-    public void setPlanDePagos(List<PlanPago> planDePagos) {
-        this.planDePagos = planDePagos;
+    public void setMetodoAmortizacion(MetodoAmortizacion metodoAmortizacion) {
+        this.metodoAmortizacion = metodoAmortizacion;
     }
 
     public String getMensaje() {
@@ -141,11 +155,14 @@ public class Prestamo {
         return tasaInteres;
     }
 
-    //otros metodos
-    private long generarIdAleatorio() {
-        return Math.abs(new Random().nextLong() % 1_000_000_000L) + 2_000_000_000L;
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
     }
 
+    //otros metodos
     public String devolverMensaje(LoanStatus estado) {
         switch (estado) {
             case APROBADO:
@@ -0,0 +1,55 @@
+package ar.edu.utn.frbb.tup.model;
+
+import java.time.LocalDateTime;
+
+//resumen de una corrida del proceso de preaprobacion
+public class ResultadoPreAprobacion {
+    private LocalDateTime inicio;
+    private long clientes;
+    private long preAprobados;
+    private long duracionMs;
+
+    public ResultadoPreAprobacion() {
+
+    }
+
+    public ResultadoPreAprobacion(LocalDateTime inicio, long clientes, long preAprobados, long duracionMs) {
+        this.inicio = inicio;
+        this.clientes = clientes;
+        this.preAprobados = preAprobados;
+        this.duracionMs = duracionMs;
+    }
+
+    //getters y setters
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public long getClientes() {
+        return clientes;
+    }
+    public void setClientes(long clientes) {
+        this.clientes = clientes;
+    }
+
+    public long getPreAprobados() {
+        return preAprobados;
+    }
+    public void setPreAprobados(long preAprobados) {
+        this.preAprobados = preAprobados;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public double getClientesPorSegundo() {
+        return duracionMs == 0 ? clientes : clientes * 1000.0 / duracionMs;
+    }
+}
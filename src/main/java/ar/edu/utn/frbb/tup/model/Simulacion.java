@@ -0,0 +1,112 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.amortizacion.Cotizacion;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+
+import java.util.List;
+
+//resultado de simular un prestamo: no se guarda ni modifica balances.
+//si el cliente no existe o no tiene cuenta corriente en la moneda, estado queda null y mensaje explica por que
+public class Simulacion {
+    private long numeroCliente;
+    private double montoSolicitado;
+    private int plazoMeses;
+    private TipoMoneda moneda;
+    private MetodoAmortizacion metodoAmortizacion;
+    private double montoTotal;
+    private double interesTotal;
+    private LoanStatus estado;
+    private String mensaje;
+    private List<PlanPago> planPagos;
+
+    public Simulacion() {
+
+    }
+
+    public Simulacion(Prestamo prestamo, Cotizacion cotizacion) {
+        this.numeroCliente = prestamo.getDniTitular();
+        this.montoSolicitado = prestamo.getMontoSolicitado();
+        this.plazoMeses = prestamo.getPlazoMeses();
+        this.moneda = prestamo.getMoneda();
+        this.metodoAmortizacion = prestamo.getMetodoAmortizacion();
+        this.montoTotal = cotizacion.getTotal();
+        this.interesTotal = cotizacion.getInteres();
+        this.estado = prestamo.getLoanStatus();
+        this.mensaje = prestamo.getMensaje();
+        //el plan se muestra aunque la prediccion sea rechazado; es una vista sobre la cotizacion compartida
+        this.planPagos = cotizacion.getPlanPagos();
+    }
+
+    //getters y setters
+    public long getNumeroCliente() {
+        return numeroCliente;
+    }
+    public void setNumeroCliente(long numeroCliente) {
+        this.numeroCliente = numeroCliente;
+    }
+
+    public double getMontoSolicitado() {
+        return montoSolicitado;
+    }
+    public void setMontoSolicitado(double montoSolicitado) {
+        this.montoSolicitado = montoSolicitado;
+    }
+
+    public int getPlazoMeses() {
+        return plazoMeses;
+    }
+    public void setPlazoMeses(int plazoMeses) {
+        this.plazoMeses = plazoMeses;
+    }
+
+    public TipoMoneda getMoneda() {
+        return moneda;
+    }
+    public void setMoneda(TipoMoneda moneda) {
+        this.moneda = moneda;
+    }
+
+    public MetodoAmortizacion getMetodoAmortizacion() {
+        return metodoAmortizacion;
+    }
+    public void setMetodoAmortizacion(MetodoAmortizacion metodoAmortizacion) {
+        this.metodoAmortizacion = metodoAmortizacion;
+    }
+
+    public double getMontoTotal() {
+        return montoTotal;
+    }
+    public void setMontoTotal(double montoTotal) {
+        this.montoTotal = montoTotal;
+    }
+
+    public double getInteresTotal() {
+        return interesTotal;
+    }
+    public void setInteresTotal(double interesTotal) {
+        this.interesTotal = interesTotal;
+    }
+
+    public LoanStatus getEstado() {
+        return estado;
+    }
+    public void setEstado(LoanStatus estado) {
+        this.estado = estado;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public List<PlanPago> getPlanPagos() {
+        return planPagos;
+    }
+    public void setPlanPagos(List<PlanPago> planPagos) {
+        this.planPagos = planPagos;
+    }
+}
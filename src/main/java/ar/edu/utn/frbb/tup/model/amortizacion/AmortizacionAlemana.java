@@ -0,0 +1,41 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+//amortizacion de capital constante: la cuota es capital / plazo mas el interes del saldo, asi que baja cada mes
+public final class AmortizacionAlemana implements MotorAmortizacion {
+
+    @Override
+    public double cuota(double capital, double tasaAnual, int plazoMeses, int cuotaNro) {
+        double amortizacion = capital / plazoMeses;
+        double saldo = capital - amortizacion * (cuotaNro - 1);
+        return amortizacion + saldo * (tasaAnual / 12.0);
+    }
+
+    @Override
+    public double total(double capital, double tasaAnual, int plazoMeses) {
+        //los intereses suman tasa * capital * (plazo + 1) / 2
+        return capital + capital * (tasaAnual / 12.0) * (plazoMeses + 1) / 2.0;
+    }
+
+    @Override
+    public void cuotas(double capital, double tasaAnual, int plazoMeses, double[] destino) {
+        double amortizacion = capital / plazoMeses;
+        double tasaMensual = tasaAnual / 12.0;
+        double primera = amortizacion + capital * tasaMensual;
+        double baja = amortizacion * tasaMensual;
+        for (int i = 0; i < plazoMeses; i++) {
+            destino[i] = primera - baja * i;
+        }
+    }
+
+    @Override
+    public void cotizar(LoteCotizacion lote) {
+        double[] capitales = lote.capitales;
+        double[] tasas = lote.tasas;
+        int[] plazos = lote.plazos;
+        for (int i = 0; i < lote.cantidad; i++) {
+            double interesInicial = capitales[i] * (tasas[i] / 12.0);
+            lote.primerasCuotas[i] = capitales[i] / plazos[i] + interesInicial;
+            lote.totales[i] = capitales[i] + interesInicial * (plazos[i] + 1) / 2.0;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+import java.util.Arrays;
+
+//interes simple sobre el capital inicial repartido en cuotas iguales (el calculo original del sistema)
+public final class AmortizacionDirecta implements MotorAmortizacion {
+
+    @Override
+    public double cuota(double capital, double tasaAnual, int plazoMeses, int cuotaNro) {
+        return total(capital, tasaAnual, plazoMeses) / plazoMeses;
+    }
+
+    @Override
+    public double total(double capital, double tasaAnual, int plazoMeses) {
+        return capital + capital * tasaAnual * (plazoMeses / 12.0);
+    }
+
+    @Override
+    public void cuotas(double capital, double tasaAnual, int plazoMeses, double[] destino) {
+        Arrays.fill(destino, 0, plazoMeses, cuota(capital, tasaAnual, plazoMeses, 1));
+    }
+
+    @Override
+    public void cotizar(LoteCotizacion lote) {
+        double[] capitales = lote.capitales;
+        double[] tasas = lote.tasas;
+        int[] plazos = lote.plazos;
+        for (int i = 0; i < lote.cantidad; i++) {
+            double total = capitales[i] + capitales[i] * tasas[i] * (plazos[i] / 12.0);
+            lote.totales[i] = total;
+            lote.primerasCuotas[i] = total / plazos[i];
+        }
+    }
+}
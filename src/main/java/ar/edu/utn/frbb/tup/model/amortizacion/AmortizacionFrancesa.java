@@ -0,0 +1,42 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+import java.util.Arrays;
+
+//cuota constante: cada mes paga el interes sobre el saldo y el resto amortiza capital
+public final class AmortizacionFrancesa implements MotorAmortizacion {
+
+    @Override
+    public double cuota(double capital, double tasaAnual, int plazoMeses, int cuotaNro) {
+        return cuotaFija(capital, tasaAnual / 12.0, plazoMeses);
+    }
+
+    @Override
+    public double total(double capital, double tasaAnual, int plazoMeses) {
+        return cuotaFija(capital, tasaAnual / 12.0, plazoMeses) * plazoMeses;
+    }
+
+    @Override
+    public void cuotas(double capital, double tasaAnual, int plazoMeses, double[] destino) {
+        Arrays.fill(destino, 0, plazoMeses, cuotaFija(capital, tasaAnual / 12.0, plazoMeses));
+    }
+
+    @Override
+    public void cotizar(LoteCotizacion lote) {
+        double[] capitales = lote.capitales;
+        double[] tasas = lote.tasas;
+        int[] plazos = lote.plazos;
+        for (int i = 0; i < lote.cantidad; i++) {
+            double cuota = cuotaFija(capitales[i], tasas[i] / 12.0, plazos[i]);
+            lote.primerasCuotas[i] = cuota;
+            lote.totales[i] = cuota * plazos[i];
+        }
+    }
+
+    private static double cuotaFija(double capital, double tasaMensual, int plazoMeses) {
+        if (tasaMensual == 0) {
+            return capital / plazoMeses;
+        }
+        //(1 + i)^-n calculado con log1p para no perder precision con tasas chicas
+        return capital * tasaMensual / (1 - Math.exp(-plazoMeses * Math.log1p(tasaMensual)));
+    }
+}
@@ -0,0 +1,83 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+import ar.edu.utn.frbb.tup.model.PlanPago;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+//total, intereses y plan completo de un (capital, tasa, plazo, moneda, metodo). es inmutable porque
+//la cache de cotizaciones la comparte entre hilos y entre prestamos con los mismos datos
+public final class Cotizacion {
+    private final double capital;
+    private final double tasaAnual;
+    private final int plazoMeses;
+    private final TipoMoneda moneda;
+    private final MetodoAmortizacion metodo;
+    private final double total;
+    private final double[] cuotas;
+
+    public Cotizacion(double capital, double tasaAnual, int plazoMeses, TipoMoneda moneda, MetodoAmortizacion metodo) {
+        MotorAmortizacion motor = metodo.getMotor();
+        this.capital = capital;
+        this.tasaAnual = tasaAnual;
+        this.plazoMeses = plazoMeses;
+        this.moneda = moneda;
+        this.metodo = metodo;
+        this.total = motor.total(capital, tasaAnual, plazoMeses);
+        this.cuotas = new double[plazoMeses];
+        motor.cuotas(capital, tasaAnual, plazoMeses, cuotas);
+    }
+
+    public double getCapital() {
+        return capital;
+    }
+
+    public double getTasaAnual() {
+        return tasaAnual;
+    }
+
+    public int getPlazoMeses() {
+        return plazoMeses;
+    }
+
+    public TipoMoneda getMoneda() {
+        return moneda;
+    }
+
+    public MetodoAmortizacion getMetodo() {
+        return metodo;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getInteres() {
+        return total - capital;
+    }
+
+    //monto de la cuota cuotaNro (desde 1)
+    public double getCuota(int cuotaNro) {
+        return cuotas[cuotaNro - 1];
+    }
+
+    //vista de solo lectura del plan completo sobre el arreglo de cuotas
+    public List<PlanPago> getPlanPagos() {
+        return new Plan();
+    }
+
+    private final class Plan extends AbstractList<PlanPago> implements RandomAccess {
+        @Override
+        public PlanPago get(int indice) {
+            return new PlanPago(indice + 1, cuotas[indice]);
+        }
+
+        @Override
+        public int size() {
+            return cuotas.length;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+import java.util.Arrays;
+
+//lote de cotizaciones (capital, tasa, plazo) guardado en arreglos paralelos para que el motor
+//recorra miles de filas por llamada sin un objeto por cotizacion. se puede limpiar y reusar
+public class LoteCotizacion {
+    double[] capitales;
+    double[] tasas;
+    int[] plazos;
+    double[] primerasCuotas;
+    double[] totales;
+    int cantidad;
+
+    public LoteCotizacion(int capacidad) {
+        capitales = new double[capacidad];
+        tasas = new double[capacidad];
+        plazos = new int[capacidad];
+        primerasCuotas = new double[capacidad];
+        totales = new double[capacidad];
+    }
+
+    //devuelve la posicion de la fila agregada
+    public int agregar(double capital, double tasaAnual, int plazoMeses) {
+        if (cantidad == capitales.length) {
+            int capacidad = Math.max(16, capitales.length * 2);
+            capitales = Arrays.copyOf(capitales, capacidad);
+            tasas = Arrays.copyOf(tasas, capacidad);
+            plazos = Arrays.copyOf(plazos, capacidad);
+            primerasCuotas = Arrays.copyOf(primerasCuotas, capacidad);
+            totales = Arrays.copyOf(totales, capacidad);
+        }
+        capitales[cantidad] = capital;
+        tasas[cantidad] = tasaAnual;
+        plazos[cantidad] = plazoMeses;
+        return cantidad++;
+    }
+
+    public int size() {
+        return cantidad;
+    }
+
+    public void limpiar() {
+        cantidad = 0;
+    }
+
+    public double getCapital(int fila) {
+        return capitales[fila];
+    }
+
+    public double getTasa(int fila) {
+        return tasas[fila];
+    }
+
+    public int getPlazo(int fila) {
+        return plazos[fila];
+    }
+
+    public double getPrimeraCuota(int fila) {
+        return primerasCuotas[fila];
+    }
+
+    public double getTotal(int fila) {
+        return totales[fila];
+    }
+}
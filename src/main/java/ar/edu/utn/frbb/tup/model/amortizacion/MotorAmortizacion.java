@@ -0,0 +1,27 @@
+package ar.edu.utn.frbb.tup.model.amortizacion;
+
+//sistema de amortizacion de un prestamo. la tasa es nominal anual (0.40 = 40%) y las cuotas se numeran desde 1.
+//los calculos son sobre primitivos: ningun metodo crea objetos por cuota
+public interface MotorAmortizacion {
+
+    //monto de la cuota cuotaNro
+    double cuota(double capital, double tasaAnual, int plazoMeses, int cuotaNro);
+
+    //capital mas intereses
+    double total(double capital, double tasaAnual, int plazoMeses);
+
+    //llena destino[0..plazoMeses) con el plan completo
+    default void cuotas(double capital, double tasaAnual, int plazoMeses, double[] destino) {
+        for (int i = 0; i < plazoMeses; i++) {
+            destino[i] = cuota(capital, tasaAnual, plazoMeses, i + 1);
+        }
+    }
+
+    //cotiza todas las filas del lote: primera cuota y total de cada una
+    default void cotizar(LoteCotizacion lote) {
+        for (int i = 0; i < lote.cantidad; i++) {
+            lote.primerasCuotas[i] = cuota(lote.capitales[i], lote.tasas[i], lote.plazos[i], 1);
+            lote.totales[i] = total(lote.capitales[i], lote.tasas[i], lote.plazos[i]);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ar.edu.utn.frbb.tup.model.enums;
+
+import ar.edu.utn.frbb.tup.model.amortizacion.AmortizacionAlemana;
+import ar.edu.utn.frbb.tup.model.amortizacion.AmortizacionDirecta;
+import ar.edu.utn.frbb.tup.model.amortizacion.AmortizacionFrancesa;
+import ar.edu.utn.frbb.tup.model.amortizacion.MotorAmortizacion;
+
+public enum MetodoAmortizacion {
+    DIRECTO("D", new AmortizacionDirecta()),
+    FRANCES("F", new AmortizacionFrancesa()),
+    ALEMAN("A", new AmortizacionAlemana());
+
+    private final String descripcion;
+    private final MotorAmortizacion motor;
+
+    MetodoAmortizacion(String descripcion, MotorAmortizacion motor) {
+        this.descripcion = descripcion;
+        this.motor = motor;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public MotorAmortizacion getMotor() {
+        return motor;
+    }
+
+    public static MetodoAmortizacion fromString(String text) {
+        for (MetodoAmortizacion metodo : MetodoAmortizacion.values()) {
+            if (metodo.descripcion.equalsIgnoreCase(text)) {
+                return metodo;
+            }
+        }
+        throw new IllegalArgumentException("No se pudo encontrar un MetodoAmortizacion con la descripción: " + text);
+    }
+}
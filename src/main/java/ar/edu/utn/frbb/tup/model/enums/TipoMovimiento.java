@@ -0,0 +1,27 @@
+package ar.edu.utn.frbb.tup.model.enums;
+
+public enum TipoMovimiento {
+    DESEMBOLSO_PRESTAMO("D"),
+    DEBITO_CUOTA("C"),
+    //contraasiento de un desembolso o debito cuyo prestamo no se pudo guardar
+    ANULACION("A");
+
+    private final String descripcion;
+
+    TipoMovimiento(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public static TipoMovimiento fromString(String text) {
+        for (TipoMovimiento tipo : TipoMovimiento.values()) {
+            if (tipo.descripcion.equalsIgnoreCase(text)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("No se pudo encontrar un TipoMovimiento con la descripción: " + text);
+    }
+}
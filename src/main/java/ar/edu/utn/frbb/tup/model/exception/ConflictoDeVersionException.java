@@ -0,0 +1,9 @@
+package ar.edu.utn.frbb.tup.model.exception;
+
+//otro guardado cambio la fila despues de leerla. es unchecked porque puede salir de cualquier save;
+//los servicios la reintentan con Reintentos y si se agotan los intentos llega al cliente como 409
+public class ConflictoDeVersionException extends RuntimeException {
+    public ConflictoDeVersionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ar.edu.utn.frbb.tup.model.exception.prestamo;
+
+public class PreAprobacionNoExisteException extends Exception {
+    public PreAprobacionNoExisteException(String message) {
+        super(message);
+    }
+}
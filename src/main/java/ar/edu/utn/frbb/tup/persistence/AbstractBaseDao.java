@@ -1,16 +1,392 @@
 package ar.edu.utn.frbb.tup.persistence;
 
-import java.util.HashMap;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.collection.Tabla;
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorMemoria;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 public abstract class AbstractBaseDao {
-    protected static Map<String, Map<Long, Object>> poorMansDatabase = new HashMap<>();
+    private static final long[] SIN_IDS = new long[0];
+    private static final MotorAlmacenamiento EN_MEMORIA = new MotorMemoria();
+
+    //cada tabla es un mapa long -> entidad sin boxing de las claves: escrituras con lock por segmento,
+    //lecturas optimistas y findAll recorre una copia aunque haya escrituras concurrentes.
+    //en modo off-heap la tabla guarda los registros codificados fuera del heap
+    protected static Map<String, Tabla<Object>> poorMansDatabase = new ConcurrentHashMap<>();
+    //indices secundarios: clave -> ids de la tabla en un long[] que se reemplaza en cada cambio,
+    //mantenidos por cada dao al guardar
+    protected static Map<String, ConcurrentLongObjectMap<long[]>> poorMansIndexes = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    protected Journal journal;
+
+    //motor de las tablas (tup.persistence.backend); un dao creado fuera de spring queda en memoria
+    protected MotorAlmacenamiento motor = EN_MEMORIA;
+
+    //modo compacto: la tabla guarda cada entidad codificada (byte[]) y se decodifica al leerla
+    @Value("${tup.persistence.compact:false}")
+    protected boolean compacto;
+
+    //modo off-heap para las tablas que lo admiten: registros codificados en slabs de memoria directa
+    @Value("${tup.persistence.offheap:false}")
+    protected boolean offHeap;
+
     protected abstract String getEntityName();
+    protected abstract EntityCodec<? extends BaseEntity> getCodec();
+
+    //recibe cada fila codificada al exportar la tabla a un snapshot
+    public interface Exportador {
+        void exportar(long id, byte[] datos) throws IOException;
+    }
+
+    public String getNombreTabla() {
+        return getEntityName();
+    }
 
-    protected Map<Long, Object> getInMemoryDatabase() {
-        if (poorMansDatabase.get(getEntityName()) == null) {
-            poorMansDatabase.put(getEntityName(),new HashMap<>());
+    //las tablas grandes (cuentas y prestamos) lo sobreescriben para poder ir fuera del heap
+    protected boolean admiteOffHeap() {
+        return false;
+    }
+
+    //las tablas derivadas, que se pueden recalcular, lo sobreescriben para no pasar por el journal
+    protected boolean registraEnJournal() {
+        return true;
+    }
+
+    //las tablas que se reescriben enteras (ultima escritura gana) lo sobreescriben para no comparar versiones
+    protected boolean controlaVersion() {
+        return true;
+    }
+
+    private boolean usaOffHeap() {
+        return offHeap && admiteOffHeap();
+    }
+
+    //la fila se guarda como byte[] en modo compacto, off-heap y en los motores que guardan registros
+    private boolean guardaCodificado() {
+        return compacto || usaOffHeap() || motor.guardaCodificado();
+    }
+
+    @Autowired(required = false)
+    public void setMotor(MotorAlmacenamiento motor) {
+        this.motor = motor;
+    }
+
+    protected Tabla<Object> getInMemoryDatabase() {
+        return poorMansDatabase.computeIfAbsent(getEntityName(), nombre -> motor.abrirTabla(nombre, usaOffHeap()));
+    }
+
+    //entidad guardada con ese id, decodificada si la tabla esta en modo compacto
+    protected BaseEntity obtener(long id) {
+        return aEntidad(getInMemoryDatabase().get(id));
+    }
+
+    //entidades con esos ids en el mismo orden (null si no existe); el motor sql las lee por lotes
+    protected List<BaseEntity> obtenerTodos(long[] ids) {
+        List<Object> filas = getInMemoryDatabase().getAll(ids);
+        List<BaseEntity> entidades = new ArrayList<>(filas.size());
+        for (Object fila : filas) {
+            entidades.add(aEntidad(fila));
         }
-        return poorMansDatabase.get(getEntityName());
+        return entidades;
+    }
+
+    //ids de la tabla en el momento de recorrerla
+    protected long[] getIds() {
+        long[][] ids = {new long[Math.max(getInMemoryDatabase().size(), 16)]};
+        int[] cantidad = {0};
+        getInMemoryDatabase().forEach((id, fila) -> {
+            if (cantidad[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], cantidad[0] * 2);
+            }
+            ids[0][cantidad[0]++] = id;
+        });
+        return Arrays.copyOf(ids[0], cantidad[0]);
+    }
+
+    //mayor id guardado en una tabla (0 si esta vacia o no existe)
+    protected static long mayorId(String tabla) {
+        Tabla<Object> filas = poorMansDatabase.get(tabla);
+        long[] mayor = {0};
+        if (filas != null) {
+            filas.forEach((id, fila) -> mayor[0] = Math.max(mayor[0], id));
+        }
+        return mayor[0];
+    }
+
+    protected List<BaseEntity> getEntidades() {
+        List<Object> filas = getInMemoryDatabase().values();
+        List<BaseEntity> entidades = new ArrayList<>(filas.size());
+        for (Object fila : filas) {
+            entidades.add(aEntidad(fila));
+        }
+        return entidades;
+    }
+
+    //con un motor durable los indices en memoria se arman recorriendo la tabla guardada
+    @PostConstruct
+    protected void iniciar() {
+        registrarEnJournal();
+        if (motor.isDurable()) {
+            getInMemoryDatabase().forEach((id, fila) -> actualizarIndices(null, aEntidad(fila)));
+        }
+    }
+
+    protected void registrarEnJournal() {
+        if (journal != null) {
+            journal.registrarTabla(getEntityName(), this::restaurar);
+        }
+    }
+
+    //guarda la entidad, actualiza los indices y la registra en el journal.
+    //todo ocurre bajo el lock del id, asi el journal queda en el mismo orden que la tabla.
+    //es un compare-and-set: la entidad trae la version que se leyo (0 si es nueva) y se guarda con la siguiente;
+    //si la fila ya tiene otra version no se toca nada y se lanza ConflictoDeVersionException.
+    //si el journal rechaza el registro la tabla vuelve a la fila anterior antes de propagar el error, y si falla
+    //la escritura del motor (o el encolado en el journal) los indices vuelven a la fila anterior
+    protected BaseEntity guardar(BaseEntity entity) {
+        boolean controlar = controlaVersion();
+        long esperada = entity.getVersion();
+        if (controlar) {
+            entity.setVersion(esperada + 1);
+        }
+        boolean registrar = registraCambios();
+        byte[] datos = registrar || guardaCodificado() ? codificar(entity) : null;
+        boolean[] conflicto = new boolean[1];
+        boolean[] indexado = new boolean[1];
+        BaseEntity[] anterior = new BaseEntity[1];
+        Object[] filas = new Object[2];
+        Journal.Escritura[] escritura = new Journal.Escritura[1];
+        //mientras se rota el journal para un snapshot no puede haber un guardado a medias
+        Lock lock = registrar ? journal.lockEscrituras() : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            getInMemoryDatabase().compute(entity.getId(), actual -> {
+                anterior[0] = aEntidad(actual);
+                if (controlar && (anterior[0] != null ? anterior[0].getVersion() : 0) != esperada) {
+                    conflicto[0] = true;
+                    return actual;
+                }
+                actualizarIndices(anterior[0], entity);
+                indexado[0] = true;
+                if (registrar) {
+                    escritura[0] = journal.registrar(getEntityName(), entity.getId(), datos);
+                }
+                filas[0] = actual;
+                filas[1] = guardaCodificado() ? datos : entity;
+                return filas[1];
+            });
+        } catch (RuntimeException e) {
+            if (indexado[0]) {
+                actualizarIndices(entity, anterior[0]);
+            }
+            entity.setVersion(esperada);
+            throw e;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+        if (conflicto[0]) {
+            entity.setVersion(esperada);
+            throw new ConflictoDeVersionException("El registro " + entity.getId() + " de " + getEntityName()
+                    + " fue modificado por otra operación (versión leída " + esperada + ", actual "
+                    + (anterior[0] != null ? anterior[0].getVersion() : 0) + ").");
+        }
+        if (escritura[0] != null) {
+            try {
+                journal.esperar(escritura[0]);
+            } catch (RuntimeException e) {
+                deshacer(entity.getId(), filas[1], filas[0]);
+                entity.setVersion(esperada);
+                throw e;
+            }
+        }
+        return anterior[0];
+    }
+
+    //vuelve la fila a la anterior si sigue siendo la que se escribio (otro guardado posterior no se pisa)
+    private void deshacer(long id, Object escrita, Object filaAnterior) {
+        getInMemoryDatabase().compute(id, actual -> {
+            if (!mismaFila(actual, escrita)) {
+                return actual;
+            }
+            actualizarIndices(aEntidad(escrita), aEntidad(filaAnterior));
+            return filaAnterior;
+        });
+    }
+
+    //off-heap la tabla devuelve una copia del registro, asi que se comparan los bytes
+    private static boolean mismaFila(Object actual, Object escrita) {
+        if (actual instanceof byte[] && escrita instanceof byte[]) {
+            return Arrays.equals((byte[]) actual, (byte[]) escrita);
+        }
+        return actual == escrita;
+    }
+
+    //guarda varias entidades en un solo lote del motor y un solo registro del journal, asi el lote se recupera
+    //entero o no se recupera. solo para las tablas donde la ultima escritura gana o que solo tienen altas:
+    //no compara versiones ni toma el lock de cada id, asi que dos lotes con el mismo id no se ordenan entre si
+    protected void guardarTodos(List<? extends BaseEntity> entidades) {
+        if (controlaVersion()) {
+            throw new IllegalStateException("La tabla " + getEntityName() + " controla versiones: se guarda de a una entidad.");
+        }
+        if (entidades.isEmpty()) {
+            return;
+        }
+        boolean registrar = registraCambios();
+        long[] ids = new long[entidades.size()];
+        List<Object> filas = new ArrayList<>(entidades.size());
+        for (int i = 0; i < ids.length; i++) {
+            BaseEntity entity = entidades.get(i);
+            ids[i] = entity.getId();
+            filas.add(registrar || guardaCodificado() ? codificar(entity) : entity);
+        }
+        Tabla<Object> tabla = getInMemoryDatabase();
+        List<Object> anteriores = tabla.getAll(ids);
+        Journal.Escritura escritura = null;
+        Lock lock = registrar ? journal.lockEscrituras() : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            tabla.putAll(ids, guardaCodificado() ? filas : entidades);
+            for (int i = 0; i < ids.length; i++) {
+                actualizarIndices(aEntidad(anteriores.get(i)), entidades.get(i));
+            }
+            if (registrar) {
+                List<byte[]> registros = new ArrayList<>(filas.size());
+                for (Object fila : filas) {
+                    registros.add((byte[]) fila);
+                }
+                escritura = journal.registrar(getEntityName(), ids, registros);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < ids.length; i++) {
+                deshacer(ids[i], guardaCodificado() ? filas.get(i) : entidades.get(i), anteriores.get(i));
+            }
+            throw e;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+        try {
+            if (escritura != null) {
+                journal.esperar(escritura);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < ids.length; i++) {
+                deshacer(ids[i], guardaCodificado() ? filas.get(i) : entidades.get(i), anteriores.get(i));
+            }
+            throw e;
+        }
+    }
+
+    //las tablas de un motor durable no pasan por el journal
+    private boolean registraCambios() {
+        return journal != null && journal.isActivo() && registraEnJournal() && !motor.isDurable();
+    }
+
+    //aplica un registro del journal o del snapshot sin volver a registrarlo
+    public void restaurar(long id, ByteBuffer datos) {
+        BaseEntity entity = getCodec().decode(datos);
+        //en modo compacto se vuelve a codificar para guardar siempre la ultima version del formato
+        Object fila = guardaCodificado() ? codificar(entity) : entity;
+        getInMemoryDatabase().compute(id, actual -> {
+            actualizarIndices(aEntidad(actual), entity);
+            return fila;
+        });
+    }
+
+    //recorre la tabla codificando cada entidad; las escrituras concurrentes pueden verse o no
+    public void exportar(Exportador exportador) throws IOException {
+        getInMemoryDatabase().forEach((id, fila) ->
+                exportador.exportar(id, fila instanceof byte[] ? (byte[]) fila : codificar((BaseEntity) fila)));
+    }
+
+    //borra la tabla y sus indices antes de reconstruirla; la tabla se vuelve a crear con el modo configurado
+    public void vaciar() {
+        Tabla<Object> tabla = poorMansDatabase.remove(getEntityName());
+        if (tabla != null) {
+            tabla.clear();
+        }
+        String prefijo = getEntityName() + ".";
+        poorMansIndexes.keySet().removeIf(nombre -> nombre.startsWith(prefijo));
+    }
+
+    //los daos con indices secundarios los actualizan aca; entity es null si se deshizo el alta de la fila
+    protected void actualizarIndices(Object anterior, Object entity) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] codificar(BaseEntity entity) {
+        return ((EntityCodec<BaseEntity>) getCodec()).encode(entity);
+    }
+
+    private BaseEntity aEntidad(Object fila) {
+        if (fila instanceof byte[]) {
+            return getCodec().decode(ByteBuffer.wrap((byte[]) fila));
+        }
+        return (BaseEntity) fila;
+    }
+
+    protected ConcurrentLongObjectMap<long[]> getIndice(String nombre) {
+        return poorMansIndexes.computeIfAbsent(getEntityName() + "." + nombre, indice -> new ConcurrentLongObjectMap<>());
+    }
+
+    protected void indexar(ConcurrentLongObjectMap<long[]> indice, long clave, long id) {
+        indice.compute(clave, ids -> {
+            if (ids == null) {
+                return new long[]{id};
+            }
+            for (long actual : ids) {
+                if (actual == id) {
+                    return ids;
+                }
+            }
+            long[] nuevos = Arrays.copyOf(ids, ids.length + 1);
+            nuevos[ids.length] = id;
+            return nuevos;
+        });
+    }
+
+    protected void desindexar(ConcurrentLongObjectMap<long[]> indice, long clave, long id) {
+        indice.compute(clave, ids -> {
+            if (ids == null) {
+                return null;
+            }
+            long[] nuevos = new long[ids.length];
+            int cantidad = 0;
+            for (long actual : ids) {
+                if (actual != id) {
+                    nuevos[cantidad++] = actual;
+                }
+            }
+            return cantidad == 0 ? null : Arrays.copyOf(nuevos, cantidad);
+        });
+    }
+
+    //el arreglo devuelto no cambia: cada alta o baja en el indice crea uno nuevo
+    protected long[] buscarEnIndice(ConcurrentLongObjectMap<long[]> indice, long clave) {
+        long[] ids = indice.get(clave);
+        return ids != null ? ids : SIN_IDS;
     }
 }
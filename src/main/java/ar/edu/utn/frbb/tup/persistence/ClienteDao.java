@@ -6,8 +6,9 @@ import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import java.util.List;
 
 public interface ClienteDao {
-    Cliente find(long dni, boolean loadComplete);
+    Cliente find(long dni, PlanCarga plan);
     List<Cliente> findAll();
+    long[] buscarDnis();
     void save(Cliente cliente);
     Cliente update(Cliente cliente) throws ClientNoExisteException;
 
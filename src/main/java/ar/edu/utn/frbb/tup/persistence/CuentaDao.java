@@ -1,16 +1,22 @@
 package ar.edu.utn.frbb.tup.persistence;
 
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CuentaDao {
     Cuenta find(long id);
     List<Cuenta> findAll();
+    List<Cuenta> findAll(long[] ids);
     Cuenta findByClienteYTipoMonedaYTipoCuenta(long dni, String tipoMoneda, String tipoCuenta);
     void save(Cuenta cuenta);
     List<Cuenta> buscarCuentasByCliente(long dni);
     Cuenta update(Cuenta cuenta);
     Cuenta updateEstado(Cuenta cuenta) throws CuentaNoExisteException;
+    double registrarMovimiento(Movimiento movimiento, long idContraria) throws CuentaNoExisteException;
+    List<Movimiento> buscarMovimientos(long id, LocalDateTime desde, LocalDateTime hasta);
 
 }
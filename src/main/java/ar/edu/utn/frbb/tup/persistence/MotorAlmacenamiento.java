@@ -0,0 +1,20 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.persistence.collection.Tabla;
+
+//donde viven las filas de las tablas de los daos. los daos no cambian entre motores: indices, versiones y
+//codecs quedan en AbstractBaseDao y el motor solo guarda filas id -> entidad o registro codificado
+public interface MotorAlmacenamiento {
+    //offHeap: la tabla lo admite y tup.persistence.offheap esta activo (solo lo usa el motor en memoria)
+    Tabla<Object> abrirTabla(String nombre, boolean offHeap);
+
+    //true si las filas siempre se guardan codificadas (byte[]) aunque tup.persistence.compact este apagado
+    boolean guardaCodificado();
+
+    //true si el motor guarda las filas en disco por su cuenta: sus tablas no pasan por el journal
+    //y los indices en memoria se reconstruyen leyendo la tabla al arrancar
+    boolean isDurable();
+
+    default void cerrar() {
+    }
+}
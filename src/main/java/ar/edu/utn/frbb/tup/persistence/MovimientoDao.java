@@ -0,0 +1,12 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Movimiento;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MovimientoDao {
+    void saveAsiento(Movimiento movimiento, long idContraria);
+    List<Movimiento> buscarPorCuenta(long numeroCuenta, LocalDateTime desde, LocalDateTime hasta);
+    long sumarPorCuenta(long numeroCuenta);
+}
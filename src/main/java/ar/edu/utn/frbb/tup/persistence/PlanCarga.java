@@ -0,0 +1,26 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+//que colecciones del cliente se cargan al buscarlo. las que no se cargan quedan diferidas:
+//se buscan por indice en el primer acceso
+public enum PlanCarga {
+    DIFERIDO(false, false),
+    CUENTAS(true, false),
+    PRESTAMOS(false, true),
+    COMPLETO(true, true);
+
+    private final boolean cuentas;
+    private final boolean prestamos;
+
+    PlanCarga(boolean cuentas, boolean prestamos) {
+        this.cuentas = cuentas;
+        this.prestamos = prestamos;
+    }
+
+    public boolean cargaCuentas() {
+        return cuentas;
+    }
+
+    public boolean cargaPrestamos() {
+        return prestamos;
+    }
+}
@@ -0,0 +1,12 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+
+import java.util.List;
+
+public interface PreAprobacionDao {
+    PreAprobacion find(long dni);
+    void save(PreAprobacion preAprobacion);
+    void saveAll(List<PreAprobacion> preAprobaciones);
+    int size();
+}
@@ -8,5 +8,6 @@ public interface PrestamoDao {
     void savePrestamo(Prestamo prestamo);
     Prestamo findPrestamo(long id);
     List<Prestamo> findAll();
+    List<Prestamo> findAll(long[] ids);
     List<Prestamo> buscarPrestamoPorCliente(long dni);
 }
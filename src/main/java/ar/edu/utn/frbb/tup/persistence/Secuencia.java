@@ -0,0 +1,23 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+//secuencias de ids que reparte el asignador; el id de la fila es ordinal + 1, asi que no se reordenan
+public enum Secuencia {
+    CUENTA("CUENTA"),
+    PRESTAMO("PRESTAMO"),
+    MOVIMIENTO("MOVIMIENTO");
+
+    //tabla cuyos ids salen de la secuencia
+    private final String tabla;
+
+    Secuencia(String tabla) {
+        this.tabla = tabla;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+
+    public long getId() {
+        return ordinal() + 1;
+    }
+}
@@ -0,0 +1,7 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+public interface SecuenciaDao {
+    //reserva cantidad ids consecutivos y devuelve el primero
+    long reservar(Secuencia secuencia, int cantidad);
+    long getTecho(Secuencia secuencia);
+}
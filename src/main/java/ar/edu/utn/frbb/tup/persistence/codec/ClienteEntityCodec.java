@@ -0,0 +1,73 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.persistence.entity.ClienteEntity;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+//la version de la fila (control de concurrencia optimista) va al final
+public class ClienteEntityCodec implements EntityCodec<ClienteEntity> {
+    private static final byte VERSION = VERSION_1;
+
+    @Override
+    public byte[] encode(ClienteEntity entity) {
+        Escritor out = new Escritor(96);
+        out.escribirByte(VERSION);
+        out.escribirVarLong(entity.getId());
+        out.escribirEnum(entity.getTipoPersona() != null ? TipoPersona.fromString(entity.getTipoPersona()) : null);
+        out.escribirString(entity.getNombre());
+        out.escribirString(entity.getApellido());
+        out.escribirString(entity.getTelefono());
+        out.escribirString(entity.getEmail());
+        out.escribirFecha(entity.getFechaAlta());
+        out.escribirFecha(entity.getFechaNacimiento());
+        out.escribirString(entity.getBanco());
+        out.escribirBoolean(entity.isActivo());
+        escribirIds(out, entity.getCuentas());
+        escribirIds(out, entity.getPrestamos());
+        out.escribirVarLong(entity.getVersion());
+        return out.toByteArray();
+    }
+
+    @Override
+    public ClienteEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "CLIENTE");
+        long dni = leerVarLong(buffer);
+        TipoPersona tipoPersona = leerEnum(buffer, TIPOS_PERSONA);
+        String nombre = leerString(buffer);
+        String apellido = leerString(buffer);
+        String telefono = leerString(buffer);
+        String email = leerString(buffer);
+        LocalDate fechaAlta = leerFecha(buffer);
+        LocalDate fechaNacimiento = leerFecha(buffer);
+        String banco = leerString(buffer);
+        boolean activo = buffer.get() != 0;
+        Set<Long> cuentas = leerIds(buffer);
+        Set<Long> prestamos = leerIds(buffer);
+        ClienteEntity entity = new ClienteEntity(dni, tipoPersona != null ? tipoPersona.getDescripcion() : null, nombre, apellido, telefono, email,
+                fechaAlta, fechaNacimiento, banco, cuentas, prestamos, activo);
+        entity.setVersion(leerVarLong(buffer));
+        return entity;
+    }
+
+    private static void escribirIds(Escritor out, Set<Long> ids) {
+        out.escribirVarLong(ids.size());
+        for (long id : ids) {
+            out.escribirVarLong(id);
+        }
+    }
+
+    private static Set<Long> leerIds(ByteBuffer buffer) {
+        int cantidad = leerVarInt(buffer);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < cantidad; i++) {
+            ids.add(leerVarLong(buffer));
+        }
+        return ids;
+    }
+}
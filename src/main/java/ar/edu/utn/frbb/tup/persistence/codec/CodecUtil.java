@@ -0,0 +1,92 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+//lectura de los tipos que comparten los codecs; la escritura esta en Escritor.
+//cada registro empieza con el byte de version para poder cambiar el formato mas adelante
+public final class CodecUtil {
+    public static final byte VERSION_1 = 1;
+
+    //los enums se leen por ordinal; values() copia el arreglo en cada llamada asi que se guarda una vez
+    static final TipoPersona[] TIPOS_PERSONA = TipoPersona.values();
+    static final TipoCuenta[] TIPOS_CUENTA = TipoCuenta.values();
+    static final TipoMoneda[] MONEDAS = TipoMoneda.values();
+    static final TipoMovimiento[] TIPOS_MOVIMIENTO = TipoMovimiento.values();
+    static final LoanStatus[] ESTADOS = LoanStatus.values();
+    static final MetodoAmortizacion[] METODOS = MetodoAmortizacion.values();
+
+    private CodecUtil() {
+    }
+
+    //lee el byte de version y falla si es posterior a la ultima que entiende el codec
+    public static byte leerVersion(ByteBuffer buffer, byte ultima, String entidad) {
+        byte leida = buffer.get();
+        if (leida < VERSION_1 || leida > ultima) {
+            throw new IllegalStateException("Version de " + entidad + " no soportada: " + leida);
+        }
+        return leida;
+    }
+
+    public static long leerVarLong(ByteBuffer buffer) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte actual;
+        do {
+            actual = buffer.get();
+            valor |= (long) (actual & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while (actual < 0);
+        return valor;
+    }
+
+    public static int leerVarInt(ByteBuffer buffer) {
+        return (int) leerVarLong(buffer);
+    }
+
+    public static long leerVarLongConSigno(ByteBuffer buffer) {
+        long valor = leerVarLong(buffer);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    public static double leerMonto(ByteBuffer buffer) {
+        return leerVarLongConSigno(buffer) / (double) Escritor.ESCALA_MONTO;
+    }
+
+    public static LocalDate leerFecha(ByteBuffer buffer) {
+        int dia = buffer.getInt();
+        return dia != Escritor.FECHA_NULA ? LocalDate.ofEpochDay(dia) : null;
+    }
+
+    public static <T extends Enum<T>> T leerEnum(ByteBuffer buffer, T[] valores) {
+        byte ordinal = buffer.get();
+        return ordinal != Escritor.ENUM_NULO ? valores[ordinal] : null;
+    }
+
+    public static String leerString(ByteBuffer buffer) {
+        int longitud = leerVarInt(buffer) - 1;
+        if (longitud < 0) {
+            return null;
+        }
+        return texto(buffer, longitud);
+    }
+
+    private static String texto(ByteBuffer buffer, int longitud) {
+        if (buffer.hasArray()) {
+            String texto = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), longitud, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + longitud);
+            return texto;
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.entity.CuentaEntity;
+
+import java.nio.ByteBuffer;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+//la version de la fila (control de concurrencia optimista) va al final
+public class CuentaEntityCodec implements EntityCodec<CuentaEntity> {
+    private static final byte VERSION = VERSION_1;
+    //bits del byte de flags
+    private static final int CON_TITULAR = 1;
+    private static final int ACTIVA = 2;
+
+    @Override
+    public byte[] encode(CuentaEntity entity) {
+        Escritor out = new Escritor(32);
+        out.escribirByte(VERSION);
+        out.escribirVarLong(entity.getNumeroCuenta());
+        out.escribirByte((entity.getTitular() != null ? CON_TITULAR : 0) | (entity.isEstado() ? ACTIVA : 0));
+        if (entity.getTitular() != null) {
+            out.escribirVarLong(entity.getTitular());
+        }
+        out.escribirEnum(entity.getTipoCuenta() != null ? TipoCuenta.fromString(entity.getTipoCuenta()) : null);
+        out.escribirEnum(entity.getTipoMoneda() != null ? TipoMoneda.fromString(entity.getTipoMoneda()) : null);
+        out.escribirMonto(entity.getBalance());
+        out.escribirFecha(entity.getFechaCreacion());
+        out.escribirVarLong(entity.getVersion());
+        return out.toByteArray();
+    }
+
+    @Override
+    public CuentaEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "CUENTA");
+        long numeroCuenta = leerVarLong(buffer);
+        int flags = buffer.get();
+        Long titular = (flags & CON_TITULAR) != 0 ? leerVarLong(buffer) : null;
+        TipoCuenta tipoCuenta = leerEnum(buffer, TIPOS_CUENTA);
+        TipoMoneda tipoMoneda = leerEnum(buffer, MONEDAS);
+        double balance = leerMonto(buffer);
+        CuentaEntity entity = new CuentaEntity(numeroCuenta, titular, tipoCuenta != null ? tipoCuenta.getDescripcion() : null,
+                tipoMoneda != null ? tipoMoneda.getDescripcion() : null, balance, leerFecha(buffer), (flags & ACTIVA) != 0);
+        entity.setVersion(leerVarLong(buffer));
+        return entity;
+    }
+}
@@ -0,0 +1,11 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
+
+import java.nio.ByteBuffer;
+
+//formato binario de una entidad, usado por el journal para persistir las tablas en memoria
+public interface EntityCodec<E extends BaseEntity> {
+    byte[] encode(E entity);
+    E decode(ByteBuffer buffer);
+}
@@ -0,0 +1,93 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.MontoFijo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+//escritura del formato compacto sobre un byte[] que crece; sin los locks de ByteArrayOutputStream.
+//enteros como varint (los dni y numeros de cuenta ocupan 4 o 5 bytes en lugar de 8),
+//montos en punto fijo con 4 decimales, fechas como dia epoch en un int y enums como un byte
+public final class Escritor {
+    public static final long ESCALA_MONTO = MontoFijo.ESCALA;
+    public static final int FECHA_NULA = Integer.MIN_VALUE;
+    public static final byte ENUM_NULO = -1;
+
+    private byte[] bytes;
+    private int posicion;
+
+    public Escritor(int capacidad) {
+        bytes = new byte[capacidad];
+    }
+
+    public Escritor escribirByte(int valor) {
+        asegurar(1);
+        bytes[posicion++] = (byte) valor;
+        return this;
+    }
+
+    public Escritor escribirBoolean(boolean valor) {
+        return escribirByte(valor ? 1 : 0);
+    }
+
+    public Escritor escribirInt(int valor) {
+        asegurar(4);
+        bytes[posicion++] = (byte) (valor >>> 24);
+        bytes[posicion++] = (byte) (valor >>> 16);
+        bytes[posicion++] = (byte) (valor >>> 8);
+        bytes[posicion++] = (byte) valor;
+        return this;
+    }
+
+    //varint sin signo de 7 bits por byte
+    public Escritor escribirVarLong(long valor) {
+        asegurar(10);
+        while ((valor & ~0x7FL) != 0) {
+            bytes[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        bytes[posicion++] = (byte) valor;
+        return this;
+    }
+
+    //zigzag para que los negativos chicos tambien ocupen pocos bytes
+    public Escritor escribirVarLongConSigno(long valor) {
+        return escribirVarLong((valor << 1) ^ (valor >> 63));
+    }
+
+    public Escritor escribirMonto(double monto) {
+        return escribirVarLongConSigno(Math.round(monto * ESCALA_MONTO));
+    }
+
+    public Escritor escribirFecha(LocalDate fecha) {
+        return escribirInt(fecha != null ? (int) fecha.toEpochDay() : FECHA_NULA);
+    }
+
+    public Escritor escribirEnum(Enum<?> valor) {
+        return escribirByte(valor != null ? valor.ordinal() : ENUM_NULO);
+    }
+
+    //longitud + 1 como varint (0 es null) y el texto en UTF-8
+    public Escritor escribirString(String valor) {
+        if (valor == null) {
+            return escribirVarLong(0);
+        }
+        byte[] texto = valor.getBytes(StandardCharsets.UTF_8);
+        escribirVarLong(texto.length + 1L);
+        asegurar(texto.length);
+        System.arraycopy(texto, 0, bytes, posicion, texto.length);
+        posicion += texto.length;
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, posicion);
+    }
+
+    private void asegurar(int cantidad) {
+        if (posicion + cantidad > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, posicion + cantidad));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+import ar.edu.utn.frbb.tup.persistence.entity.MovimientoEntity;
+
+import java.nio.ByteBuffer;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+//el monto se guarda tal cual en punto fijo (no pasa por double), asi la suma del libro reproducido es exacta
+public class MovimientoEntityCodec implements EntityCodec<MovimientoEntity> {
+    private static final byte VERSION = VERSION_1;
+
+    @Override
+    public byte[] encode(MovimientoEntity entity) {
+        return new Escritor(32)
+                .escribirByte(VERSION)
+                .escribirVarLong(entity.getId())
+                .escribirVarLong(entity.getNumeroCuenta())
+                .escribirEnum(entity.getTipo() != null ? TipoMovimiento.fromString(entity.getTipo()) : null)
+                .escribirVarLongConSigno(entity.getMontoFijo())
+                .escribirVarLong(entity.getIdPrestamo())
+                .escribirVarLong(entity.getFecha())
+                .escribirVarLong(entity.getIdAsiento())
+                .escribirVarLong(entity.getContrapartida())
+                .toByteArray();
+    }
+
+    @Override
+    public MovimientoEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "MOVIMIENTO");
+        long id = leerVarLong(buffer);
+        long numeroCuenta = leerVarLong(buffer);
+        TipoMovimiento tipo = leerEnum(buffer, TIPOS_MOVIMIENTO);
+        long montoFijo = leerVarLongConSigno(buffer);
+        long idPrestamo = leerVarLong(buffer);
+        long fecha = leerVarLong(buffer);
+        long idAsiento = leerVarLong(buffer);
+        long contrapartida = leerVarLong(buffer);
+        return new MovimientoEntity(id, idAsiento, numeroCuenta, contrapartida, tipo != null ? tipo.getDescripcion() : null,
+                montoFijo, idPrestamo, fecha);
+    }
+}
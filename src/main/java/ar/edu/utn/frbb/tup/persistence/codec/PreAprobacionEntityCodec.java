@@ -0,0 +1,33 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.persistence.entity.PreAprobacionEntity;
+
+import java.nio.ByteBuffer;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+public class PreAprobacionEntityCodec implements EntityCodec<PreAprobacionEntity> {
+    private static final byte VERSION = VERSION_1;
+
+    @Override
+    public byte[] encode(PreAprobacionEntity entity) {
+        return new Escritor(24)
+                .escribirByte(VERSION)
+                .escribirVarLong(entity.getId())
+                .escribirVarLong(entity.getScore())
+                .escribirMonto(entity.getMontoPreAprobado())
+                .escribirMonto(entity.getMontoDisponible())
+                .escribirFecha(entity.getFechaCalculo())
+                .toByteArray();
+    }
+
+    @Override
+    public PreAprobacionEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "PREAPROBACION");
+        long dniCliente = leerVarLong(buffer);
+        int score = leerVarInt(buffer);
+        double montoPreAprobado = leerMonto(buffer);
+        double montoDisponible = leerMonto(buffer);
+        return new PreAprobacionEntity(dniCliente, score, montoPreAprobado, montoDisponible, leerFecha(buffer));
+    }
+}
@@ -0,0 +1,53 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+
+import java.nio.ByteBuffer;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+//el plan de pagos no se guarda: se calcula con el capital, el plazo, los pagos realizados y el metodo de amortizacion
+public class PrestamoEntityCodec implements EntityCodec<PrestamoEntity> {
+    private static final byte VERSION = VERSION_1;
+
+    @Override
+    public byte[] encode(PrestamoEntity entity) {
+        Escritor out = new Escritor(48);
+        out.escribirByte(VERSION);
+        out.escribirVarLong(entity.getId());
+        out.escribirVarLong(entity.getNumeroCliente());
+        out.escribirMonto(entity.getMontoSolicitado());
+        out.escribirMonto(entity.getMonto());
+        out.escribirEnum(entity.getTipoMoneda() != null ? TipoMoneda.fromString(entity.getTipoMoneda()) : null);
+        out.escribirVarLong(entity.getPlazoMeses());
+        out.escribirEnum(entity.getEstado() != null ? LoanStatus.fromString(entity.getEstado()) : null);
+        out.escribirMonto(entity.getSaldoRestante());
+        out.escribirVarLong(entity.getPagosRealizados());
+        out.escribirEnum(entity.getMetodoAmortizacion() != null ? MetodoAmortizacion.fromString(entity.getMetodoAmortizacion()) : null);
+        out.escribirVarLong(entity.getVersion());
+        return out.toByteArray();
+    }
+
+    @Override
+    public PrestamoEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "PRESTAMO");
+        long id = leerVarLong(buffer);
+        long numeroCliente = leerVarLong(buffer);
+        double montoSolicitado = leerMonto(buffer);
+        double monto = leerMonto(buffer);
+        TipoMoneda tipoMoneda = leerEnum(buffer, MONEDAS);
+        int plazoMeses = leerVarInt(buffer);
+        LoanStatus estado = leerEnum(buffer, ESTADOS);
+        double saldoRestante = leerMonto(buffer);
+        int pagosRealizados = leerVarInt(buffer);
+        MetodoAmortizacion metodo = leerEnum(buffer, METODOS);
+        PrestamoEntity entity = new PrestamoEntity(id, numeroCliente, montoSolicitado, monto, tipoMoneda != null ? tipoMoneda.getDescripcion() : null,
+                plazoMeses, estado != null ? estado.getDescripcion() : null, saldoRestante, pagosRealizados,
+                metodo != null ? metodo.getDescripcion() : null);
+        entity.setVersion(leerVarLong(buffer));
+        return entity;
+    }
+}
@@ -0,0 +1,30 @@
+package ar.edu.utn.frbb.tup.persistence.codec;
+
+import ar.edu.utn.frbb.tup.persistence.entity.SecuenciaEntity;
+
+import java.nio.ByteBuffer;
+
+import static ar.edu.utn.frbb.tup.persistence.codec.CodecUtil.*;
+
+public class SecuenciaEntityCodec implements EntityCodec<SecuenciaEntity> {
+    private static final byte VERSION = VERSION_1;
+
+    @Override
+    public byte[] encode(SecuenciaEntity entity) {
+        return new Escritor(24)
+                .escribirByte(VERSION)
+                .escribirVarLong(entity.getId())
+                .escribirVarLong(entity.getTecho())
+                .escribirVarLong(entity.getVersion())
+                .toByteArray();
+    }
+
+    @Override
+    public SecuenciaEntity decode(ByteBuffer buffer) {
+        leerVersion(buffer, VERSION, "SECUENCIA");
+        long id = leerVarLong(buffer);
+        SecuenciaEntity entity = new SecuenciaEntity(id, leerVarLong(buffer));
+        entity.setVersion(leerVarLong(buffer));
+        return entity;
+    }
+}
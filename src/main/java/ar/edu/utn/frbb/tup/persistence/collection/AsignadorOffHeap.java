@@ -0,0 +1,125 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//reparte bloques dentro de slabs de memoria directa (fuera del heap, el GC no los recorre).
+//cada bloque lleva un int con la longitud del registro y ocupa el tamanio de su clase:
+//de a 16 bytes hasta 1KB y potencias de 2 despues. los bloques liberados van a una lista libre
+//por clase y se reusan antes de seguir avanzando en el slab. la direccion es (slab << 32) | posicion,
+//con los slabs numerados desde 1 para que 0 nunca sea una direccion valida. no es thread-safe
+public class AsignadorOffHeap {
+    public static final int TAMANIO_SLAB = 256 * 1024;
+    private static final int CABECERA = 4;
+    private static final int PASO = 16;
+    private static final int LIMITE_PASOS = 1024;
+    private static final int CLASES_CHICAS = LIMITE_PASOS / PASO;
+    private static final int CLASES = CLASES_CHICAS + Integer.numberOfTrailingZeros(TAMANIO_SLAB) - Integer.numberOfTrailingZeros(LIMITE_PASOS);
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final long[][] libres = new long[CLASES][];
+    private final int[] cantidadLibres = new int[CLASES];
+    private ByteBuffer actual;
+    private int posicion;
+    private long bytesUsados;
+
+    public long asignar(byte[] datos) {
+        int clase = clase(CABECERA + datos.length);
+        long direccion = cantidadLibres[clase] > 0 ? libres[clase][--cantidadLibres[clase]] : avanzar(tamanio(clase));
+        escribir(direccion, datos);
+        bytesUsados += tamanio(clase);
+        return direccion;
+    }
+
+    //si el registro nuevo entra en el mismo bloque lo pisa, si no libera el bloque y asigna otro
+    public long reasignar(long direccion, byte[] datos) {
+        if (clase(CABECERA + longitud(direccion)) == clase(CABECERA + datos.length)) {
+            escribir(direccion, datos);
+            return direccion;
+        }
+        liberar(direccion);
+        return asignar(datos);
+    }
+
+    public void liberar(long direccion) {
+        int clase = clase(CABECERA + longitud(direccion));
+        if (libres[clase] == null) {
+            libres[clase] = new long[16];
+        } else if (cantidadLibres[clase] == libres[clase].length) {
+            libres[clase] = Arrays.copyOf(libres[clase], libres[clase].length * 2);
+        }
+        libres[clase][cantidadLibres[clase]++] = direccion;
+        bytesUsados -= tamanio(clase);
+    }
+
+    public byte[] leer(long direccion) {
+        ByteBuffer slab = slab(direccion);
+        int inicio = (int) direccion;
+        byte[] datos = new byte[slab.getInt(inicio)];
+        slab.get(inicio + CABECERA, datos);
+        return datos;
+    }
+
+    //suelta todos los slabs; la memoria directa se devuelve cuando el GC junta los ByteBuffer
+    public void liberarTodo() {
+        slabs.clear();
+        Arrays.fill(libres, null);
+        Arrays.fill(cantidadLibres, 0);
+        actual = null;
+        posicion = 0;
+        bytesUsados = 0;
+    }
+
+    public long getBytesReservados() {
+        return (long) slabs.size() * TAMANIO_SLAB;
+    }
+
+    public long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    private void escribir(long direccion, byte[] datos) {
+        ByteBuffer slab = slab(direccion);
+        int inicio = (int) direccion;
+        slab.putInt(inicio, datos.length);
+        slab.put(inicio + CABECERA, datos);
+    }
+
+    private int longitud(long direccion) {
+        return slab(direccion).getInt((int) direccion);
+    }
+
+    private ByteBuffer slab(long direccion) {
+        return slabs.get((int) (direccion >>> 32) - 1);
+    }
+
+    private long avanzar(int tamanio) {
+        if (actual == null || posicion + tamanio > TAMANIO_SLAB) {
+            actual = ByteBuffer.allocateDirect(TAMANIO_SLAB);
+            slabs.add(actual);
+            posicion = 0;
+        }
+        long direccion = ((long) slabs.size() << 32) | posicion;
+        posicion += tamanio;
+        return direccion;
+    }
+
+    private static int clase(int bytes) {
+        if (bytes > TAMANIO_SLAB) {
+            throw new IllegalArgumentException("Registro demasiado grande para el almacenamiento off-heap: " + bytes + " bytes.");
+        }
+        if (bytes <= LIMITE_PASOS) {
+            return (bytes + PASO - 1) / PASO - 1;
+        }
+        return CLASES_CHICAS + (32 - Integer.numberOfLeadingZeros(bytes - 1)) - Integer.numberOfTrailingZeros(LIMITE_PASOS) - 1;
+    }
+
+    private static int tamanio(int clase) {
+        if (clase < CLASES_CHICAS) {
+            return (clase + 1) * PASO;
+        }
+        return LIMITE_PASOS << (clase - CLASES_CHICAS + 1);
+    }
+}
@@ -0,0 +1,170 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+//LongObjectHashMap repartido en segmentos, cada uno con su StampedLock.
+//las lecturas son optimistas (sin escribir en memoria compartida) y solo toman el lock
+//si una escritura del mismo segmento las invalido; las escrituras bloquean un solo segmento
+public class ConcurrentLongObjectMap<V> implements Tabla<V> {
+    private static final int SEGMENTOS = 64;
+
+    private final Segmento<V>[] segmentos;
+    private final int desplazamiento;
+
+    public ConcurrentLongObjectMap() {
+        this(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongObjectMap(int capacidadEsperada) {
+        segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>(capacidadEsperada / SEGMENTOS);
+        }
+        desplazamiento = 64 - Integer.numberOfTrailingZeros(SEGMENTOS);
+    }
+
+    private static final class Segmento<V> extends StampedLock {
+        private final LongObjectHashMap<V> mapa;
+
+        private Segmento(int capacidad) {
+            mapa = new LongObjectHashMap<>(capacidad);
+        }
+    }
+
+    //el segmento sale de los bits altos del hash y la posicion dentro del segmento de los bajos
+    private Segmento<V> segmento(long clave) {
+        return segmentos[(int) (LongObjectHashMap.mezclar(clave) >>> desplazamiento)];
+    }
+
+    @Override
+    public V get(long clave) {
+        Segmento<V> segmento = segmento(clave);
+        long marca = segmento.tryOptimisticRead();
+        V valor = segmento.mapa.get(clave);
+        if (segmento.validate(marca)) {
+            return valor;
+        }
+        marca = segmento.readLock();
+        try {
+            return segmento.mapa.get(clave);
+        } finally {
+            segmento.unlockRead(marca);
+        }
+    }
+
+    public boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    public V put(long clave, V valor) {
+        Segmento<V> segmento = segmento(clave);
+        long marca = segmento.writeLock();
+        try {
+            return segmento.mapa.put(clave, valor);
+        } finally {
+            segmento.unlockWrite(marca);
+        }
+    }
+
+    public V remove(long clave) {
+        Segmento<V> segmento = segmento(clave);
+        long marca = segmento.writeLock();
+        try {
+            return segmento.mapa.remove(clave);
+        } finally {
+            segmento.unlockWrite(marca);
+        }
+    }
+
+    //aplica la funcion al valor actual (o null) bajo el lock del segmento; si devuelve null borra la entrada
+    @Override
+    public V compute(long clave, Function<? super V, ? extends V> funcion) {
+        Segmento<V> segmento = segmento(clave);
+        long marca = segmento.writeLock();
+        try {
+            V actual = segmento.mapa.get(clave);
+            V nuevo = funcion.apply(actual);
+            if (nuevo != null) {
+                segmento.mapa.put(clave, nuevo);
+            } else if (actual != null) {
+                segmento.mapa.remove(clave);
+            }
+            return nuevo;
+        } finally {
+            segmento.unlockWrite(marca);
+        }
+    }
+
+    @Override
+    public int size() {
+        int tamanio = 0;
+        for (Segmento<V> segmento : segmentos) {
+            long marca = segmento.readLock();
+            try {
+                tamanio += segmento.mapa.size();
+            } finally {
+                segmento.unlockRead(marca);
+            }
+        }
+        return tamanio;
+    }
+
+    @Override
+    public void clear() {
+        for (Segmento<V> segmento : segmentos) {
+            long marca = segmento.writeLock();
+            try {
+                segmento.mapa.clear();
+            } finally {
+                segmento.unlockWrite(marca);
+            }
+        }
+    }
+
+    //copia de los valores: cada segmento se copia bajo su lock, entre segmentos puede haber escrituras
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<V> values() {
+        List<V> valores = new ArrayList<>(size());
+        for (Segmento<V> segmento : segmentos) {
+            Object[] copia;
+            long marca = segmento.readLock();
+            try {
+                copia = new Object[segmento.mapa.size()];
+                segmento.mapa.copiar(null, copia, 0);
+            } finally {
+                segmento.unlockRead(marca);
+            }
+            for (Object valor : copia) {
+                valores.add((V) valor);
+            }
+        }
+        return valores;
+    }
+
+    //recorre una copia de cada segmento, asi el visitante puede tardar (por ejemplo escribir a disco)
+    //sin frenar las escrituras
+    @SuppressWarnings("unchecked")
+    @Override
+    public <E extends Exception> void forEach(LongObjectHashMap.Visitante<? super V, E> visitante) throws E {
+        for (Segmento<V> segmento : segmentos) {
+            long[] claves;
+            Object[] valores;
+            long marca = segmento.readLock();
+            try {
+                claves = new long[segmento.mapa.size()];
+                valores = new Object[claves.length];
+                segmento.mapa.copiar(claves, valores, 0);
+            } finally {
+                segmento.unlockRead(marca);
+            }
+            for (int i = 0; i < claves.length; i++) {
+                visitante.visitar(claves[i], (V) valores[i]);
+            }
+        }
+    }
+}
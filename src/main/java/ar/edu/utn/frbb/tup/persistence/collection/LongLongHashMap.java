@@ -0,0 +1,132 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+//mapa long -> long con direccionamiento abierto, igual que LongObjectHashMap pero con valores primitivos.
+//el valor 0 marca el lugar vacio, asi que no se puede guardar 0. no es thread-safe
+public class LongLongHashMap {
+    private static final int CAPACIDAD_MINIMA = 8;
+    private static final float CARGA_MAXIMA = 0.75f;
+
+    private long[] claves;
+    private long[] valores;
+    private int tamanio;
+    private int umbral;
+
+    public LongLongHashMap() {
+        inicializar(CAPACIDAD_MINIMA);
+    }
+
+    public int size() {
+        return tamanio;
+    }
+
+    //devuelve 0 si la clave no esta
+    public long get(long clave) {
+        int mascara = valores.length - 1;
+        int posicion = (int) LongObjectHashMap.mezclar(clave) & mascara;
+        while (valores[posicion] != 0) {
+            if (claves[posicion] == clave) {
+                return valores[posicion];
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return 0;
+    }
+
+    public long put(long clave, long valor) {
+        if (valor == 0) {
+            throw new IllegalArgumentException("LongLongHashMap no admite el valor 0.");
+        }
+        int mascara = valores.length - 1;
+        int posicion = (int) LongObjectHashMap.mezclar(clave) & mascara;
+        while (valores[posicion] != 0) {
+            if (claves[posicion] == clave) {
+                long anterior = valores[posicion];
+                valores[posicion] = valor;
+                return anterior;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = clave;
+        valores[posicion] = valor;
+        if (++tamanio > umbral) {
+            redimensionar(valores.length * 2);
+        }
+        return 0;
+    }
+
+    public long remove(long clave) {
+        int mascara = valores.length - 1;
+        int posicion = (int) LongObjectHashMap.mezclar(clave) & mascara;
+        while (valores[posicion] != 0) {
+            if (claves[posicion] == clave) {
+                long anterior = valores[posicion];
+                correrSiguientes(posicion);
+                tamanio--;
+                return anterior;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return 0;
+    }
+
+    public void clear() {
+        inicializar(CAPACIDAD_MINIMA);
+    }
+
+    //copia claves y valores en el orden de la tabla; los arreglos deben tener lugar para size() entradas
+    public void copiar(long[] destinoClaves, long[] destinoValores) {
+        int copiadas = 0;
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != 0) {
+                destinoClaves[copiadas] = claves[i];
+                destinoValores[copiadas] = valores[i];
+                copiadas++;
+            }
+        }
+    }
+
+    private void correrSiguientes(int hueco) {
+        int mascara = valores.length - 1;
+        int posicion = hueco;
+        while (true) {
+            posicion = (posicion + 1) & mascara;
+            if (valores[posicion] == 0) {
+                break;
+            }
+            int ideal = (int) LongObjectHashMap.mezclar(claves[posicion]) & mascara;
+            if (((posicion - ideal) & mascara) >= ((posicion - hueco) & mascara)) {
+                claves[hueco] = claves[posicion];
+                valores[hueco] = valores[posicion];
+                hueco = posicion;
+            }
+        }
+        valores[hueco] = 0;
+        claves[hueco] = 0;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = claves;
+        long[] valoresAnteriores = valores;
+        claves = new long[capacidad];
+        valores = new long[capacidad];
+        int mascara = capacidad - 1;
+        for (int i = 0; i < valoresAnteriores.length; i++) {
+            if (valoresAnteriores[i] != 0) {
+                int posicion = (int) LongObjectHashMap.mezclar(clavesAnteriores[i]) & mascara;
+                while (valores[posicion] != 0) {
+                    posicion = (posicion + 1) & mascara;
+                }
+                claves[posicion] = clavesAnteriores[i];
+                valores[posicion] = valoresAnteriores[i];
+            }
+        }
+        umbral = (int) (capacidad * CARGA_MAXIMA);
+    }
+
+    private void inicializar(int capacidad) {
+        claves = new long[capacidad];
+        valores = new long[capacidad];
+        tamanio = 0;
+        umbral = (int) (capacidad * CARGA_MAXIMA);
+    }
+}
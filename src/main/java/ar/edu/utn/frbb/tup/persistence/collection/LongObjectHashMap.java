@@ -0,0 +1,197 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+//mapa long -> objeto con direccionamiento abierto y sondeo lineal.
+//las claves van en un long[] sin boxing y no hay un nodo por entrada; un valor null marca el lugar vacio,
+//por eso no se admiten valores null. al borrar se corren las entradas siguientes en lugar de dejar marcas.
+//no es thread-safe: ConcurrentLongObjectMap lo usa por segmento bajo su lock
+public class LongObjectHashMap<V> {
+    private static final int CAPACIDAD_MINIMA = 8;
+    private static final float CARGA_MAXIMA = 0.75f;
+
+    private long[] claves;
+    private Object[] valores;
+    private int tamanio;
+    private int umbral;
+
+    public LongObjectHashMap() {
+        this(CAPACIDAD_MINIMA);
+    }
+
+    public LongObjectHashMap(int capacidadEsperada) {
+        inicializar(capacidadPara(capacidadEsperada));
+    }
+
+    //funcion de mezcla de murmur3, reparte claves consecutivas como los dni y los numeros de cuenta
+    public static long mezclar(long clave) {
+        clave ^= clave >>> 33;
+        clave *= 0xff51afd7ed558ccdL;
+        clave ^= clave >>> 33;
+        clave *= 0xc4ceb9fe1a85ec53L;
+        clave ^= clave >>> 33;
+        return clave;
+    }
+
+    public int size() {
+        return tamanio;
+    }
+
+    public boolean isEmpty() {
+        return tamanio == 0;
+    }
+
+    //toma los arreglos una sola vez y limita el sondeo, asi una lectura optimista concurrente
+    //con una escritura puede devolver basura (que se descarta al validar) pero nunca fallar
+    @SuppressWarnings("unchecked")
+    public V get(long clave) {
+        long[] claves = this.claves;
+        Object[] valores = this.valores;
+        if (claves.length != valores.length) {
+            return null;
+        }
+        int mascara = valores.length - 1;
+        int posicion = (int) mezclar(clave) & mascara;
+        for (int i = 0; i < valores.length; i++) {
+            Object valor = valores[posicion];
+            if (valor == null) {
+                return null;
+            }
+            if (claves[posicion] == clave) {
+                return (V) valor;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long clave, V valor) {
+        if (valor == null) {
+            throw new NullPointerException("LongObjectHashMap no admite valores null.");
+        }
+        int mascara = valores.length - 1;
+        int posicion = (int) mezclar(clave) & mascara;
+        while (valores[posicion] != null) {
+            if (claves[posicion] == clave) {
+                V anterior = (V) valores[posicion];
+                valores[posicion] = valor;
+                return anterior;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = clave;
+        valores[posicion] = valor;
+        if (++tamanio > umbral) {
+            redimensionar(valores.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long clave) {
+        int mascara = valores.length - 1;
+        int posicion = (int) mezclar(clave) & mascara;
+        while (valores[posicion] != null) {
+            if (claves[posicion] == clave) {
+                V anterior = (V) valores[posicion];
+                correrSiguientes(posicion);
+                tamanio--;
+                return anterior;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        return null;
+    }
+
+    public void clear() {
+        inicializar(CAPACIDAD_MINIMA);
+    }
+
+    //recorre las entradas en el orden de la tabla
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> void forEach(Visitante<? super V, E> visitante) throws E {
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null) {
+                visitante.visitar(claves[i], (V) valores[i]);
+            }
+        }
+    }
+
+    //copia las entradas a los arreglos recibidos a partir de la posicion indicada; devuelve cuantas copio
+    int copiar(long[] destinoClaves, Object[] destinoValores, int desde) {
+        int copiadas = 0;
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null) {
+                if (destinoClaves != null) {
+                    destinoClaves[desde + copiadas] = claves[i];
+                }
+                destinoValores[desde + copiadas] = valores[i];
+                copiadas++;
+            }
+        }
+        return copiadas;
+    }
+
+    public interface Visitante<V, E extends Exception> {
+        void visitar(long clave, V valor) throws E;
+    }
+
+    //borrado sin marcas: mueve hacia atras las entradas cuyo lugar ideal queda antes del hueco
+    private void correrSiguientes(int hueco) {
+        int mascara = valores.length - 1;
+        int posicion = hueco;
+        while (true) {
+            posicion = (posicion + 1) & mascara;
+            if (valores[posicion] == null) {
+                break;
+            }
+            int ideal = (int) mezclar(claves[posicion]) & mascara;
+            if (((posicion - ideal) & mascara) >= ((posicion - hueco) & mascara)) {
+                claves[hueco] = claves[posicion];
+                valores[hueco] = valores[posicion];
+                hueco = posicion;
+            }
+        }
+        valores[hueco] = null;
+        claves[hueco] = 0;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        long[] nuevasClaves = new long[capacidad];
+        Object[] nuevosValores = new Object[capacidad];
+        int mascara = capacidad - 1;
+        for (int i = 0; i < valoresAnteriores.length; i++) {
+            if (valoresAnteriores[i] != null) {
+                int posicion = (int) mezclar(clavesAnteriores[i]) & mascara;
+                while (nuevosValores[posicion] != null) {
+                    posicion = (posicion + 1) & mascara;
+                }
+                nuevasClaves[posicion] = clavesAnteriores[i];
+                nuevosValores[posicion] = valoresAnteriores[i];
+            }
+        }
+        claves = nuevasClaves;
+        valores = nuevosValores;
+        umbral = (int) (capacidad * CARGA_MAXIMA);
+    }
+
+    private void inicializar(int capacidad) {
+        claves = new long[capacidad];
+        valores = new Object[capacidad];
+        tamanio = 0;
+        umbral = (int) (capacidad * CARGA_MAXIMA);
+    }
+
+    private static int capacidadPara(int esperada) {
+        int capacidad = CAPACIDAD_MINIMA;
+        while (capacidad * CARGA_MAXIMA < esperada) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+}
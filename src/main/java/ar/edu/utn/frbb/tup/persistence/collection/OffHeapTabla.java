@@ -0,0 +1,170 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+//tabla id -> registro codificado guardado fuera del heap. por segmento hay un LongLongHashMap id -> direccion
+//y un AsignadorOffHeap propio, asi que en el heap solo quedan dos long por fila y ningun objeto por entidad.
+//las lecturas copian el registro a un byte[] bajo el lock: la memoria del bloque puede reusarse despues
+public class OffHeapTabla implements Tabla<Object> {
+    private static final int SEGMENTOS = 64;
+
+    private final Segmento[] segmentos;
+    private final int desplazamiento;
+
+    public OffHeapTabla() {
+        segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+        desplazamiento = 64 - Integer.numberOfTrailingZeros(SEGMENTOS);
+    }
+
+    private static final class Segmento extends StampedLock {
+        private final LongLongHashMap direcciones = new LongLongHashMap();
+        private final AsignadorOffHeap asignador = new AsignadorOffHeap();
+    }
+
+    private Segmento segmento(long clave) {
+        return segmentos[(int) (LongObjectHashMap.mezclar(clave) >>> desplazamiento)];
+    }
+
+    @Override
+    public Object get(long clave) {
+        Segmento segmento = segmento(clave);
+        long marca = segmento.readLock();
+        try {
+            long direccion = segmento.direcciones.get(clave);
+            return direccion != 0 ? segmento.asignador.leer(direccion) : null;
+        } finally {
+            segmento.unlockRead(marca);
+        }
+    }
+
+    //la funcion recibe el registro actual (o null) y debe devolver el nuevo como byte[]
+    @Override
+    public Object compute(long clave, Function<? super Object, ? extends Object> funcion) {
+        Segmento segmento = segmento(clave);
+        long marca = segmento.writeLock();
+        try {
+            long direccion = segmento.direcciones.get(clave);
+            Object nuevo = funcion.apply(direccion != 0 ? segmento.asignador.leer(direccion) : null);
+            if (nuevo == null) {
+                if (direccion != 0) {
+                    segmento.asignador.liberar(direccion);
+                    segmento.direcciones.remove(clave);
+                }
+                return null;
+            }
+            if (!(nuevo instanceof byte[])) {
+                throw new IllegalArgumentException("La tabla off-heap solo guarda registros codificados.");
+            }
+            byte[] datos = (byte[]) nuevo;
+            long nuevaDireccion = direccion != 0 ? segmento.asignador.reasignar(direccion, datos) : segmento.asignador.asignar(datos);
+            if (nuevaDireccion != direccion) {
+                segmento.direcciones.put(clave, nuevaDireccion);
+            }
+            return nuevo;
+        } finally {
+            segmento.unlockWrite(marca);
+        }
+    }
+
+    @Override
+    public List<Object> values() {
+        List<Object> valores = new ArrayList<>(size());
+        for (Segmento segmento : segmentos) {
+            long marca = segmento.readLock();
+            try {
+                long[] claves = new long[segmento.direcciones.size()];
+                long[] direcciones = new long[claves.length];
+                segmento.direcciones.copiar(claves, direcciones);
+                for (long direccion : direcciones) {
+                    valores.add(segmento.asignador.leer(direccion));
+                }
+            } finally {
+                segmento.unlockRead(marca);
+            }
+        }
+        return valores;
+    }
+
+    @Override
+    public <E extends Exception> void forEach(LongObjectHashMap.Visitante<? super Object, E> visitante) throws E {
+        for (Segmento segmento : segmentos) {
+            long[] claves;
+            byte[][] registros;
+            long marca = segmento.readLock();
+            try {
+                claves = new long[segmento.direcciones.size()];
+                long[] direcciones = new long[claves.length];
+                segmento.direcciones.copiar(claves, direcciones);
+                registros = new byte[claves.length][];
+                for (int i = 0; i < direcciones.length; i++) {
+                    registros[i] = segmento.asignador.leer(direcciones[i]);
+                }
+            } finally {
+                segmento.unlockRead(marca);
+            }
+            for (int i = 0; i < claves.length; i++) {
+                visitante.visitar(claves[i], registros[i]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int tamanio = 0;
+        for (Segmento segmento : segmentos) {
+            long marca = segmento.readLock();
+            try {
+                tamanio += segmento.direcciones.size();
+            } finally {
+                segmento.unlockRead(marca);
+            }
+        }
+        return tamanio;
+    }
+
+    @Override
+    public void clear() {
+        for (Segmento segmento : segmentos) {
+            long marca = segmento.writeLock();
+            try {
+                segmento.direcciones.clear();
+                segmento.asignador.liberarTodo();
+            } finally {
+                segmento.unlockWrite(marca);
+            }
+        }
+    }
+
+    //memoria directa tomada por los slabs y la parte ocupada por registros vivos
+    public long getBytesReservados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            long marca = segmento.readLock();
+            try {
+                total += segmento.asignador.getBytesReservados();
+            } finally {
+                segmento.unlockRead(marca);
+            }
+        }
+        return total;
+    }
+
+    public long getBytesUsados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            long marca = segmento.readLock();
+            try {
+                total += segmento.asignador.getBytesUsados();
+            } finally {
+                segmento.unlockRead(marca);
+            }
+        }
+        return total;
+    }
+}
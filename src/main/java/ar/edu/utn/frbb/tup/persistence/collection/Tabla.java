@@ -0,0 +1,38 @@
+package ar.edu.utn.frbb.tup.persistence.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+//operaciones que AbstractBaseDao usa sobre una tabla id -> fila, sea en el heap o fuera de el
+public interface Tabla<V> {
+    V get(long clave);
+
+    //aplica la funcion al valor actual (o null) de forma atomica para esa clave; si devuelve null borra la entrada
+    V compute(long clave, Function<? super V, ? extends V> funcion);
+
+    List<V> values();
+
+    //valores de esas claves en el mismo orden (null si no existe); un motor externo lo resuelve por lotes
+    default List<V> getAll(long[] claves) {
+        List<V> valores = new ArrayList<>(claves.length);
+        for (long clave : claves) {
+            valores.add(get(clave));
+        }
+        return valores;
+    }
+
+    //reemplaza los valores sin leerlos (ultima escritura gana); un motor externo los escribe en un solo lote
+    default void putAll(long[] claves, List<? extends V> valores) {
+        for (int i = 0; i < claves.length; i++) {
+            V valor = valores.get(i);
+            compute(claves[i], actual -> valor);
+        }
+    }
+
+    <E extends Exception> void forEach(LongObjectHashMap.Visitante<? super V, E> visitante) throws E;
+
+    int size();
+
+    void clear();
+}
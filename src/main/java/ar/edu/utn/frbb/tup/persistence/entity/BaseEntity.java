@@ -2,6 +2,8 @@ package ar.edu.utn.frbb.tup.persistence.entity;
 
 public class BaseEntity {
     private final Long Id;
+    //cantidad de guardados de la fila: cada guardado exitoso la incrementa en uno
+    private long version;
     public BaseEntity(Long id) {
         Id = id;
     }
@@ -9,4 +11,11 @@ public class BaseEntity {
     public Long getId() {
         return Id;
     }
+
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -1,6 +1,7 @@
 package ar.edu.utn.frbb.tup.persistence.entity;
 
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.ConjuntoDiferido;
 import ar.edu.utn.frbb.tup.model.Cuenta;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
@@ -25,6 +26,11 @@ public class ClienteEntity extends BaseEntity {
     private boolean activo;
 
     public ClienteEntity(Cliente cliente) {
+        this(cliente, null);
+    }
+
+    //una coleccion diferida que nadie toco no cambio: se copian los ids de la fila anterior sin cargarla
+    public ClienteEntity(Cliente cliente, ClienteEntity anterior) {
         super(cliente.getDni());
         this.tipoPersona = cliente.getTipoPersona() != null ? cliente.getTipoPersona().getDescripcion() : null;
         this.nombre = cliente.getNombre();
@@ -37,18 +43,43 @@ public class ClienteEntity extends BaseEntity {
         this.cuentas = new HashSet<>();
         this.prestamos = new HashSet<>();
         this.activo = cliente.isActivo();
-        if (cliente.getCuentas() != null && !cliente.getCuentas().isEmpty()) {
+        setVersion(cliente.getVersion());
+        if (!ConjuntoDiferido.estaCargado(cliente.getCuentas())) {
+            if (anterior != null) {
+                cuentas.addAll(anterior.getCuentas());
+            }
+        } else if (cliente.getCuentas() != null && !cliente.getCuentas().isEmpty()) {
             for (Cuenta c: cliente.getCuentas()) {
                 cuentas.add(c.getNumeroCuenta());
             }
         }
-        if (cliente.getPrestamos() != null && !cliente.getPrestamos().isEmpty()) {
+        if (!ConjuntoDiferido.estaCargado(cliente.getPrestamos())) {
+            if (anterior != null) {
+                prestamos.addAll(anterior.getPrestamos());
+            }
+        } else if (cliente.getPrestamos() != null && !cliente.getPrestamos().isEmpty()) {
             for (Prestamo p: cliente.getPrestamos()) {
                 prestamos.add(p.getId());
             }
         }
     }
 
+    public ClienteEntity(long dni, String tipoPersona, String nombre, String apellido, String telefono, String email,
+                         LocalDate fechaAlta, LocalDate fechaNacimiento, String banco, Set<Long> cuentas, Set<Long> prestamos, boolean activo) {
+        super(dni);
+        this.tipoPersona = tipoPersona;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.telefono = telefono;
+        this.email = email;
+        this.fechaAlta = fechaAlta;
+        this.fechaNacimiento = fechaNacimiento;
+        this.banco = banco;
+        this.cuentas = cuentas;
+        this.prestamos = prestamos;
+        this.activo = activo;
+    }
+
     public Cliente toCliente() {
         Cliente cliente = new Cliente();
         cliente.setDni(this.getId());
@@ -61,10 +92,43 @@ public class ClienteEntity extends BaseEntity {
         cliente.setFechaNacimiento(this.fechaNacimiento);
         cliente.setBanco(this.banco);
         cliente.setActivo(this.activo);
+        cliente.setVersion(getVersion());
         return cliente;
     }
 
     //getters y setters
+    public String getTipoPersona() {
+        return tipoPersona;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getFechaAlta() {
+        return fechaAlta;
+    }
+
+    public LocalDate getFechaNacimiento() {
+        return fechaNacimiento;
+    }
+
+    public String getBanco() {
+        return banco;
+    }
+
     public Set<Long> getCuentas() {
         return cuentas;
     }
@@ -24,6 +24,18 @@ public class CuentaEntity extends BaseEntity {
         this.balance = cuenta.getBalance();
         this.fechaCreacion = cuenta.getFechaCreacion();
         this.estado = cuenta.isEstado();
+        setVersion(cuenta.getVersion());
+    }
+
+    public CuentaEntity(long numeroCuenta, Long titular, String tipoCuenta, String tipoMoneda, double balance, LocalDate fechaCreacion, boolean estado) {
+        super(numeroCuenta);
+        this.numeroCuenta = numeroCuenta;
+        this.titular = titular;
+        this.tipoCuenta = tipoCuenta;
+        this.tipoMoneda = tipoMoneda;
+        this.balance = balance;
+        this.fechaCreacion = fechaCreacion;
+        this.estado = estado;
     }
 
     public Cuenta toCuenta() {
@@ -35,6 +47,7 @@ public class CuentaEntity extends BaseEntity {
         cuenta.setBalance(this.balance);
         cuenta.setFechaCreacion(this.fechaCreacion);
         cuenta.setEstado(this.isEstado());
+        cuenta.setVersion(getVersion());
         return cuenta;
     }
 
@@ -0,0 +1,82 @@
+package ar.edu.utn.frbb.tup.persistence.entity;
+
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public class MovimientoEntity extends BaseEntity {
+    private final long idAsiento;
+    private final long numeroCuenta;
+    private final long contrapartida;
+    private final String tipo;
+    private final long montoFijo;
+    private final long idPrestamo;
+    //milisegundos desde epoch, con la fecha tomada como UTC
+    private final long fecha;
+
+    public MovimientoEntity(Movimiento movimiento) {
+        super(movimiento.getId());
+        this.idAsiento = movimiento.getIdAsiento();
+        this.numeroCuenta = movimiento.getNumeroCuenta();
+        this.contrapartida = movimiento.getContrapartida();
+        this.tipo = movimiento.getTipo() != null ? movimiento.getTipo().getDescripcion() : null;
+        this.montoFijo = movimiento.getMontoFijo();
+        this.idPrestamo = movimiento.getIdPrestamo();
+        this.fecha = movimiento.getFecha() != null ? movimiento.getFecha().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    public MovimientoEntity(long id, long idAsiento, long numeroCuenta, long contrapartida, String tipo, long montoFijo, long idPrestamo, long fecha) {
+        super(id);
+        this.idAsiento = idAsiento;
+        this.numeroCuenta = numeroCuenta;
+        this.contrapartida = contrapartida;
+        this.tipo = tipo;
+        this.montoFijo = montoFijo;
+        this.idPrestamo = idPrestamo;
+        this.fecha = fecha;
+    }
+
+    public Movimiento toMovimiento() {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setId(getId());
+        movimiento.setIdAsiento(idAsiento);
+        movimiento.setNumeroCuenta(numeroCuenta);
+        movimiento.setContrapartida(contrapartida);
+        movimiento.setTipo(tipo != null ? TipoMovimiento.fromString(tipo) : null);
+        movimiento.setMontoFijo(montoFijo);
+        movimiento.setIdPrestamo(idPrestamo);
+        movimiento.setFecha(LocalDateTime.ofInstant(Instant.ofEpochMilli(fecha), ZoneOffset.UTC));
+        return movimiento;
+    }
+
+    public long getIdAsiento() {
+        return idAsiento;
+    }
+
+    public long getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    public long getContrapartida() {
+        return contrapartida;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public long getMontoFijo() {
+        return montoFijo;
+    }
+
+    public long getIdPrestamo() {
+        return idPrestamo;
+    }
+
+    public long getFecha() {
+        return fecha;
+    }
+}
@@ -0,0 +1,51 @@
+package ar.edu.utn.frbb.tup.persistence.entity;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+
+import java.time.LocalDate;
+
+public class PreAprobacionEntity extends BaseEntity {
+    private final int score;
+    private final double montoPreAprobado;
+    private final double montoDisponible;
+    private final LocalDate fechaCalculo;
+
+    public PreAprobacionEntity(PreAprobacion preAprobacion) {
+        super(preAprobacion.getDniCliente());
+        this.score = preAprobacion.getScore();
+        this.montoPreAprobado = preAprobacion.getMontoPreAprobado();
+        this.montoDisponible = preAprobacion.getMontoDisponible();
+        this.fechaCalculo = preAprobacion.getFechaCalculo();
+    }
+
+    public PreAprobacionEntity(long dniCliente, int score, double montoPreAprobado, double montoDisponible, LocalDate fechaCalculo) {
+        super(dniCliente);
+        this.score = score;
+        this.montoPreAprobado = montoPreAprobado;
+        this.montoDisponible = montoDisponible;
+        this.fechaCalculo = fechaCalculo;
+    }
+
+    public PreAprobacion toPreAprobacion() {
+        PreAprobacion preAprobacion = new PreAprobacion(getId(), score, montoPreAprobado, fechaCalculo);
+        preAprobacion.setMontoDisponible(montoDisponible);
+        return preAprobacion;
+    }
+
+    //getters
+    public int getScore() {
+        return score;
+    }
+
+    public double getMontoPreAprobado() {
+        return montoPreAprobado;
+    }
+
+    public double getMontoDisponible() {
+        return montoDisponible;
+    }
+
+    public LocalDate getFechaCalculo() {
+        return fechaCalculo;
+    }
+}
@@ -3,10 +3,9 @@ package ar.edu.utn.frbb.tup.persistence.entity;
 import ar.edu.utn.frbb.tup.model.PlanPago;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 public class PrestamoEntity extends BaseEntity {
@@ -19,7 +18,7 @@ public class PrestamoEntity extends BaseEntity {
     private String estado;
     private double saldoRestante;
     private int pagosRealizados;
-    private final List<PlanPago> planPagos = new ArrayList<>();
+    private final String metodoAmortizacion;
 
     public PrestamoEntity(Prestamo prestamo) {
         super(prestamo.getId());
@@ -30,13 +29,25 @@ public class PrestamoEntity extends BaseEntity {
         this.tipoMoneda = prestamo.getMoneda() != null ? prestamo.getMoneda().getDescripcion() : null;
         this.plazoMeses = prestamo.getPlazoMeses();
         this.estado = prestamo.getLoanStatus() != null ? prestamo.getLoanStatus().getDescripcion() : null;
-        if (prestamo.getPlanDePagos() != null && !prestamo.getPlanDePagos().isEmpty()) {
-            for (PlanPago pago : prestamo.getPlanDePagos()) {
-                this.planPagos.add(pago);
-            }
-        }
+        this.metodoAmortizacion = prestamo.getMetodoAmortizacion() != null ? prestamo.getMetodoAmortizacion().getDescripcion() : null;
         this.saldoRestante = prestamo.getSaldoRestante();
         this.pagosRealizados = prestamo.getPagosRealizados();
+        setVersion(prestamo.getVersion());
+    }
+
+    public PrestamoEntity(long id, long numeroCliente, double montoSolicitado, double monto, String tipoMoneda, int plazoMeses,
+                          String estado, double saldoRestante, int pagosRealizados, String metodoAmortizacion) {
+        super(id);
+        this.id = id;
+        this.numeroCliente = numeroCliente;
+        this.montoSolicitado = montoSolicitado;
+        this.monto = monto;
+        this.tipoMoneda = tipoMoneda;
+        this.plazoMeses = plazoMeses;
+        this.estado = estado;
+        this.saldoRestante = saldoRestante;
+        this.pagosRealizados = pagosRealizados;
+        this.metodoAmortizacion = metodoAmortizacion;
     }
 
     public Prestamo toPrestamo() {
@@ -48,9 +59,10 @@ public class PrestamoEntity extends BaseEntity {
         prestamo.setMoneda(TipoMoneda.fromString(this.tipoMoneda));
         prestamo.setPlazoMeses(this.plazoMeses);
         prestamo.setLoanStatus(LoanStatus.fromString(this.estado));
-        prestamo.setPlanDePagos(this.planPagos);
+        prestamo.setMetodoAmortizacion(this.metodoAmortizacion != null ? MetodoAmortizacion.fromString(this.metodoAmortizacion) : null);
         prestamo.setPagosRealizados(this.pagosRealizados);
         prestamo.setSaldoRestante(this.saldoRestante);
+        prestamo.setVersion(getVersion());
         return prestamo;
     }
 
@@ -59,6 +71,10 @@ public class PrestamoEntity extends BaseEntity {
         return numeroCliente;
     }
 
+    public double getMontoSolicitado() {
+        return montoSolicitado;
+    }
+
     public double getMonto() {
         return monto;
     }
@@ -79,8 +95,12 @@ public class PrestamoEntity extends BaseEntity {
         this.estado = estado;
     }
 
+    public String getMetodoAmortizacion() {
+        return metodoAmortizacion;
+    }
+
     public List<PlanPago> getPlanPagos() {
-        return planPagos;
+        return toPrestamo().getPlanDePagos();
     }
 
     public double getSaldoRestante() {
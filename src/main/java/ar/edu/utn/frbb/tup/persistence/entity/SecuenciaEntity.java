@@ -0,0 +1,15 @@
+package ar.edu.utn.frbb.tup.persistence.entity;
+
+public class SecuenciaEntity extends BaseEntity {
+    //ultimo id entregado en algun bloque
+    private final long techo;
+
+    public SecuenciaEntity(long id, long techo) {
+        super(id);
+        this.techo = techo;
+    }
+
+    public long getTecho() {
+        return techo;
+    }
+}
@@ -1,76 +1,153 @@
 package ar.edu.utn.frbb.tup.persistence.imp;
 
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.ConjuntoDiferido;
 import ar.edu.utn.frbb.tup.model.Cuenta;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
 import ar.edu.utn.frbb.tup.persistence.ClienteDao;
 import ar.edu.utn.frbb.tup.persistence.CuentaDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
 import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.persistence.codec.ClienteEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
 import ar.edu.utn.frbb.tup.persistence.entity.ClienteEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.IntStream;
 
 @Component
 public class ClienteDaoImp extends AbstractBaseDao implements ClienteDao {
+    private static final ClienteEntityCodec CODEC = new ClienteEntityCodec();
+    //clientes por lote de findAll: acota los arreglos de ids de cada lote
+    private static final int PARTICION = 4096;
+
     @Autowired
     CuentaDao cuentaDao;
     @Autowired
     PrestamoDao prestamoDao;
 
+    //true: findAll arma los lotes en paralelo en el pool comun
+    @Value("${tup.persistence.carga-paralela:false}")
+    boolean cargaParalela;
+
+    @Autowired
+    public ClienteDaoImp(CuentaDao cuentaDao, PrestamoDao prestamoDao) {
+        this.cuentaDao = cuentaDao;
+        this.prestamoDao = prestamoDao;
+    }
+
     @Override
     protected String getEntityName() {
         return "CLIENTE";
     }
 
-    public Cliente find(long dni, boolean loadComplete) {
-        if (getInMemoryDatabase().get(dni) == null)
+    @Override
+    protected EntityCodec<ClienteEntity> getCodec() {
+        return CODEC;
+    }
+
+    //las colecciones que el plan no carga quedan diferidas hasta el primer acceso
+    public Cliente find(long dni, PlanCarga plan) {
+        ClienteEntity clienteEntity = (ClienteEntity) obtener(dni);
+        if (clienteEntity == null)
             return null;
-        Cliente cliente = ((ClienteEntity) getInMemoryDatabase().get(dni)).toCliente();
-        if (loadComplete) {
+        Cliente cliente = clienteEntity.toCliente();
+        if (plan.cargaCuentas()) {
             for (Cuenta cuenta :
                     cuentaDao.buscarCuentasByCliente(dni)) {
                 cliente.addCuenta(cuenta);
             }
+        } else {
+            cliente.setCuentas(new ConjuntoDiferido<>(() -> cuentaDao.buscarCuentasByCliente(dni)));
+        }
+        if (plan.cargaPrestamos()) {
             for (Prestamo prestamo :
                     prestamoDao.buscarPrestamoPorCliente(dni)) {
                 cliente.addPrestamo(prestamo);
             }
+        } else {
+            cliente.setPrestamos(new ConjuntoDiferido<>(() -> prestamoDao.buscarPrestamoPorCliente(dni)));
         }
         return cliente;
     }
 
+    public long[] buscarDnis() {
+        return getIds();
+    }
+
+    //carga en lotes: junta los ids de cuentas y prestamos de los clientes del lote y los resuelve con una
+    //sola consulta por tabla, en lugar de una busqueda por id
     public List<Cliente> findAll() {
-        List<Cliente> clientes = new ArrayList<>();
+        List<BaseEntity> entidades = getEntidades();
+        int particiones = (entidades.size() + PARTICION - 1) / PARTICION;
+        List<List<Cliente>> lotes = new ArrayList<>(particiones);
+        for (int i = 0; i < particiones; i++) {
+            lotes.add(null);
+        }
+        IntStream indices = IntStream.range(0, particiones);
+        if (cargaParalela) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> lotes.set(i, cargarLote(entidades.subList(i * PARTICION, Math.min(entidades.size(), (i + 1) * PARTICION)))));
 
-        for (Object object : getInMemoryDatabase().values()) {
-            ClienteEntity clienteEntity = (ClienteEntity) object;
-            Cliente cliente = clienteEntity.toCliente();
+        List<Cliente> clientes = new ArrayList<>(entidades.size());
+        for (List<Cliente> lote : lotes) {
+            clientes.addAll(lote);
+        }
+        return clientes;
+    }
 
-            Set<Cuenta> cuentasSet = new HashSet<>();
-            for (long cuentaId : clienteEntity.getCuentas()) {
-                Cuenta cuenta = cuentaDao.find(cuentaId);
-                if (cuenta != null) {
-                    cuentasSet.add(cuenta);
+    private List<Cliente> cargarLote(List<BaseEntity> entidades) {
+        //se guarda cuantos ids aporto cada cliente para repartir los resultados en el mismo orden
+        int[] cantidadCuentas = new int[entidades.size()];
+        int[] cantidadPrestamos = new int[entidades.size()];
+        long[] idsCuentas = new long[16];
+        long[] idsPrestamos = new long[16];
+        int totalCuentas = 0;
+        int totalPrestamos = 0;
+        for (int i = 0; i < entidades.size(); i++) {
+            ClienteEntity clienteEntity = (ClienteEntity) entidades.get(i);
+            for (long id : clienteEntity.getCuentas()) {
+                if (totalCuentas == idsCuentas.length) {
+                    idsCuentas = Arrays.copyOf(idsCuentas, totalCuentas * 2);
                 }
+                idsCuentas[totalCuentas++] = id;
+                cantidadCuentas[i]++;
             }
-            cliente.setCuentas(cuentasSet);
-
-            Set<Prestamo> prestamosSet = new HashSet<>();
-            for (long prestamoId : clienteEntity.getPrestamos()) {
-                Prestamo prestamo = prestamoDao.findPrestamo(prestamoId);
-                if (prestamo != null) {
-                    prestamosSet.add(prestamo);
+            for (long id : clienteEntity.getPrestamos()) {
+                if (totalPrestamos == idsPrestamos.length) {
+                    idsPrestamos = Arrays.copyOf(idsPrestamos, totalPrestamos * 2);
                 }
+                idsPrestamos[totalPrestamos++] = id;
+                cantidadPrestamos[i]++;
             }
-            cliente.setPrestamos(prestamosSet);
+        }
+        List<Cuenta> cuentas = cuentaDao.findAll(Arrays.copyOf(idsCuentas, totalCuentas));
+        List<Prestamo> prestamos = prestamoDao.findAll(Arrays.copyOf(idsPrestamos, totalPrestamos));
 
+        List<Cliente> clientes = new ArrayList<>(entidades.size());
+        int cuenta = 0;
+        int prestamo = 0;
+        for (int i = 0; i < entidades.size(); i++) {
+            Cliente cliente = ((ClienteEntity) entidades.get(i)).toCliente();
+            for (int fin = cuenta + cantidadCuentas[i]; cuenta < fin; cuenta++) {
+                if (cuentas.get(cuenta) != null) {
+                    cliente.addCuenta(cuentas.get(cuenta));
+                }
+            }
+            for (int fin = prestamo + cantidadPrestamos[i]; prestamo < fin; prestamo++) {
+                if (prestamos.get(prestamo) != null) {
+                    cliente.addPrestamo(prestamos.get(prestamo));
+                }
+            }
             clientes.add(cliente);
         }
         return clientes;
@@ -78,17 +155,19 @@ public class ClienteDaoImp extends AbstractBaseDao implements ClienteDao {
 
     //aca arroja empty fields
     public void save(Cliente cliente) {
-        ClienteEntity entity = new ClienteEntity(cliente);
-        getInMemoryDatabase().put(entity.getId(), entity);
+        ClienteEntity entity = new ClienteEntity(cliente, (ClienteEntity) obtener(cliente.getDni()));
+        guardar(entity);
+        cliente.setVersion(entity.getVersion());
     }
 
     public Cliente update(Cliente cliente) throws ClientNoExisteException {
-        ClienteEntity clienteEntity = (ClienteEntity) getInMemoryDatabase().get(cliente.getDni());
-        if(clienteEntity != null) {
-            if (cliente.isActivo() != clienteEntity.isActivo()) {
-                clienteEntity.setActivo(cliente.isActivo());
-            }
-            save(clienteEntity.toCliente());
+        //se modifica una copia: la entidad de la tabla no cambia hasta que el guardado gana la version.
+        //sus colecciones quedan diferidas, asi se conservan las cuentas y prestamos sin cargarlos
+        Cliente actual = find(cliente.getDni(), PlanCarga.DIFERIDO);
+        if(actual != null) {
+            actual.setActivo(cliente.isActivo());
+            save(actual);
+            cliente.setVersion(actual.getVersion());
         } else {
             throw new ClientNoExisteException("Cliente no encontrado.");
         }
@@ -1,60 +1,214 @@
 package ar.edu.utn.frbb.tup.persistence.imp;
 
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.MontoFijo;
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
 import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
 import ar.edu.utn.frbb.tup.persistence.CuentaDao;
+import ar.edu.utn.frbb.tup.persistence.MovimientoDao;
+import ar.edu.utn.frbb.tup.persistence.codec.CuentaEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
 import ar.edu.utn.frbb.tup.persistence.entity.CuentaEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+//el balance de la fila es el saldo de apertura y no cambia despues del alta. el saldo actual vive en una
+//celda atomica por cuenta (punto fijo) que se arma con la apertura mas la suma del libro de movimientos;
+//cada credito o debito es un addAndGet sobre la celda mas un alta en el libro, sin reescribir la cuenta
 @Component
 public class CuentaDaoImp extends AbstractBaseDao implements CuentaDao {
+    private static final int CANTIDAD_MONEDAS = TipoMoneda.values().length;
+    private static final int CANTIDAD_TIPOS_CUENTA = TipoCuenta.values().length;
+    private static final CuentaEntityCodec CODEC = new CuentaEntityCodec();
+
+    private final MovimientoDao movimientoDao;
+    //numero de cuenta -> saldo actual en punto fijo
+    private final ConcurrentLongObjectMap<AtomicLong> saldos = new ConcurrentLongObjectMap<>();
+
+    @Autowired
+    public CuentaDaoImp(MovimientoDao movimientoDao) {
+        this.movimientoDao = movimientoDao;
+    }
+
     @Override
     protected String getEntityName() {
         return "CUENTA";
     }
 
+    @Override
+    protected EntityCodec<CuentaEntity> getCodec() {
+        return CODEC;
+    }
+
+    @Override
+    protected boolean admiteOffHeap() {
+        return true;
+    }
+
+    //indice dni del titular -> numeros de cuenta
+    private ConcurrentLongObjectMap<long[]> getIndicePorCliente() {
+        return getIndice("CLIENTE");
+    }
+
+    //indice (dni, moneda, tipo de cuenta) -> numero de cuenta
+    private ConcurrentLongObjectMap<long[]> getIndicePorClienteMonedaYTipo() {
+        return getIndice("CLIENTE_MONEDA_TIPO");
+    }
+
+    //arma una unica clave long con el dni y los ordinales de los enums
+    private static long claveCompuesta(long dni, TipoMoneda tipoMoneda, TipoCuenta tipoCuenta) {
+        return (dni * CANTIDAD_MONEDAS + tipoMoneda.ordinal()) * CANTIDAD_TIPOS_CUENTA + tipoCuenta.ordinal();
+    }
+
+    private static Long claveCompuesta(CuentaEntity entity) {
+        if (entity.getTitular() == null || entity.getTipoMoneda() == null || entity.getTipoCuenta() == null) {
+            return null;
+        }
+        return claveCompuesta(entity.getTitular(), TipoMoneda.fromString(entity.getTipoMoneda()), TipoCuenta.fromString(entity.getTipoCuenta()));
+    }
+
     public Cuenta find(long id) {
-        if(getInMemoryDatabase().get(id) == null){
+        CuentaEntity cuentaEntity = (CuentaEntity) obtener(id);
+        if(cuentaEntity == null){
             return null;
         }
-        Cuenta cuenta = ((CuentaEntity) getInMemoryDatabase().get(id)).toCuenta();
-        return cuenta;
+        return conSaldo(cuentaEntity);
     }
 
     public List<Cuenta> findAll() {
         List<Cuenta> cuentas = new ArrayList<>();
-        for (Object object : getInMemoryDatabase().values()) {
-            cuentas.add(((CuentaEntity) object).toCuenta());
+        for (BaseEntity object : getEntidades()) {
+            cuentas.add(conSaldo((CuentaEntity) object));
         }
         return cuentas;
     }
 
+    //cuentas con esos numeros en el mismo orden (null si no existe), para cargar en lote
+    public List<Cuenta> findAll(long[] ids) {
+        List<Cuenta> cuentas = new ArrayList<>(ids.length);
+        for (BaseEntity entity : obtenerTodos(ids)) {
+            CuentaEntity cuentaEntity = (CuentaEntity) entity;
+            cuentas.add(cuentaEntity != null ? conSaldo(cuentaEntity) : null);
+        }
+        return cuentas;
+    }
+
+    //la cuenta con el saldo actual de la celda en lugar del saldo de apertura
+    private Cuenta conSaldo(CuentaEntity entity) {
+        Cuenta cuenta = entity.toCuenta();
+        cuenta.setBalance(MontoFijo.aDouble(saldo(entity).get()));
+        return cuenta;
+    }
+
+    //la celda se arma una sola vez por cuenta. los movimientos se aplican a la celda antes de guardarse en el libro,
+    //asi que todo lo que ya esta en el libro al armarla fue guardado antes de que existiera y no se cuenta dos veces
+    private AtomicLong saldo(CuentaEntity entity) {
+        AtomicLong saldo = saldos.get(entity.getNumeroCuenta());
+        if (saldo != null) {
+            return saldo;
+        }
+        return saldos.compute(entity.getNumeroCuenta(), actual -> actual != null ? actual
+                : new AtomicLong(MontoFijo.desde(entity.getBalance()) + movimientoDao.sumarPorCuenta(entity.getNumeroCuenta())));
+    }
+
+    //aplica el movimiento a la celda y agrega el asiento (las dos patas) al libro; devuelve el saldo resultante
+    public double registrarMovimiento(Movimiento movimiento, long idContraria) throws CuentaNoExisteException {
+        CuentaEntity entity = (CuentaEntity) obtener(movimiento.getNumeroCuenta());
+        if (entity == null) {
+            throw new CuentaNoExisteException("La cuenta con ID: " + movimiento.getNumeroCuenta() + " no existe.");
+        }
+        AtomicLong saldo = saldo(entity);
+        long posterior = saldo.addAndGet(movimiento.getMontoFijo());
+        try {
+            movimientoDao.saveAsiento(movimiento, idContraria);
+        } catch (RuntimeException e) {
+            saldo.addAndGet(-movimiento.getMontoFijo());
+            throw e;
+        }
+        return MontoFijo.aDouble(posterior);
+    }
+
+    public List<Movimiento> buscarMovimientos(long id, LocalDateTime desde, LocalDateTime hasta) {
+        return movimientoDao.buscarPorCuenta(id, desde, hasta);
+    }
+
     //busca si el cliente tiene la cuenta en esa moneda
     public Cuenta findByClienteYTipoMonedaYTipoCuenta(long dni, String tipoMoneda, String tipoCuenta) {
-        List<Cuenta> cuentas = findAll();
-        for (Cuenta cuenta : cuentas) {
-            if (cuenta.getDniTitular() == dni && cuenta.getTipoMoneda().toString().equals(tipoMoneda)
-                && cuenta.getTipoCuenta().toString().equals(tipoCuenta)) {
+        long clave;
+        try {
+            clave = claveCompuesta(dni, TipoMoneda.valueOf(tipoMoneda), TipoCuenta.valueOf(tipoCuenta));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+        for (long id : buscarEnIndice(getIndicePorClienteMonedaYTipo(), clave)) {
+            Cuenta cuenta = find(id);
+            if (cuenta != null) {
                 return cuenta;
             }
         }
         return null;
     }
 
+    //la cuenta queda con la version guardada, asi se puede volver a guardar sin releerla
+    //una cuenta que ya existe conserva su saldo de apertura: el balance solo cambia con movimientos
     public void save(Cuenta cuenta) {
         CuentaEntity entity = new CuentaEntity(cuenta);
-        getInMemoryDatabase().put(entity.getId(), entity);
+        CuentaEntity guardada = (CuentaEntity) obtener(cuenta.getNumeroCuenta());
+        if (guardada != null) {
+            entity.setBalance(guardada.getBalance());
+        }
+        guardar(entity);
+        cuenta.setVersion(entity.getVersion());
+    }
+
+    @Override
+    protected void actualizarIndices(Object cuentaAnterior, Object cuenta) {
+        CuentaEntity anterior = (CuentaEntity) cuentaAnterior;
+        CuentaEntity entity = (CuentaEntity) cuenta;
+        if (entity == null) {
+            if (anterior.getTitular() != null) {
+                desindexar(getIndicePorCliente(), anterior.getTitular(), anterior.getId());
+            }
+            Long claveAnterior = claveCompuesta(anterior);
+            if (claveAnterior != null) {
+                desindexar(getIndicePorClienteMonedaYTipo(), claveAnterior, anterior.getId());
+            }
+            return;
+        }
+        Long clave = claveCompuesta(entity);
+        if (anterior != null) {
+            if (anterior.getTitular() != null && !anterior.getTitular().equals(entity.getTitular())) {
+                desindexar(getIndicePorCliente(), anterior.getTitular(), entity.getId());
+            }
+            Long claveAnterior = claveCompuesta(anterior);
+            if (claveAnterior != null && !claveAnterior.equals(clave)) {
+                desindexar(getIndicePorClienteMonedaYTipo(), claveAnterior, entity.getId());
+            }
+        }
+        if (entity.getTitular() != null) {
+            indexar(getIndicePorCliente(), entity.getTitular(), entity.getId());
+        }
+        if (clave != null) {
+            indexar(getIndicePorClienteMonedaYTipo(), clave, entity.getId());
+        }
     }
 
     public List<Cuenta> buscarCuentasByCliente(long dni) {
         List<Cuenta> cuentasDelCliente = new ArrayList<>();
-        for (Object object: getInMemoryDatabase().values()) {
-            CuentaEntity cuenta = ((CuentaEntity) object);
-            if (cuenta.toCuenta().getDniTitular() == dni) {
-                cuentasDelCliente.add(cuenta.toCuenta());
+        for (long id : buscarEnIndice(getIndicePorCliente(), dni)) {
+            Cuenta cuenta = find(id);
+            if (cuenta != null && cuenta.getDniTitular() == dni) {
+                cuentasDelCliente.add(cuenta);
             }
         }
         return cuentasDelCliente;
@@ -72,15 +226,23 @@ public class CuentaDaoImp extends AbstractBaseDao implements CuentaDao {
     }
 
         public Cuenta updateEstado(Cuenta cuenta) throws CuentaNoExisteException {
-        CuentaEntity cuentaEntity = (CuentaEntity) getInMemoryDatabase().get(cuenta.getNumeroCuenta());
+        CuentaEntity cuentaEntity = (CuentaEntity) obtener(cuenta.getNumeroCuenta());
         if(cuentaEntity != null) {
-            if (cuenta.isEstado() != cuentaEntity.isEstado()) {
-                cuentaEntity.setEstado(cuenta.isEstado());
-            }
-            save(cuentaEntity.toCuenta());
+            //se modifica una copia: la entidad de la tabla no cambia hasta que el guardado gana la version
+            Cuenta actual = cuentaEntity.toCuenta();
+            actual.setEstado(cuenta.isEstado());
+            save(actual);
+            cuenta.setVersion(actual.getVersion());
         } else {
             throw new CuentaNoExisteException("Cuenta no encontrado.");
         }
         return cuenta;
     }
+
+    //las celdas se vuelven a armar desde la tabla y el libro reconstruidos
+    @Override
+    public void vaciar() {
+        super.vaciar();
+        saldos.clear();
+    }
 }
@@ -0,0 +1,135 @@
+package ar.edu.utn.frbb.tup.persistence.imp;
+
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
+import ar.edu.utn.frbb.tup.persistence.MovimientoDao;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.MovimientoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.entity.MovimientoEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+//libro de movimientos de las cuentas en doble partida: solo altas, nunca se modifica una fila
+@Component
+public class MovimientoDaoImp extends AbstractBaseDao implements MovimientoDao {
+    private static final MovimientoEntityCodec CODEC = new MovimientoEntityCodec();
+
+    //segmentos por cuenta: las claves (fecha, id) de sus movimientos en un skip list ordenado por fecha, asi una
+    //consulta por rango cuesta O(log n + k). no usa los indices de la base (un long[] nuevo en cada alta)
+    //porque una cuenta caliente acumula millones de movimientos y cada alta copiaria el arreglo entero
+    private static final ConcurrentLongObjectMap<ConcurrentSkipListSet<Clave>> SEGMENTOS = new ConcurrentLongObjectMap<>();
+
+    @Override
+    protected String getEntityName() {
+        return "MOVIMIENTO";
+    }
+
+    @Override
+    protected EntityCodec<MovimientoEntity> getCodec() {
+        return CODEC;
+    }
+
+    //cada fila se da de alta una sola vez con un id nuevo: no hay versiones que comparar
+    @Override
+    protected boolean controlaVersion() {
+        return false;
+    }
+
+    private static final class Clave implements Comparable<Clave> {
+        private final long fecha;
+        private final long id;
+
+        Clave(long fecha, long id) {
+            this.fecha = fecha;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int porFecha = Long.compare(fecha, otra.fecha);
+            return porFecha != 0 ? porFecha : Long.compare(id, otra.id);
+        }
+    }
+
+    @Override
+    protected void actualizarIndices(Object anterior, Object entity) {
+        //los movimientos no se modifican: solo las altas entran al segmento (y salen si se deshacen)
+        if (entity == null) {
+            MovimientoEntity deshecho = (MovimientoEntity) anterior;
+            segmento(deshecho.getNumeroCuenta()).remove(new Clave(deshecho.getFecha(), deshecho.getId()));
+            return;
+        }
+        if (anterior != null) {
+            return;
+        }
+        MovimientoEntity movimiento = (MovimientoEntity) entity;
+        segmento(movimiento.getNumeroCuenta()).add(new Clave(movimiento.getFecha(), movimiento.getId()));
+    }
+
+    private ConcurrentSkipListSet<Clave> segmento(long numeroCuenta) {
+        ConcurrentSkipListSet<Clave> segmento = SEGMENTOS.get(numeroCuenta);
+        if (segmento == null) {
+            segmento = SEGMENTOS.compute(numeroCuenta, actual -> actual != null ? actual : new ConcurrentSkipListSet<>());
+        }
+        return segmento;
+    }
+
+    //guarda las dos patas del asiento con los ids que trae (salen de la secuencia de movimientos); el asiento
+    //toma el id de la primera. van en un solo lote: si falla no queda una pata sola en la tabla ni en el journal
+    @Override
+    public void saveAsiento(Movimiento movimiento, long idContraria) {
+        movimiento.setIdAsiento(movimiento.getId());
+        Movimiento contraria = movimiento.pataContraria();
+        contraria.setId(idContraria);
+        guardarTodos(Arrays.asList(new MovimientoEntity(movimiento), new MovimientoEntity(contraria)));
+    }
+
+    //movimientos de la cuenta con fecha entre desde y hasta (inclusive, null deja el extremo abierto), por fecha
+    @Override
+    public List<Movimiento> buscarPorCuenta(long numeroCuenta, LocalDateTime desde, LocalDateTime hasta) {
+        List<Movimiento> movimientos = new ArrayList<>();
+        ConcurrentSkipListSet<Clave> segmento = SEGMENTOS.get(numeroCuenta);
+        long inicio = desde != null ? desde.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+        long fin = hasta != null ? hasta.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MAX_VALUE;
+        if (segmento == null || inicio > fin) {
+            return movimientos;
+        }
+        for (Clave clave : segmento.subSet(new Clave(inicio, Long.MIN_VALUE), true, new Clave(fin, Long.MAX_VALUE), true)) {
+            MovimientoEntity entity = (MovimientoEntity) obtener(clave.id);
+            if (entity != null) {
+                movimientos.add(entity.toMovimiento());
+            }
+        }
+        return movimientos;
+    }
+
+    //suma en punto fijo de los movimientos de la cuenta, sin armar los objetos
+    @Override
+    public long sumarPorCuenta(long numeroCuenta) {
+        ConcurrentSkipListSet<Clave> segmento = SEGMENTOS.get(numeroCuenta);
+        if (segmento == null) {
+            return 0;
+        }
+        long suma = 0;
+        for (Clave clave : segmento) {
+            MovimientoEntity entity = (MovimientoEntity) obtener(clave.id);
+            if (entity != null) {
+                suma += entity.getMontoFijo();
+            }
+        }
+        return suma;
+    }
+
+    @Override
+    public void vaciar() {
+        super.vaciar();
+        SEGMENTOS.clear();
+    }
+}
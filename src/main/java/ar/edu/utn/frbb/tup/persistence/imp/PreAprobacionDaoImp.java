@@ -0,0 +1,66 @@
+package ar.edu.utn.frbb.tup.persistence.imp;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
+import ar.edu.utn.frbb.tup.persistence.PreAprobacionDao;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.PreAprobacionEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.PreAprobacionEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//una fila por dni. es una tabla derivada: el proceso nocturno la reescribe entera, asi que
+//no pasa por el journal (un fsync por cliente frenaria el proceso) y solo se guarda en los snapshots
+@Component
+public class PreAprobacionDaoImp extends AbstractBaseDao implements PreAprobacionDao {
+    private static final PreAprobacionEntityCodec CODEC = new PreAprobacionEntityCodec();
+
+    @Override
+    protected String getEntityName() {
+        return "PREAPROBACION";
+    }
+
+    @Override
+    protected EntityCodec<PreAprobacionEntity> getCodec() {
+        return CODEC;
+    }
+
+    @Override
+    protected boolean registraEnJournal() {
+        return false;
+    }
+
+    //el proceso nocturno pisa la fila sin leerla
+    @Override
+    protected boolean controlaVersion() {
+        return false;
+    }
+
+    @Override
+    public PreAprobacion find(long dni) {
+        PreAprobacionEntity entity = (PreAprobacionEntity) obtener(dni);
+        return entity != null ? entity.toPreAprobacion() : null;
+    }
+
+    @Override
+    public void save(PreAprobacion preAprobacion) {
+        guardar(new PreAprobacionEntity(preAprobacion));
+    }
+
+    //una particion entera en un solo lote del motor
+    @Override
+    public void saveAll(List<PreAprobacion> preAprobaciones) {
+        List<PreAprobacionEntity> entidades = new ArrayList<>(preAprobaciones.size());
+        for (PreAprobacion preAprobacion : preAprobaciones) {
+            entidades.add(new PreAprobacionEntity(preAprobacion));
+        }
+        guardarTodos(entidades);
+    }
+
+    @Override
+    public int size() {
+        return getInMemoryDatabase().size();
+    }
+}
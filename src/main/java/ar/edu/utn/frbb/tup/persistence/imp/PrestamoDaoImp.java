@@ -3,6 +3,10 @@ package ar.edu.utn.frbb.tup.persistence.imp;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
 import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
 import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
 import org.springframework.stereotype.Component;
 
@@ -11,39 +15,83 @@ import java.util.List;
 
 @Component
 public class PrestamoDaoImp extends AbstractBaseDao implements PrestamoDao {
+    private static final PrestamoEntityCodec CODEC = new PrestamoEntityCodec();
+
     @Override
     protected String getEntityName() {
         return "PRESTAMO";
     }
 
+    @Override
+    protected EntityCodec<PrestamoEntity> getCodec() {
+        return CODEC;
+    }
+
+    @Override
+    protected boolean admiteOffHeap() {
+        return true;
+    }
+
+    //indice dni del cliente -> ids de sus prestamos
+    private ConcurrentLongObjectMap<long[]> getIndicePorCliente() {
+        return getIndice("CLIENTE");
+    }
+
+    //el prestamo queda con la version guardada, asi se puede volver a guardar sin releerlo
     public void savePrestamo(Prestamo prestamo) {
         PrestamoEntity entity = new PrestamoEntity(prestamo);
-        getInMemoryDatabase().put(entity.getId(), entity);
+        guardar(entity);
+        prestamo.setVersion(entity.getVersion());
+    }
+
+    @Override
+    protected void actualizarIndices(Object anterior, Object entity) {
+        PrestamoEntity prestamoAnterior = (PrestamoEntity) anterior;
+        PrestamoEntity prestamo = (PrestamoEntity) entity;
+        if (prestamo == null) {
+            desindexar(getIndicePorCliente(), prestamoAnterior.getNumeroCliente(), prestamoAnterior.getId());
+            return;
+        }
+        if (prestamoAnterior != null && prestamoAnterior.getNumeroCliente() != prestamo.getNumeroCliente()) {
+            desindexar(getIndicePorCliente(), prestamoAnterior.getNumeroCliente(), prestamo.getId());
+        }
+        indexar(getIndicePorCliente(), prestamo.getNumeroCliente(), prestamo.getId());
     }
 
     //busca prestamo por id del prestamo
     public Prestamo findPrestamo(long id) {
-        if (getInMemoryDatabase().get(id) == null) {
+        PrestamoEntity prestamoEntity = (PrestamoEntity) obtener(id);
+        if (prestamoEntity == null) {
             return null;
         }
-        Prestamo prestamo = ((PrestamoEntity) getInMemoryDatabase().get(id)).toPrestamo();
+        Prestamo prestamo = prestamoEntity.toPrestamo();
         return prestamo;
     }
 
     public List<Prestamo> findAll() {
         List<Prestamo> prestamos = new ArrayList<>();
-        for (Object object : getInMemoryDatabase().values()) {
+        for (BaseEntity object : getEntidades()) {
             prestamos.add(((PrestamoEntity) object).toPrestamo());
         }
         return prestamos;
     }
 
-    //obtiene prestamos por numero de cliente
+    //prestamos con esos ids en el mismo orden (null si no existe), para cargar en lote
+    public List<Prestamo> findAll(long[] ids) {
+        List<Prestamo> prestamos = new ArrayList<>(ids.length);
+        for (BaseEntity entity : obtenerTodos(ids)) {
+            PrestamoEntity prestamoEntity = (PrestamoEntity) entity;
+            prestamos.add(prestamoEntity != null ? prestamoEntity.toPrestamo() : null);
+        }
+        return prestamos;
+    }
+
+    //obtiene prestamos por numero de cliente usando el indice, sin recorrer todos los prestamos
     public List<Prestamo> buscarPrestamoPorCliente(long dni) {
         List<Prestamo> prestamosDelCliente = new ArrayList<>();
-        for (Object object: getInMemoryDatabase().values()) {
-            PrestamoEntity prestamo = ((PrestamoEntity) object);
-            if (prestamo.toPrestamo().getDniTitular() == dni) {
+        for (long id : buscarEnIndice(getIndicePorCliente(), dni)) {
+            PrestamoEntity prestamo = (PrestamoEntity) obtener(id);
+            if (prestamo != null && prestamo.getNumeroCliente() == dni) {
                 prestamosDelCliente.add(prestamo.toPrestamo());
             }
         }
@@ -0,0 +1,68 @@
+package ar.edu.utn.frbb.tup.persistence.imp;
+
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
+import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
+import ar.edu.utn.frbb.tup.persistence.SecuenciaDao;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.SecuenciaEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.SecuenciaEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//una fila por secuencia con su techo. reservar un bloque sube el techo con un compare-and-set y el guardado
+//espera al journal antes de devolver el bloque, asi despues de una caida ningun id entregado se repite
+@Component
+public class SecuenciaDaoImp extends AbstractBaseDao implements SecuenciaDao {
+    private static final SecuenciaEntityCodec CODEC = new SecuenciaEntityCodec();
+    //debajo quedan las cuentas de cartera (ver Movimiento.cuentaCartera)
+    private static final long BASE = 2_000_000_000L;
+
+    //secuencias cuyo techo ya se comparo con el mayor id de su tabla en este proceso: cubre los ids
+    //aleatorios de antes del asignador y las filas restauradas de un snapshot sin la secuencia
+    private final Set<Secuencia> sembradas = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected String getEntityName() {
+        return "SECUENCIA";
+    }
+
+    @Override
+    protected EntityCodec<SecuenciaEntity> getCodec() {
+        return CODEC;
+    }
+
+    @Override
+    public long reservar(Secuencia secuencia, int cantidad) {
+        while (true) {
+            SecuenciaEntity actual = (SecuenciaEntity) obtener(secuencia.getId());
+            long techo = actual != null ? actual.getTecho() : BASE;
+            if (!sembradas.contains(secuencia)) {
+                techo = Math.max(techo, mayorId(secuencia.getTabla()));
+            }
+            SecuenciaEntity nueva = new SecuenciaEntity(secuencia.getId(), techo + cantidad);
+            nueva.setVersion(actual != null ? actual.getVersion() : 0);
+            try {
+                guardar(nueva);
+                sembradas.add(secuencia);
+                return techo + 1;
+            } catch (ConflictoDeVersionException e) {
+                //otro hilo reservo un bloque en el medio: se relee el techo
+            }
+        }
+    }
+
+    @Override
+    public long getTecho(Secuencia secuencia) {
+        SecuenciaEntity entity = (SecuenciaEntity) obtener(secuencia.getId());
+        return entity != null ? entity.getTecho() : BASE;
+    }
+
+    @Override
+    public void vaciar() {
+        super.vaciar();
+        sembradas.clear();
+    }
+}
@@ -0,0 +1,452 @@
+package ar.edu.utn.frbb.tup.persistence.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+//journal de solo escritura al final con cada guardado de las tablas en memoria.
+//registro: [longitud int][crc32 int][tabla: longitud short + bytes][id long][entidad codificada].
+//un grupo de filas que se tiene que aplicar entero (las patas de un asiento) va en un solo registro con la
+//longitud de la tabla negada: [-longitud short + bytes][cantidad int] y por fila [id long][longitud int][entidad]
+//un hilo escritor agrupa los registros pendientes y hace un solo fsync por lote (group commit).
+//se escribe en segmentos journal-N.log; al tomar un snapshot se pasa al siguiente segmento
+//y los anteriores se pueden borrar. si un lote falla se trunca el segmento al final del lote anterior;
+//si ni eso se puede, el journal queda detenido y rechaza las escrituras siguientes
+@Component
+public class Journal {
+    private static final String PREFIJO = "journal-";
+    private static final String SUFIJO = ".log";
+    private static final int CABECERA = 8;
+    private static final int MAX_LOTE = 4096;
+    private static final int MAX_REGISTRO = 16 * 1024 * 1024;
+
+    private final boolean habilitado;
+    private final Path directorio;
+    private final boolean fsync;
+    private final Map<String, Restaurador> tablas = new ConcurrentHashMap<>();
+    private final BlockingQueue<Escritura> pendientes = new LinkedBlockingQueue<>();
+    //las escrituras toman el lock de lectura; la rotacion el de escritura, asi ninguna queda a medias
+    private final ReentrantReadWriteLock lockEscrituras = new ReentrantReadWriteLock();
+    private FileChannel canal;
+    private long segmento;
+    private Thread escritor;
+    private volatile boolean activo;
+    private volatile IOException falla;
+
+    @Autowired
+    public Journal(@Value("${tup.journal.enabled:false}") boolean habilitado,
+                   @Value("${tup.journal.directorio:data}") String directorio,
+                   @Value("${tup.journal.fsync:true}") boolean fsync) {
+        this.habilitado = habilitado;
+        this.directorio = Paths.get(directorio);
+        this.fsync = fsync;
+    }
+
+    //interfaz que cada dao registra para reconstruir su tabla al arrancar
+    public interface Restaurador {
+        void restaurar(long id, ByteBuffer datos);
+    }
+
+    public static final class Escritura {
+        private final byte[] registro;
+        private final CompletableFuture<Long> confirmada = new CompletableFuture<>();
+
+        private Escritura(byte[] registro) {
+            this.registro = registro;
+        }
+
+        private boolean esRotacion() {
+            return registro == null;
+        }
+    }
+
+    public void registrarTabla(String tabla, Restaurador restaurador) {
+        tablas.put(tabla, restaurador);
+    }
+
+    public Restaurador getRestaurador(String tabla) {
+        return tablas.get(tabla);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    public Lock lockEscrituras() {
+        return lockEscrituras.readLock();
+    }
+
+    public synchronized long abrir() {
+        return abrir(0);
+    }
+
+    //reproduce los segmentos desde el indicado y deja el ultimo abierto para seguir escribiendo
+    public synchronized long abrir(long desdeSegmento) {
+        if (activo) {
+            return 0;
+        }
+        try {
+            Files.createDirectories(directorio);
+            long registros = 0;
+            segmento = desdeSegmento;
+            for (long numero : listarSegmentos()) {
+                if (numero >= desdeSegmento) {
+                    registros += recuperar(archivo(numero));
+                    segmento = numero;
+                }
+            }
+            canal = abrirSegmento(segmento);
+            activo = true;
+            escritor = new Thread(this::escribirLotes, "journal-escritor");
+            escritor.setDaemon(true);
+            escritor.start();
+            return registros;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el journal en " + directorio, e);
+        }
+    }
+
+    //encola el registro; el llamador debe invocarlo en el mismo orden en que modifica la tabla
+    public Escritura registrar(String tabla, long id, byte[] entidad) {
+        byte[] nombre = tabla.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = cabecera(2 + nombre.length + 8 + entidad.length);
+        registro.putShort((short) nombre.length);
+        registro.put(nombre);
+        registro.putLong(id);
+        registro.put(entidad);
+        return encolar(registro);
+    }
+
+    //varias filas de la misma tabla en un solo registro: al recuperar se aplican todas o ninguna
+    public Escritura registrar(String tabla, long[] ids, List<byte[]> entidades) {
+        byte[] nombre = tabla.getBytes(StandardCharsets.UTF_8);
+        long longitud = 2 + nombre.length + 4;
+        for (byte[] entidad : entidades) {
+            longitud += 8 + 4 + entidad.length;
+        }
+        if (longitud > MAX_REGISTRO) {
+            throw new IllegalArgumentException("El grupo de " + ids.length + " filas de " + tabla + " no entra en un registro del journal.");
+        }
+        ByteBuffer registro = cabecera((int) longitud);
+        registro.putShort((short) -nombre.length);
+        registro.put(nombre);
+        registro.putInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            registro.putLong(ids[i]);
+            registro.putInt(entidades.get(i).length);
+            registro.put(entidades.get(i));
+        }
+        return encolar(registro);
+    }
+
+    private static ByteBuffer cabecera(int longitud) {
+        ByteBuffer registro = ByteBuffer.allocate(CABECERA + longitud);
+        registro.putInt(longitud);
+        registro.putInt(0);
+        return registro;
+    }
+
+    private Escritura encolar(ByteBuffer registro) {
+        CRC32 crc = new CRC32();
+        crc.update(registro.array(), CABECERA, registro.capacity() - CABECERA);
+        registro.putInt(4, (int) crc.getValue());
+
+        Escritura escritura = new Escritura(registro.array());
+        if (!activo) {
+            throw new IllegalStateException("El journal no esta abierto.");
+        }
+        if (falla != null) {
+            throw new UncheckedIOException("El journal esta detenido por un error de escritura.", falla);
+        }
+        pendientes.add(escritura);
+        return escritura;
+    }
+
+    //espera a que el lote que contiene la escritura quede en disco
+    public void esperar(Escritura escritura) {
+        if (fsync) {
+            escritura.confirmada.join();
+        }
+    }
+
+    //cierra el segmento actual y devuelve el numero del nuevo; todo lo guardado antes de la rotacion
+    //ya esta en las tablas y en los segmentos anteriores
+    public long rotar() {
+        if (!activo) {
+            throw new IllegalStateException("El journal no esta abierto.");
+        }
+        Escritura rotacion = new Escritura(null);
+        lockEscrituras.writeLock().lock();
+        try {
+            pendientes.add(rotacion);
+        } finally {
+            lockEscrituras.writeLock().unlock();
+        }
+        return rotacion.confirmada.join();
+    }
+
+    public void borrarSegmentosAnteriores(long numero) throws IOException {
+        for (long anterior : listarSegmentos()) {
+            if (anterior < numero) {
+                Files.deleteIfExists(archivo(anterior));
+            }
+        }
+    }
+
+    private void escribirLotes() {
+        List<Escritura> lote = new ArrayList<>(MAX_LOTE);
+        while (activo || !pendientes.isEmpty()) {
+            try {
+                Escritura primera = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                pendientes.drainTo(lote, MAX_LOTE - 1);
+                int desde = 0;
+                for (int i = 0; i < lote.size(); i++) {
+                    if (lote.get(i).esRotacion()) {
+                        escribir(lote.subList(desde, i));
+                        siguienteSegmento(lote.get(i));
+                        desde = i + 1;
+                    }
+                }
+                escribir(lote.subList(desde, lote.size()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void escribir(List<Escritura> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        if (falla != null) {
+            rechazar(lote, falla);
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[lote.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(lote.get(i).registro);
+            total += buffers[i].remaining();
+        }
+        long inicio = -1;
+        try {
+            inicio = canal.position();
+            while (total > 0) {
+                total -= canal.write(buffers);
+            }
+            if (fsync) {
+                canal.force(false);
+            }
+            for (Escritura escritura : lote) {
+                escritura.confirmada.complete(segmento);
+            }
+        } catch (IOException e) {
+            //un lote a medias en el segmento cortaria la recuperacion ahi y perderia los lotes siguientes
+            descartarDesde(inicio, e);
+            rechazar(lote, e);
+        }
+    }
+
+    private void descartarDesde(long inicio, IOException error) {
+        if (inicio >= 0) {
+            try {
+                canal.truncate(inicio);
+                canal.position(inicio);
+                return;
+            } catch (IOException e) {
+                error.addSuppressed(e);
+            }
+        }
+        falla = error;
+    }
+
+    private static void rechazar(Iterable<Escritura> escrituras, IOException error) {
+        for (Escritura escritura : escrituras) {
+            escritura.confirmada.completeExceptionally(new UncheckedIOException("Error al escribir el journal.", error));
+        }
+    }
+
+    private void siguienteSegmento(Escritura rotacion) {
+        try {
+            canal.force(true);
+            canal.close();
+            segmento++;
+            canal = abrirSegmento(segmento);
+            rotacion.confirmada.complete(segmento);
+        } catch (IOException e) {
+            rotacion.confirmada.completeExceptionally(new UncheckedIOException("Error al rotar el journal.", e));
+        }
+    }
+
+    private FileChannel abrirSegmento(long numero) throws IOException {
+        FileChannel nuevo = FileChannel.open(archivo(numero), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        nuevo.position(nuevo.size());
+        return nuevo;
+    }
+
+    private Path archivo(long numero) {
+        return directorio.resolve(String.format("%s%010d%s", PREFIJO, numero, SUFIJO));
+    }
+
+    private List<Long> listarSegmentos() throws IOException {
+        List<Long> segmentos = new ArrayList<>();
+        if (!Files.isDirectory(directorio)) {
+            return segmentos;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*" + SUFIJO)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                segmentos.add(Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - SUFIJO.length())));
+            }
+        }
+        Collections.sort(segmentos);
+        return segmentos;
+    }
+
+    //relee un segmento y aplica cada registro a su tabla; una cola incompleta o corrupta se descarta
+    private long recuperar(Path archivo) throws IOException {
+        long registros = 0;
+        long posicionValida = 0;
+        try (FileChannel lectura = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            CRC32 crc = new CRC32();
+            boolean finArchivo = false;
+            boolean corrupto = false;
+            while (!finArchivo && !corrupto) {
+                finArchivo = lectura.read(buffer) < 0;
+                buffer.flip();
+                while (buffer.remaining() >= CABECERA) {
+                    int inicio = buffer.position();
+                    int longitud = buffer.getInt(inicio);
+                    if (longitud <= 0 || longitud > MAX_REGISTRO) {
+                        corrupto = true;
+                        break;
+                    }
+                    if (buffer.remaining() < CABECERA + longitud) {
+                        if (CABECERA + longitud > buffer.capacity()) {
+                            buffer = agrandar(buffer, CABECERA + longitud);
+                        }
+                        break;
+                    }
+                    ByteBuffer cuerpo = buffer.duplicate();
+                    cuerpo.position(inicio + CABECERA).limit(inicio + CABECERA + longitud);
+                    crc.reset();
+                    crc.update(cuerpo.duplicate());
+                    if ((int) crc.getValue() != buffer.getInt(inicio + 4)) {
+                        corrupto = true;
+                        break;
+                    }
+                    aplicar(cuerpo);
+                    buffer.position(inicio + CABECERA + longitud);
+                    posicionValida += CABECERA + longitud;
+                    registros++;
+                }
+                buffer.compact();
+            }
+        }
+        if (posicionValida < Files.size(archivo)) {
+            try (FileChannel truncar = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                truncar.truncate(posicionValida);
+            }
+        }
+        return registros;
+    }
+
+    private void aplicar(ByteBuffer cuerpo) {
+        short largoNombre = cuerpo.getShort();
+        byte[] nombre = new byte[Math.abs(largoNombre)];
+        cuerpo.get(nombre);
+        String tabla = new String(nombre, StandardCharsets.UTF_8);
+        Restaurador restaurador = tablas.get(tabla);
+        if (restaurador == null) {
+            throw new IllegalStateException("El journal contiene la tabla desconocida " + tabla);
+        }
+        if (largoNombre >= 0) {
+            restaurador.restaurar(cuerpo.getLong(), cuerpo.slice());
+            return;
+        }
+        int cantidad = cuerpo.getInt();
+        for (int i = 0; i < cantidad; i++) {
+            long id = cuerpo.getLong();
+            int longitud = cuerpo.getInt();
+            ByteBuffer entidad = cuerpo.slice();
+            entidad.limit(longitud);
+            restaurador.restaurar(id, entidad);
+            cuerpo.position(cuerpo.position() + longitud);
+        }
+    }
+
+    private static ByteBuffer agrandar(ByteBuffer buffer, int minimo) {
+        ByteBuffer nuevo = ByteBuffer.allocate(Math.max(minimo, buffer.capacity() * 2));
+        nuevo.put(buffer);
+        nuevo.flip();
+        return nuevo;
+    }
+
+    @PreDestroy
+    public synchronized void cerrar() {
+        if (!activo) {
+            return;
+        }
+        //con el lock de escritura ningun guardado queda entre el chequeo de activo y el encolado
+        lockEscrituras.writeLock().lock();
+        try {
+            activo = false;
+        } finally {
+            lockEscrituras.writeLock().unlock();
+        }
+        try {
+            escritor.join();
+            canal.force(true);
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al cerrar el journal.", e);
+        } finally {
+            //lo que se encolo sin el lock o quedo si el escritor se interrumpio no espera para siempre
+            List<Escritura> restantes = new ArrayList<>();
+            pendientes.drainTo(restantes);
+            rechazar(restantes, new IOException("El journal se cerro antes de escribir el registro."));
+        }
+    }
+}
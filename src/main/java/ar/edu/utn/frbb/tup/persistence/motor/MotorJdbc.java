@@ -0,0 +1,46 @@
+package ar.edu.utn.frbb.tup.persistence.motor;
+
+import ar.edu.utn.frbb.tup.persistence.MotorAlmacenamiento;
+import ar.edu.utn.frbb.tup.persistence.collection.Tabla;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+//motor sobre una base sql embebida (h2 en archivo, dentro del proceso) con un pool de conexiones.
+//cada tabla de un dao es una tabla sql con la fila codificada con el mismo codec del journal
+public class MotorJdbc implements MotorAlmacenamiento {
+    private final HikariDataSource dataSource;
+
+    public MotorJdbc(String url, int conexiones) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(conexiones);
+        config.setPoolName("tup-persistencia");
+        this.dataSource = new HikariDataSource(config);
+    }
+
+    @Override
+    public Tabla<Object> abrirTabla(String nombre, boolean offHeap) {
+        return new TablaJdbc(dataSource, nombre);
+    }
+
+    @Override
+    public boolean guardaCodificado() {
+        return true;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    @Override
+    public void cerrar() {
+        dataSource.close();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+}
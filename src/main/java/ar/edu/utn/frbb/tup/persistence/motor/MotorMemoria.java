@@ -0,0 +1,24 @@
+package ar.edu.utn.frbb.tup.persistence.motor;
+
+import ar.edu.utn.frbb.tup.persistence.MotorAlmacenamiento;
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.collection.OffHeapTabla;
+import ar.edu.utn.frbb.tup.persistence.collection.Tabla;
+
+//motor por defecto: tablas en el heap (o fuera de el) que se recuperan con el journal y los snapshots
+public class MotorMemoria implements MotorAlmacenamiento {
+    @Override
+    public Tabla<Object> abrirTabla(String nombre, boolean offHeap) {
+        return offHeap ? new OffHeapTabla() : new ConcurrentLongObjectMap<>();
+    }
+
+    @Override
+    public boolean guardaCodificado() {
+        return false;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
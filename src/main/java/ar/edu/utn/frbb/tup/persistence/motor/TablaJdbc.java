@@ -0,0 +1,202 @@
+package ar.edu.utn.frbb.tup.persistence.motor;
+
+import ar.edu.utn.frbb.tup.persistence.collection.LongObjectHashMap;
+import ar.edu.utn.frbb.tup.persistence.collection.Tabla;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+//tabla id -> registro codificado en una tabla sql (id BIGINT PRIMARY KEY, datos VARBINARY).
+//las escrituras de una clave se serializan con locks por franja dentro del proceso: la base es embebida y
+//nadie mas la escribe, asi que compute lee, aplica la funcion y escribe sin SELECT FOR UPDATE.
+//getAll y putAll van por lotes: una consulta con ANY(?) cada LOTE ids y un executeBatch en una sola transaccion
+public class TablaJdbc implements Tabla<Object> {
+    private static final int FRANJAS = 64;
+    private static final int LOTE = 512;
+
+    private final DataSource dataSource;
+    private final String nombre;
+    private final Object[] franjas = new Object[FRANJAS];
+    private final String obtener;
+    private final String obtenerVarios;
+    private final String guardar;
+    private final String borrar;
+    private final String recorrer;
+    private final String contar;
+    private final String vaciar;
+
+    public TablaJdbc(DataSource dataSource, String nombre) {
+        //el nombre va dentro del sql: solo se aceptan los nombres de tabla de los daos
+        if (!nombre.matches("[A-Z][A-Z0-9_]*")) {
+            throw new IllegalArgumentException("Nombre de tabla no valido: " + nombre);
+        }
+        this.dataSource = dataSource;
+        this.nombre = nombre;
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Object();
+        }
+        obtener = "SELECT datos FROM " + nombre + " WHERE id = ?";
+        obtenerVarios = "SELECT id, datos FROM " + nombre + " WHERE id = ANY(?)";
+        guardar = "MERGE INTO " + nombre + " (id, datos) KEY (id) VALUES (?, ?)";
+        borrar = "DELETE FROM " + nombre + " WHERE id = ?";
+        recorrer = "SELECT id, datos FROM " + nombre;
+        contar = "SELECT COUNT(*) FROM " + nombre;
+        vaciar = "DELETE FROM " + nombre;
+        try (Connection conexion = dataSource.getConnection();
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("CREATE TABLE IF NOT EXISTS " + nombre + " (id BIGINT PRIMARY KEY, datos VARBINARY NOT NULL)");
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    private Object franja(long clave) {
+        return franjas[(int) ((clave * 0x9E3779B97F4A7C15L) >>> 58)];
+    }
+
+    @Override
+    public Object get(long clave) {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(obtener)) {
+            sentencia.setLong(1, clave);
+            try (ResultSet filas = sentencia.executeQuery()) {
+                return filas.next() ? filas.getBytes(1) : null;
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    //la funcion recibe el registro actual (o null) y debe devolver el nuevo como byte[]; si devuelve el mismo
+    //registro que recibio (un conflicto de version) no se escribe nada
+    @Override
+    public Object compute(long clave, Function<? super Object, ? extends Object> funcion) {
+        synchronized (franja(clave)) {
+            Object actual = get(clave);
+            Object nuevo = funcion.apply(actual);
+            if (nuevo == actual) {
+                return actual;
+            }
+            try (Connection conexion = dataSource.getConnection();
+                 PreparedStatement sentencia = conexion.prepareStatement(nuevo == null ? borrar : guardar)) {
+                sentencia.setLong(1, clave);
+                if (nuevo != null) {
+                    sentencia.setBytes(2, (byte[]) nuevo);
+                }
+                sentencia.executeUpdate();
+            } catch (SQLException e) {
+                throw error(e);
+            }
+            return nuevo;
+        }
+    }
+
+    @Override
+    public List<Object> getAll(long[] claves) {
+        LongObjectHashMap<byte[]> encontradas = new LongObjectHashMap<>(claves.length);
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(obtenerVarios)) {
+            for (int desde = 0; desde < claves.length; desde += LOTE) {
+                Long[] lote = new Long[Math.min(LOTE, claves.length - desde)];
+                for (int i = 0; i < lote.length; i++) {
+                    lote[i] = claves[desde + i];
+                }
+                sentencia.setObject(1, lote);
+                try (ResultSet filas = sentencia.executeQuery()) {
+                    while (filas.next()) {
+                        encontradas.put(filas.getLong(1), filas.getBytes(2));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+        List<Object> valores = new ArrayList<>(claves.length);
+        for (long clave : claves) {
+            valores.add(encontradas.get(clave));
+        }
+        return valores;
+    }
+
+    //sin los locks por franja: solo lo usan las tablas donde la ultima escritura gana
+    @Override
+    public void putAll(long[] claves, List<? extends Object> valores) {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (PreparedStatement sentencia = conexion.prepareStatement(guardar)) {
+                for (int i = 0; i < claves.length; i++) {
+                    sentencia.setLong(1, claves[i]);
+                    sentencia.setBytes(2, (byte[]) valores.get(i));
+                    sentencia.addBatch();
+                    if ((i + 1) % LOTE == 0) {
+                        sentencia.executeBatch();
+                    }
+                }
+                sentencia.executeBatch();
+                conexion.commit();
+            } catch (SQLException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override
+    public List<Object> values() {
+        List<Object> valores = new ArrayList<>();
+        forEach((id, fila) -> valores.add(fila));
+        return valores;
+    }
+
+    @Override
+    public <E extends Exception> void forEach(LongObjectHashMap.Visitante<? super Object, E> visitante) throws E {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(recorrer)) {
+            sentencia.setFetchSize(LOTE);
+            try (ResultSet filas = sentencia.executeQuery()) {
+                while (filas.next()) {
+                    visitante.visitar(filas.getLong(1), filas.getBytes(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override
+    public int size() {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(contar);
+             ResultSet filas = sentencia.executeQuery()) {
+            filas.next();
+            return filas.getInt(1);
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(vaciar)) {
+            sentencia.executeUpdate();
+        } catch (SQLException e) {
+            throw error(e);
+        }
+    }
+
+    private IllegalStateException error(SQLException e) {
+        return new IllegalStateException("Error en la tabla " + nombre + ": " + e.getMessage(), e);
+    }
+}
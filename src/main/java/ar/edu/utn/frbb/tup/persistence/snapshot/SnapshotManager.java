@@ -0,0 +1,332 @@
+package ar.edu.utn.frbb.tup.persistence.snapshot;
+
+import ar.edu.utn.frbb.tup.persistence.AbstractBaseDao;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+//snapshots de las tablas en memoria para no reproducir todo el journal al arrancar.
+//archivo: [magia int][version short][segmento long][tablas int] y por cada seccion
+//[nombre: longitud short + bytes][registros long][bytes long][crc32 int] seguida de los registros [id long][longitud int][entidad codificada].
+//el snapshot es difuso: se rota el journal, se recorren las tablas mientras siguen las escrituras y al cargarlo
+//se reproducen los segmentos desde la rotacion; como cada registro trae la entidad completa el resultado es el mismo
+@Component
+public class SnapshotManager implements SmartInitializingSingleton {
+    private static final int MAGIA = 0x54555053;
+    private static final short VERSION = 1;
+    private static final String PREFIJO = "snapshot-";
+    private static final String SUFIJO = ".snap";
+    private static final String TEMPORAL = ".tmp";
+    //cada seccion se mapea entera, asi que una tabla grande se parte en varias secciones
+    private static final long MAX_SECCION = 1L << 30;
+    //se conservan dos snapshots por si el ultimo no se puede leer
+    private static final int SNAPSHOTS_CONSERVADOS = 2;
+
+    private final Journal journal;
+    private final List<AbstractBaseDao> daos;
+    private final boolean habilitado;
+
+    @Autowired
+    public SnapshotManager(Journal journal, List<AbstractBaseDao> daos,
+                           @Value("${tup.snapshot.enabled:false}") boolean habilitado) {
+        this.journal = journal;
+        this.daos = daos;
+        this.habilitado = habilitado;
+    }
+
+    //al arrancar: carga el ultimo snapshot valido y reproduce el journal desde su segmento
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!journal.isHabilitado()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            long desde = 0;
+            long cargados = 0;
+            borrarTemporales();
+            List<Path> snapshots = listarSnapshots();
+            Collections.reverse(snapshots);
+            vaciarTablas();
+            for (Path snapshot : snapshots) {
+                try {
+                    cargados = cargar(snapshot);
+                    desde = segmento(snapshot);
+                    break;
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Se descarta el snapshot " + snapshot.getFileName() + ": " + e.getMessage());
+                    vaciarTablas();
+                }
+            }
+            long reproducidos = journal.abrir(desde);
+            System.out.println("Datos recuperados: " + cargados + " registros del snapshot y " + reproducidos
+                    + " del journal en " + (System.nanoTime() - inicio) / 1_000_000 + " ms.");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron recuperar los datos de " + journal.getDirectorio(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tup.snapshot.intervalo-ms:900000}",
+            fixedDelayString = "${tup.snapshot.intervalo-ms:900000}")
+    public void tomarSnapshotPeriodico() {
+        if (!habilitado || !journal.isActivo()) {
+            return;
+        }
+        try {
+            tomarSnapshot();
+        } catch (IOException e) {
+            System.out.println("No se pudo tomar el snapshot: " + e.getMessage());
+        }
+    }
+
+    public synchronized Path tomarSnapshot() throws IOException {
+        long segmento = journal.rotar();
+        Path archivo = journal.getDirectorio().resolve(String.format("%s%010d%s", PREFIJO, segmento, SUFIJO));
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + TEMPORAL);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Salida salida = new Salida(canal);
+            salida.iniciar(segmento);
+            for (AbstractBaseDao dao : daos) {
+                String tabla = dao.getNombreTabla();
+                salida.abrirSeccion(tabla);
+                dao.exportar((id, datos) -> {
+                    if (salida.bytesSeccion + 12 + datos.length > MAX_SECCION) {
+                        salida.cerrarSeccion();
+                        salida.abrirSeccion(tabla);
+                    }
+                    salida.registro(id, datos);
+                });
+                salida.cerrarSeccion();
+            }
+            salida.terminar();
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        borrarAnteriores();
+        return archivo;
+    }
+
+    //mapea cada seccion del archivo y restaura sus registros directamente desde el mapeo
+    private long cargar(Path archivo) throws IOException {
+        long registros = 0;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = leer(canal, 0, 18);
+            if (cabecera.getInt() != MAGIA || cabecera.getShort() != VERSION) {
+                throw new IOException("formato desconocido");
+            }
+            cabecera.getLong();
+            int secciones = cabecera.getInt();
+            long posicion = 18;
+            Map<String, AbstractBaseDao> porNombre = new HashMap<>();
+            for (AbstractBaseDao dao : daos) {
+                porNombre.put(dao.getNombreTabla(), dao);
+            }
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < secciones; i++) {
+                short longitudNombre = leer(canal, posicion, 2).getShort();
+                ByteBuffer encabezado = leer(canal, posicion + 2, longitudNombre + 20);
+                byte[] nombre = new byte[longitudNombre];
+                encabezado.get(nombre);
+                long cantidad = encabezado.getLong();
+                long bytes = encabezado.getLong();
+                int esperado = encabezado.getInt();
+                posicion += 2 + longitudNombre + 20;
+                if (posicion + bytes > canal.size()) {
+                    throw new IOException("archivo incompleto");
+                }
+                AbstractBaseDao dao = porNombre.get(new String(nombre, StandardCharsets.UTF_8));
+                if (dao == null) {
+                    throw new IOException("tabla desconocida " + new String(nombre, StandardCharsets.UTF_8));
+                }
+                MappedByteBuffer seccion = canal.map(FileChannel.MapMode.READ_ONLY, posicion, bytes);
+                crc.reset();
+                crc.update(seccion.duplicate());
+                if ((int) crc.getValue() != esperado) {
+                    throw new IOException("crc invalido en " + dao.getNombreTabla());
+                }
+                for (long r = 0; r < cantidad; r++) {
+                    long id = seccion.getLong();
+                    int longitud = seccion.getInt();
+                    ByteBuffer datos = seccion.slice();
+                    datos.limit(longitud);
+                    dao.restaurar(id, datos);
+                    seccion.position(seccion.position() + longitud);
+                }
+                registros += cantidad;
+                posicion += bytes;
+            }
+        }
+        return registros;
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, int longitud) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(longitud);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("archivo incompleto");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void vaciarTablas() {
+        for (AbstractBaseDao dao : daos) {
+            dao.vaciar();
+        }
+    }
+
+    //deja los ultimos snapshots y los segmentos del journal que hacen falta para el mas viejo de ellos
+    private void borrarAnteriores() throws IOException {
+        List<Path> snapshots = listarSnapshots();
+        int sobrantes = snapshots.size() - SNAPSHOTS_CONSERVADOS;
+        for (int i = 0; i < sobrantes; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        if (sobrantes >= 0) {
+            journal.borrarSegmentosAnteriores(segmento(snapshots.get(sobrantes)));
+        }
+    }
+
+    //un snapshot que quedo a medio escribir nunca llego a renombrarse
+    private void borrarTemporales() throws IOException {
+        if (!Files.isDirectory(journal.getDirectorio())) {
+            return;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(journal.getDirectorio(), PREFIJO + "*" + TEMPORAL)) {
+            for (Path archivo : archivos) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+
+    private List<Path> listarSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(journal.getDirectorio())) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(journal.getDirectorio(), PREFIJO + "*" + SUFIJO)) {
+            for (Path archivo : archivos) {
+                snapshots.add(archivo);
+            }
+        }
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private static long segmento(Path snapshot) {
+        String nombre = snapshot.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - SUFIJO.length()));
+    }
+
+    //escribe el archivo por bloques y completa el encabezado de cada seccion al cerrarla
+    private static final class Salida {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private final CRC32 crc = new CRC32();
+        private long posicion;
+        private int secciones;
+        private long inicioSeccion;
+        private long registrosSeccion;
+        private long bytesSeccion;
+        private boolean enSeccion;
+
+        private Salida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        private void iniciar(long segmento) throws IOException {
+            buffer.putInt(MAGIA).putShort(VERSION).putLong(segmento).putInt(0);
+            vaciar();
+        }
+
+        private void abrirSeccion(String tabla) throws IOException {
+            byte[] nombre = tabla.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) nombre.length).put(nombre);
+            inicioSeccion = posicion + buffer.position();
+            buffer.putLong(0).putLong(0).putInt(0);
+            vaciar();
+            crc.reset();
+            registrosSeccion = 0;
+            bytesSeccion = 0;
+            enSeccion = true;
+        }
+
+        private void registro(long id, byte[] datos) throws IOException {
+            if (buffer.remaining() < 12) {
+                vaciar();
+            }
+            buffer.putLong(id).putInt(datos.length);
+            int escritos = 0;
+            while (escritos < datos.length) {
+                if (!buffer.hasRemaining()) {
+                    vaciar();
+                }
+                int cantidad = Math.min(buffer.remaining(), datos.length - escritos);
+                buffer.put(datos, escritos, cantidad);
+                escritos += cantidad;
+            }
+            registrosSeccion++;
+            bytesSeccion += 12 + datos.length;
+        }
+
+        private void cerrarSeccion() throws IOException {
+            vaciar();
+            enSeccion = false;
+            ByteBuffer encabezado = ByteBuffer.allocate(20);
+            encabezado.putLong(registrosSeccion).putLong(bytesSeccion).putInt((int) crc.getValue());
+            encabezado.flip();
+            escribir(encabezado, inicioSeccion);
+            secciones++;
+        }
+
+        private void terminar() throws IOException {
+            vaciar();
+            ByteBuffer cantidad = ByteBuffer.allocate(4);
+            cantidad.putInt(secciones);
+            cantidad.flip();
+            escribir(cantidad, 14);
+        }
+
+        //solo el contenido de los registros entra en el crc de la seccion
+        private void vaciar() throws IOException {
+            buffer.flip();
+            if (enSeccion) {
+                crc.update(buffer.duplicate());
+            }
+            posicion += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void escribir(ByteBuffer datos, long desde) throws IOException {
+            while (datos.hasRemaining()) {
+                canal.write(datos, desde + datos.position());
+            }
+        }
+    }
+}
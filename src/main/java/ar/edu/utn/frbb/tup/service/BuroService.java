@@ -0,0 +1,9 @@
+package ar.edu.utn.frbb.tup.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface BuroService {
+    boolean isHabilitado();
+    CompletableFuture<List<Integer>> consultarScores(long dni);
+}
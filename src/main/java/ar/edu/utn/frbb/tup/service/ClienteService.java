@@ -8,6 +8,7 @@ import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteAlreadyExistsException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoCuentaYaExisteException;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
 
 import java.util.List;
 
@@ -16,6 +17,7 @@ public interface ClienteService {
     void agregarCuenta(Cuenta cuenta, long dniTitular) throws TipoCuentaYaExisteException, ClientNoExisteException;
     void agregarPrestamo(Prestamo prestamo, Long dniTitular) throws ClientNoExisteException;
     Cliente buscarClientePorDni(Long dni) throws ClientNoExisteException;
+    Cliente buscarClientePorDni(Long dni, PlanCarga plan) throws ClientNoExisteException;
     List<Cliente> buscarClientes() throws ClientNoExisteException;
     Cliente desactivarCliente(Long dni) throws ClientNoExisteException;
 
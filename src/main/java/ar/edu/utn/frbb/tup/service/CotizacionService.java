@@ -0,0 +1,11 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.model.EstadisticasCache;
+import ar.edu.utn.frbb.tup.model.amortizacion.Cotizacion;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+
+public interface CotizacionService {
+    Cotizacion cotizar(double montoSolicitado, int plazoMeses, double tasaInteres, TipoMoneda moneda, MetodoAmortizacion metodo);
+    EstadisticasCache getEstadisticas();
+}
@@ -1,12 +1,13 @@
 package ar.edu.utn.frbb.tup.service;
 
 import ar.edu.utn.frbb.tup.model.Cliente;
-import ar.edu.utn.frbb.tup.model.Prestamo;
-import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
 
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface CreditScoreService {
-    int calcularScore(Set<Prestamo> prestamo);
-    void validarScore(Cliente cliente) throws CreditScoreException;
+    int calcularScore(PerfilCrediticio perfil);
+    int obtenerScore(Cliente cliente);
+    CompletableFuture<Integer> obtenerScoreAsync(Cliente cliente);
+    CompletableFuture<Integer> validarScoreAsync(Cliente cliente);
 }
@@ -2,10 +2,12 @@ package ar.edu.utn.frbb.tup.service;
 
 import ar.edu.utn.frbb.tup.controller.dto.CuentaDto;
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Movimiento;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface CuentaService {
@@ -13,6 +15,9 @@ public interface CuentaService {
     Cuenta buscarCuentaPorId(long id) throws CuentaNoExisteException;
     List<Cuenta> buscarCuentaPorCliente(long dni) throws ClientNoExisteException, CuentaNoExisteException;
     List<Cuenta> buscarCuentas() throws CuentaNoExisteException;
-    void actualizarBalance(Prestamo prestamo) throws CuentaNoExisteException;
+    Movimiento actualizarBalance(Prestamo prestamo) throws CuentaNoExisteException;
+    Movimiento debitarCuota(Prestamo prestamo, double montoCuota) throws CuentaNoExisteException;
+    void anularMovimiento(Movimiento movimiento) throws CuentaNoExisteException;
+    List<Movimiento> buscarMovimientos(long id, LocalDate desde, LocalDate hasta) throws CuentaNoExisteException;
     Cuenta desactivarCuenta(long id) throws CuentaNoExisteException;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+
+public interface PerfilCrediticioService {
+    PerfilCrediticio obtenerPerfil(long dni);
+    void cargarPerfil(long dni);
+    void registrarAlta(Prestamo prestamo);
+    void registrarCambio(PerfilCrediticio anterior, Prestamo prestamo);
+}
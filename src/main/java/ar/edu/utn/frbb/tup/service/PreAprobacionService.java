@@ -0,0 +1,14 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.model.ResultadoPreAprobacion;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.PreAprobacionNoExisteException;
+
+public interface PreAprobacionService {
+    ResultadoPreAprobacion ejecutar();
+    ResultadoPreAprobacion getUltimoResultado();
+    PreAprobacion buscarPreAprobacion(long dni) throws PreAprobacionNoExisteException;
+    PreAprobacion consumir(long dni, double monto);
+    void devolver(PreAprobacion consumida, double monto);
+    void anular(long dni);
+}
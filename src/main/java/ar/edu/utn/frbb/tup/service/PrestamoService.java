@@ -10,12 +10,14 @@ import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface PrestamoService {
-    PrestamoDetalle darAltaPrestamo(PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException, CreditScoreException, PrestamoNoExisteException, CampoIncorrecto;
+    CompletableFuture<PrestamoDetalle> darAltaPrestamo(PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException, CreditScoreException, PrestamoNoExisteException, CampoIncorrecto;
     List<Prestamo> buscarPrestamos() throws PrestamoNoExisteException;
     Prestamo buscarPrestamoPorId(long id) throws PrestamoNoExisteException;
     PrestamoRespuesta pagarCuota(PrestamoDto prestamoDto, long id) throws CuentaNoExisteException, PrestamoNoExisteException, ClientNoExisteException;
     PrestamoRespuesta prestamosPorCliente(long numeroCliente) throws ClientNoExisteException, PrestamoNoExisteException;
     Prestamo cerrarPrestamo(long id) throws PrestamoNoExisteException, CampoIncorrecto;
+    List<Simulacion> simularPrestamos(List<PrestamoDto> escenarios);
 }
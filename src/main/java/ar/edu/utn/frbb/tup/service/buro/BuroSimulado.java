@@ -0,0 +1,34 @@
+package ar.edu.utn.frbb.tup.service.buro;
+
+//buro en proceso para pruebas de carga: tarda latenciaMs en responder y devuelve
+//siempre el mismo puntaje para el mismo dni
+public class BuroSimulado implements ProveedorScore {
+    private static final int SCORE_MINIMO = 550;
+    private static final int RANGO_SCORE = 300;
+
+    private final String nombre;
+    private final long latenciaMs;
+
+    public BuroSimulado(String nombre, long latenciaMs) {
+        this.nombre = nombre;
+        this.latenciaMs = latenciaMs;
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public int consultarScore(long dni) {
+        if (latenciaMs > 0) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Consulta al buro " + nombre + " interrumpida.", e);
+            }
+        }
+        return SCORE_MINIMO + Math.floorMod(Long.hashCode(dni * 31 + nombre.hashCode()), RANGO_SCORE);
+    }
+}
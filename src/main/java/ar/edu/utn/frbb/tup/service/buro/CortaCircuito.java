@@ -0,0 +1,44 @@
+package ar.edu.utn.frbb.tup.service.buro;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//despues de fallosParaAbrir fallas seguidas deja de consultar al proveedor durante esperaMs.
+//pasada la espera deja pasar una sola consulta de prueba: si responde se cierra, si falla vuelve a abrirse
+public class CortaCircuito {
+    private final int fallosParaAbrir;
+    private final long esperaMs;
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    //0 = cerrado; si no, momento (ms) desde el que se permite la consulta de prueba
+    private final AtomicLong abiertoHasta = new AtomicLong();
+
+    public CortaCircuito(int fallosParaAbrir, long esperaMs) {
+        this.fallosParaAbrir = fallosParaAbrir;
+        this.esperaMs = esperaMs;
+    }
+
+    public boolean permitir() {
+        long hasta = abiertoHasta.get();
+        if (hasta == 0) {
+            return true;
+        }
+        long ahora = System.currentTimeMillis();
+        //solo el hilo que gana el CAS hace la consulta de prueba; el resto sigue rechazado
+        return ahora >= hasta && abiertoHasta.compareAndSet(hasta, ahora + esperaMs);
+    }
+
+    public void registrarExito() {
+        fallosSeguidos.set(0);
+        abiertoHasta.set(0);
+    }
+
+    public void registrarFallo() {
+        if (fallosSeguidos.incrementAndGet() >= fallosParaAbrir) {
+            abiertoHasta.set(System.currentTimeMillis() + esperaMs);
+        }
+    }
+
+    public boolean isAbierto() {
+        return abiertoHasta.get() != 0;
+    }
+}
@@ -0,0 +1,9 @@
+package ar.edu.utn.frbb.tup.service.buro;
+
+//que hacer cuando hay buros configurados pero ninguno respondio a tiempo
+public enum PoliticaFallback {
+    //se decide solo con el puntaje interno
+    INTERNO,
+    //se rechaza la solicitud
+    RECHAZAR
+}
@@ -0,0 +1,8 @@
+package ar.edu.utn.frbb.tup.service.buro;
+
+//un buro de credito externo. la consulta es bloqueante y puede tardar o fallar;
+//BuroServiceImp la corre en su propio pool con timeout y corta circuito
+public interface ProveedorScore {
+    String getNombre();
+    int consultarScore(long dni);
+}
@@ -0,0 +1,108 @@
+package ar.edu.utn.frbb.tup.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//cache acotada y concurrente con desalojo LRU. se divide en segmentos con su propio LinkedHashMap
+//en orden de acceso y su propio lock, asi que hilos con claves distintas casi nunca se bloquean.
+//el valor se calcula fuera del lock: dos hilos pueden calcular la misma clave a la vez y queda el primero
+public class CacheLRU<K, V> {
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento<K, V>[] segmentos;
+    private final int capacidad;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public CacheLRU(int capacidad) {
+        if (capacidad < SEGMENTOS) {
+            throw new IllegalArgumentException("La capacidad de la cache debe ser al menos " + SEGMENTOS + ".");
+        }
+        this.capacidad = capacidad;
+        segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>(capacidad / SEGMENTOS, desalojos);
+        }
+    }
+
+    private static final class Segmento<K, V> extends LinkedHashMap<K, V> {
+        private final int capacidad;
+        private final LongAdder desalojos;
+
+        Segmento(int capacidad, LongAdder desalojos) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+            this.desalojos = desalojos;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > capacidad) {
+                desalojos.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private Segmento<K, V> segmento(Object clave) {
+        int hash = clave.hashCode();
+        return segmentos[(hash ^ (hash >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    public V obtener(K clave, Function<? super K, ? extends V> calcular) {
+        Segmento<K, V> segmento = segmento(clave);
+        V valor;
+        synchronized (segmento) {
+            valor = segmento.get(clave);
+        }
+        if (valor != null) {
+            aciertos.increment();
+            return valor;
+        }
+        fallos.increment();
+        V calculado = calcular.apply(clave);
+        synchronized (segmento) {
+            V existente = segmento.putIfAbsent(clave, calculado);
+            return existente != null ? existente : calculado;
+        }
+    }
+
+    public int size() {
+        int tamanio = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                tamanio += segmento.size();
+            }
+        }
+        return tamanio;
+    }
+
+    public void limpiar() {
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.clear();
+            }
+        }
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+}
@@ -0,0 +1,82 @@
+package ar.edu.utn.frbb.tup.service.cache;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+//mapa de identidad de un pedido: mientras el alcance esta abierto cada cliente se materializa una sola vez
+//y todos los servicios reciben el mismo objeto. el alcance es del hilo; para seguir el pedido en otro hilo
+//(la continuacion del alta cuando responde el score) se captura el mapa y se reabre con continuar()
+public final class MapaDeIdentidad {
+    private static final ThreadLocal<MapaDeIdentidad> ACTUAL = new ThreadLocal<>();
+
+    private final Map<Long, Cliente> clientes = new ConcurrentHashMap<>();
+
+    //al cerrarlo el hilo vuelve al mapa que tenia antes (o a ninguno)
+    public static final class Alcance implements AutoCloseable {
+        private final MapaDeIdentidad mapa;
+        private final MapaDeIdentidad anterior;
+
+        private Alcance(MapaDeIdentidad mapa, MapaDeIdentidad anterior) {
+            this.mapa = mapa;
+            this.anterior = anterior;
+        }
+
+        public MapaDeIdentidad getMapa() {
+            return mapa;
+        }
+
+        @Override
+        public void close() {
+            if (anterior != null) {
+                ACTUAL.set(anterior);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+    }
+
+    //si el hilo ya tiene un mapa abierto se sigue usando ese: un servicio llamado desde otro comparte el del pedido
+    public static Alcance abrir() {
+        MapaDeIdentidad actual = ACTUAL.get();
+        return (actual != null ? actual : new MapaDeIdentidad()).continuar();
+    }
+
+    public Alcance continuar() {
+        Alcance alcance = new Alcance(this, ACTUAL.get());
+        ACTUAL.set(this);
+        return alcance;
+    }
+
+    //fuera de un alcance siempre carga
+    public static Cliente cliente(long dni, LongFunction<Cliente> cargar) {
+        MapaDeIdentidad mapa = ACTUAL.get();
+        if (mapa == null) {
+            return cargar.apply(dni);
+        }
+        Cliente cliente = mapa.clientes.get(dni);
+        if (cliente == null) {
+            cliente = cargar.apply(dni);
+            if (cliente != null) {
+                mapa.clientes.put(dni, cliente);
+            }
+        }
+        return cliente;
+    }
+
+    //el cliente ya materializado en el alcance del hilo, o null
+    public static Cliente clienteCargado(long dni) {
+        MapaDeIdentidad mapa = ACTUAL.get();
+        return mapa != null ? mapa.clientes.get(dni) : null;
+    }
+
+    //despues de un conflicto de version el objeto quedo viejo: la proxima lectura vuelve al dao
+    public static void olvidarCliente(long dni) {
+        MapaDeIdentidad mapa = ACTUAL.get();
+        if (mapa != null) {
+            mapa.clientes.remove(dni);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ar.edu.utn.frbb.tup.service.concurrencia;
+
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
+import ar.edu.utn.frbb.tup.persistence.SecuenciaDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+//ids unicos para las altas sin pasar por la tabla de secuencias en cada una: cada hilo reserva un bloque
+//de ids consecutivos y los entrega desde su propio long[], sin locks ni objetos nuevos. los ids crecen
+//dentro de cada hilo pero no entre hilos, y lo que queda de los bloques al reiniciar se pierde
+@Component
+public class AsignadorIds {
+    private final SecuenciaDao secuenciaDao;
+    private final int bloque;
+    //por secuencia, el rango [siguiente, limite) que le queda al hilo
+    private final ThreadLocal<long[]> rangos;
+
+    @Autowired
+    public AsignadorIds(SecuenciaDao secuenciaDao, @Value("${tup.ids.bloque:1024}") int bloque) {
+        if (bloque <= 0) {
+            throw new IllegalArgumentException("El bloque de ids debe ser mayor a 0.");
+        }
+        this.secuenciaDao = secuenciaDao;
+        this.bloque = bloque;
+        this.rangos = ThreadLocal.withInitial(() -> new long[Secuencia.values().length * 2]);
+    }
+
+    public long siguiente(Secuencia secuencia) {
+        long[] rango = rangos.get();
+        int i = secuencia.ordinal() * 2;
+        if (rango[i] == rango[i + 1]) {
+            rango[i] = secuenciaDao.reservar(secuencia, bloque);
+            rango[i + 1] = rango[i] + bloque;
+        }
+        return rango[i]++;
+    }
+
+    public int getBloque() {
+        return bloque;
+    }
+}
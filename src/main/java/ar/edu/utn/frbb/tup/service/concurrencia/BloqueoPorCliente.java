@@ -0,0 +1,42 @@
+package ar.edu.utn.frbb.tup.service.concurrencia;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//locks por cliente repartidos en franjas: el mismo dni cae siempre en el mismo lock, asi que las lecturas y
+//escrituras de un cliente (cuentas, prestamos, preaprobacion) se serializan y clientes distintos casi nunca
+//comparten franja. lo toman el alta y la baja del cliente y de sus cuentas, agregarCuenta y agregarPrestamo,
+//el pago de cuotas, el cierre del prestamo y el consumo, la devolucion y la anulacion de la preaprobacion.
+//el alta del prestamo no lo toma entero: solo agregarPrestamo y el consumo de la preaprobacion.
+//es reentrante porque el alta de cuenta lo tiene tomado cuando llama a agregarCuenta
+@Component
+public class BloqueoPorCliente {
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    @Autowired
+    public BloqueoPorCliente(@Value("${tup.bloqueo.franjas:256}") int franjas) {
+        if (franjas <= 0 || Integer.bitCount(franjas) != 1) {
+            throw new IllegalArgumentException("La cantidad de franjas debe ser una potencia de 2.");
+        }
+        this.franjas = new ReentrantLock[franjas];
+        for (int i = 0; i < franjas; i++) {
+            this.franjas[i] = new ReentrantLock();
+        }
+        this.mascara = franjas - 1;
+    }
+
+    //los dni consecutivos se dispersan con el hash de fibonacci para no caer en franjas vecinas
+    public Lock obtener(long dni) {
+        long hash = dni * 0x9E3779B97F4A7C15L;
+        return franjas[(int) (hash >>> 32) & mascara];
+    }
+
+    public int getFranjas() {
+        return franjas.length;
+    }
+}
@@ -0,0 +1,53 @@
+package ar.edu.utn.frbb.tup.service.concurrencia;
+
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+//repite una lectura-modificacion-escritura cuando el guardado pierde contra otro por la version.
+//la operacion tiene que volver a leer la fila en cada intento. entre intentos espera al azar hasta
+//2, 4, 8 y 16 ms; despues del ultimo intento el conflicto sale como esta
+public final class Reintentos {
+    private static final int MAX_INTENTOS = 5;
+    private static final long ESPERA_BASE_MS = 2;
+
+    private Reintentos() {
+    }
+
+    public interface Operacion<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    public interface Accion<E extends Exception> {
+        void ejecutar() throws E;
+    }
+
+    public static <T, E extends Exception> T obtener(Operacion<T, E> operacion) throws E {
+        for (int intento = 1; ; intento++) {
+            try {
+                return operacion.ejecutar();
+            } catch (ConflictoDeVersionException e) {
+                esperar(intento, e);
+            }
+        }
+    }
+
+    public static <E extends Exception> void ejecutar(Accion<E> accion) throws E {
+        obtener(() -> {
+            accion.ejecutar();
+            return null;
+        });
+    }
+
+    private static void esperar(int intento, ConflictoDeVersionException conflicto) {
+        if (intento >= MAX_INTENTOS) {
+            throw conflicto;
+        }
+        try {
+            Thread.sleep(1 + ThreadLocalRandom.current().nextLong(ESPERA_BASE_MS << (intento - 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflicto;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ar.edu.utn.frbb.tup.service.imp;
+
+import ar.edu.utn.frbb.tup.service.BuroService;
+import ar.edu.utn.frbb.tup.service.buro.BuroSimulado;
+import ar.edu.utn.frbb.tup.service.buro.CortaCircuito;
+import ar.edu.utn.frbb.tup.service.buro.ProveedorScore;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//consulta todos los buros a la vez en un pool propio, asi los hilos de tomcat no quedan esperando.
+//cada consulta tiene su timeout y su corta circuito; las que fallan, vencen o estan cortadas no cuentan.
+//la cola del pool es acotada: con el pool lleno la consulta se rechaza y cuenta como falla del buro.
+//las respuestas se juntan en un segundo pool acotado, donde tambien sigue el alta del prestamo
+@Service
+public class BuroServiceImp implements BuroService {
+    private final List<ProveedorScore> proveedores;
+    private final List<CortaCircuito> circuitos = new ArrayList<>();
+    private final long timeoutMs;
+    private final ThreadPoolExecutor pool;
+    private final ThreadPoolExecutor respuestas;
+
+    @Autowired
+    public BuroServiceImp(@Value("${tup.buro.habilitado:false}") boolean habilitado,
+                          @Value("${tup.buro.proveedores:2}") int cantidad,
+                          @Value("${tup.buro.latencia-ms:50}") long latenciaMs,
+                          @Value("${tup.buro.timeout-ms:200}") long timeoutMs,
+                          @Value("${tup.buro.hilos:32}") int hilos,
+                          @Value("${tup.buro.cola:256}") int cola,
+                          @Value("${tup.buro.respuestas.hilos:8}") int hilosRespuesta,
+                          @Value("${tup.buro.respuestas.cola:256}") int colaRespuesta,
+                          @Value("${tup.buro.circuito.fallos:5}") int fallosParaAbrir,
+                          @Value("${tup.buro.circuito.espera-ms:10000}") long esperaMs) {
+        this(habilitado ? simulados(cantidad, latenciaMs) : new ArrayList<>(), timeoutMs, hilos, cola,
+                hilosRespuesta, colaRespuesta, fallosParaAbrir, esperaMs);
+    }
+
+    public BuroServiceImp(List<ProveedorScore> proveedores, long timeoutMs, int hilos, int cola,
+                          int hilosRespuesta, int colaRespuesta, int fallosParaAbrir, long esperaMs) {
+        this.proveedores = proveedores;
+        this.timeoutMs = timeoutMs;
+        for (int i = 0; i < proveedores.size(); i++) {
+            circuitos.add(new CortaCircuito(fallosParaAbrir, esperaMs));
+        }
+        this.pool = crearPool("buro-", hilos, cola);
+        this.respuestas = crearPool("buro-respuesta-", hilosRespuesta, colaRespuesta);
+    }
+
+    private static ThreadPoolExecutor crearPool(String nombre, int hilos, int cola) {
+        AtomicInteger numero = new AtomicInteger();
+        return new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(cola), tarea -> {
+            Thread hilo = new Thread(tarea, nombre + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static List<ProveedorScore> simulados(int cantidad, long latenciaMs) {
+        List<ProveedorScore> simulados = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            simulados.add(new BuroSimulado("buro-simulado-" + i, latenciaMs));
+        }
+        return simulados;
+    }
+
+    @Override
+    public boolean isHabilitado() {
+        return !proveedores.isEmpty();
+    }
+
+    //puntajes de los buros que respondieron a tiempo; vacia si ninguno respondio.
+    //se completa en el pool de respuestas: no en el hilo que vence los timeouts, que es uno solo para toda la jvm,
+    //ni en el pool comun, porque el alta que sigue bloquea (journal, jdbc, lock del cliente).
+    //con ese pool lleno el resultado termina con RejectedExecutionException en vez de acumular trabajo
+    @Override
+    public CompletableFuture<List<Integer>> consultarScores(long dni) {
+        List<CompletableFuture<Integer>> consultas = new ArrayList<>();
+        for (int i = 0; i < proveedores.size(); i++) {
+            consultas.add(consultar(proveedores.get(i), circuitos.get(i), dni));
+        }
+        return CompletableFuture.allOf(consultas.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(nada -> {
+                    List<Integer> scores = new ArrayList<>();
+                    for (CompletableFuture<Integer> consulta : consultas) {
+                        Integer score = consulta.join();
+                        if (score != null) {
+                            scores.add(score);
+                        }
+                    }
+                    return scores;
+                }, respuestas);
+    }
+
+    //nunca termina con error: una falla, un timeout, el pool lleno o el circuito abierto dan null.
+    //al vencer el timeout se cancela la tarea, asi una consulta colgada no sigue ocupando un hilo del pool
+    private CompletableFuture<Integer> consultar(ProveedorScore proveedor, CortaCircuito circuito, long dni) {
+        if (!circuito.permitir()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Integer> consulta = new CompletableFuture<>();
+        Future<?> tarea;
+        try {
+            tarea = pool.submit(() -> {
+                try {
+                    consulta.complete(proveedor.consultarScore(dni));
+                } catch (RuntimeException e) {
+                    consulta.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            circuito.registrarFallo();
+            return CompletableFuture.completedFuture(null);
+        }
+        return consulta.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((score, error) -> {
+                    if (error != null) {
+                        tarea.cancel(true);
+                        circuito.registrarFallo();
+                        return null;
+                    }
+                    circuito.registrarExito();
+                    return score;
+                });
+    }
+
+    public List<CortaCircuito> getCircuitos() {
+        return circuitos;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdownNow();
+        respuestas.shutdownNow();
+    }
+}
@@ -4,6 +4,7 @@ import ar.edu.utn.frbb.tup.controller.dto.ClienteDto;
 import ar.edu.utn.frbb.tup.model.Cliente;
 import ar.edu.utn.frbb.tup.model.Cuenta;
 import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
@@ -12,35 +13,54 @@ import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoCuentaYaExisteException;
 import ar.edu.utn.frbb.tup.persistence.ClienteDao;
 import ar.edu.utn.frbb.tup.persistence.CuentaDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
 import ar.edu.utn.frbb.tup.service.ClienteService;
+import ar.edu.utn.frbb.tup.service.cache.MapaDeIdentidad;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import ar.edu.utn.frbb.tup.service.concurrencia.Reintentos;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class ClienteServiceImp implements ClienteService {
     @Autowired ClienteDao clienteDao;
     @Autowired CuentaDao cuentaDao;
+    @Autowired BloqueoPorCliente bloqueoPorCliente;
 
-    public ClienteServiceImp(ClienteDao clienteDao, CuentaDao cuentaDao) {
+    public ClienteServiceImp(ClienteDao clienteDao, CuentaDao cuentaDao, BloqueoPorCliente bloqueoPorCliente) {
         this.clienteDao = clienteDao;
         this.cuentaDao = cuentaDao;
+        this.bloqueoPorCliente = bloqueoPorCliente;
     }
 
     //da de alta el cliente
     public Cliente darDeAltaCliente(ClienteDto clienteDto) throws ClienteAlreadyExistsException, ClienteMayorDeEdadException {
         Cliente cliente = new Cliente(clienteDto);
-        verificarClienteExistente(cliente.getDni());
-        verificarEdadValida(cliente.getEdad());
-        clienteDao.save(cliente);
-        return cliente;
+        Lock lock = bloqueoPorCliente.obtener(cliente.getDni());
+        lock.lock();
+        try {
+            verificarClienteExistente(cliente.getDni());
+            verificarEdadValida(cliente.getEdad());
+            clienteDao.save(cliente);
+            return cliente;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    //busca cliente por dni
+    //busca cliente por dni; las cuentas y los prestamos se cargan recien cuando se usan
     public Cliente buscarClientePorDni(Long dni) throws ClientNoExisteException {
-        Cliente cliente = clienteDao.find(dni, true);
+        return buscarClientePorDni(dni, PlanCarga.DIFERIDO);
+    }
+
+    //dentro de un pedido con mapa de identidad el cliente se lee una sola vez; como las colecciones que el plan
+    //no carga quedan diferidas, el mismo objeto sirve para cualquier plan
+    public Cliente buscarClientePorDni(Long dni, PlanCarga plan) throws ClientNoExisteException {
+        Cliente cliente = MapaDeIdentidad.cliente(dni, id -> clienteDao.find(id, plan));
         if (cliente == null) {
             throw new ClientNoExisteException("El cliente no existe");
         }
@@ -55,18 +75,26 @@ public class ClienteServiceImp implements ClienteService {
 
     //delete
     public Cliente desactivarCliente(Long dni) throws ClientNoExisteException {
-        Cliente cliente = clienteDao.find(dni, true);
-        if (cliente == null) {
-            throw new ClientNoExisteException("El cliente no existe");
+        Lock lock = bloqueoPorCliente.obtener(dni);
+        lock.lock();
+        try {
+            return Reintentos.obtener(() -> {
+                Cliente cliente = clienteDao.find(dni, PlanCarga.DIFERIDO);
+                if (cliente == null) {
+                    throw new ClientNoExisteException("El cliente no existe");
+                }
+                cliente.setActivo(false);
+                clienteDao.update(cliente);
+                return cliente;
+            });
+        } finally {
+            lock.unlock();
         }
-        cliente.setActivo(false);
-        clienteDao.update(cliente);
-        return cliente;
     }
 
     //otros metodos
     private void verificarClienteExistente(long dni) throws ClienteAlreadyExistsException {
-        if (clienteDao.find(dni, false) != null) {
+        if (clienteDao.find(dni, PlanCarga.DIFERIDO) != null) {
             throw new ClienteAlreadyExistsException("Ya existe un cliente con ese DNI.");
         }
     }
@@ -88,17 +116,40 @@ public class ClienteServiceImp implements ClienteService {
 
     //agrega una cuenta
     public void agregarCuenta(Cuenta cuenta, long dniTitular) throws TipoCuentaYaExisteException {
-        Cliente titular = clienteDao.find(dniTitular, true);
-        verificarTipoCuentaExistenteEnMoneda(titular, cuenta.getTipoCuenta(), cuenta.getTipoMoneda());
-        titular.getCuentas().add(cuenta);
-        clienteDao.save(titular);
+        Lock lock = bloqueoPorCliente.obtener(dniTitular);
+        lock.lock();
+        try {
+            Reintentos.ejecutar(() -> {
+                Cliente titular = clienteDao.find(dniTitular, PlanCarga.CUENTAS);
+                verificarTipoCuentaExistenteEnMoneda(titular, cuenta.getTipoCuenta(), cuenta.getTipoMoneda());
+                titular.getCuentas().add(cuenta);
+                clienteDao.save(titular);
+            });
+        } finally {
+            lock.unlock();
+        }
     }
 
-    //agrega el prestamo
+    //agrega el prestamo; con el lock del cliente dos altas a la vez no se pisan la lista de prestamos.
+    //el primer intento puede usar el cliente del mapa de identidad: si quedo viejo el guardado pierde por
+    //la version, se lo olvida y el reintento lo vuelve a leer
     public void agregarPrestamo(Prestamo prestamo, Long dniTitular) throws ClientNoExisteException {
-        Cliente titular = buscarClientePorDni(dniTitular);
-        titular.getPrestamos().add(prestamo);
-        clienteDao.save(titular);
+        Lock lock = bloqueoPorCliente.obtener(dniTitular);
+        lock.lock();
+        try {
+            Reintentos.ejecutar(() -> {
+                Cliente titular = buscarClientePorDni(dniTitular, PlanCarga.PRESTAMOS);
+                titular.getPrestamos().add(prestamo);
+                try {
+                    clienteDao.save(titular);
+                } catch (ConflictoDeVersionException e) {
+                    MapaDeIdentidad.olvidarCliente(dniTitular);
+                    throw e;
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void actualizarDatos(Cliente cliente, String nuevoTelefono, String nuevoEmail, Boolean activo) {
@@ -0,0 +1,72 @@
+package ar.edu.utn.frbb.tup.service.imp;
+
+import ar.edu.utn.frbb.tup.model.EstadisticasCache;
+import ar.edu.utn.frbb.tup.model.amortizacion.Cotizacion;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.service.CotizacionService;
+import ar.edu.utn.frbb.tup.service.cache.CacheLRU;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+//cotizaciones memorizadas: muchos pedidos repiten el mismo (monto, plazo, tasa, moneda, metodo),
+//asi que el total y el plan se calculan una vez y se comparten entre altas y simulaciones
+@Service
+public class CotizacionServiceImp implements CotizacionService {
+    private final CacheLRU<Clave, Cotizacion> cache;
+
+    public CotizacionServiceImp(@Value("${tup.cotizacion.cache.capacidad:10000}") int capacidad) {
+        this.cache = new CacheLRU<>(capacidad);
+    }
+
+    @Override
+    public Cotizacion cotizar(double montoSolicitado, int plazoMeses, double tasaInteres, TipoMoneda moneda, MetodoAmortizacion metodo) {
+        return cache.obtener(new Clave(montoSolicitado, plazoMeses, tasaInteres, moneda, metodo),
+                clave -> new Cotizacion(clave.monto, clave.tasa, clave.plazo, clave.moneda, clave.metodo));
+    }
+
+    @Override
+    public EstadisticasCache getEstadisticas() {
+        return new EstadisticasCache(cache.getAciertos(), cache.getFallos(), cache.getDesalojos(), cache.size(), cache.getCapacidad());
+    }
+
+    private static final class Clave {
+        private final double monto;
+        private final int plazo;
+        private final double tasa;
+        private final TipoMoneda moneda;
+        private final MetodoAmortizacion metodo;
+
+        Clave(double monto, int plazo, double tasa, TipoMoneda moneda, MetodoAmortizacion metodo) {
+            this.monto = monto;
+            this.plazo = plazo;
+            this.tasa = tasa;
+            this.moneda = moneda;
+            this.metodo = metodo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Clave)) {
+                return false;
+            }
+            Clave otra = (Clave) o;
+            return Double.compare(monto, otra.monto) == 0 && plazo == otra.plazo && Double.compare(tasa, otra.tasa) == 0
+                    && moneda == otra.moneda && metodo == otra.metodo;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Double.hashCode(monto);
+            hash = 31 * hash + plazo;
+            hash = 31 * hash + Double.hashCode(tasa);
+            hash = 31 * hash + (moneda != null ? moneda.ordinal() : -1);
+            hash = 31 * hash + metodo.ordinal();
+            return hash;
+        }
+    }
+}
@@ -1,38 +1,89 @@
 package ar.edu.utn.frbb.tup.service.imp;
 
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
 import ar.edu.utn.frbb.tup.model.Prestamo;
-import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
+import ar.edu.utn.frbb.tup.service.BuroService;
 import ar.edu.utn.frbb.tup.service.CreditScoreService;
+import ar.edu.utn.frbb.tup.service.PerfilCrediticioService;
+import ar.edu.utn.frbb.tup.service.buro.PoliticaFallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class CreditScoreServiceImp implements CreditScoreService {
     private static final int MIN_SCORE = 300;
     private static final int MAX_SCORE = 1000;
-    private static final int SCORE_MINIMO = 600;
-
-    public int calcularScore(Set<Prestamo> prestamos) {
-        Random random = new Random();
-        int score = SCORE_MINIMO + random.nextInt(150);
-        for (Prestamo prestamo : prestamos) {
-            if (prestamo.getLoanStatus().equals(LoanStatus.APROBADO)) {
-                score += 10;
-            }
-        }
+    //un cliente sin historial queda apenas arriba de la aprobacion; cada prestamo vigente resta,
+    //asi con deuda abierta y pocas cuotas pagadas el puntaje cae por debajo
+    private static final int SCORE_BASE = 720;
+    private static final int PUNTOS_PRESTAMO_APROBADO = 10;
+    private static final int PUNTOS_PRESTAMO_CERRADO = 20;
+    private static final int PUNTOS_CUOTA_PAGADA = 2;
+    private static final int PUNTOS_PRESTAMO_VIGENTE = -40;
+
+    @Autowired PerfilCrediticioService perfilCrediticioService;
+    @Autowired BuroService buroService;
+    private final PoliticaFallback politicaFallback;
+
+    @Autowired
+    public CreditScoreServiceImp(PerfilCrediticioService perfilCrediticioService, BuroService buroService,
+                                 @Value("${tup.buro.fallback:INTERNO}") PoliticaFallback politicaFallback) {
+        this.perfilCrediticioService = perfilCrediticioService;
+        this.buroService = buroService;
+        this.politicaFallback = politicaFallback;
+    }
+
+    //el mismo perfil siempre da el mismo puntaje
+    public int calcularScore(PerfilCrediticio perfil) {
+        int score = SCORE_BASE
+                + perfil.getPrestamosAprobados() * PUNTOS_PRESTAMO_APROBADO
+                + perfil.getPrestamosCerrados() * PUNTOS_PRESTAMO_CERRADO
+                + perfil.getPagosRealizados() * PUNTOS_CUOTA_PAGADA
+                + perfil.getPrestamosVigentes() * PUNTOS_PRESTAMO_VIGENTE;
         return Math.max(MIN_SCORE, Math.min(score, MAX_SCORE));
     }
 
-    public void validarScore(Cliente cliente) throws CreditScoreException {
-        Set<Prestamo> prestamosList = new HashSet<>(cliente.getPrestamos());
-        int score = calcularScore(prestamosList);
-        if (score < SCORE_MINIMO) {
-            throw new CreditScoreException("El cliente no tiene puntaje suficiente para solicitar el préstamo. Puntaje: " + score);
+    //solo el puntaje interno: el perfil se mantiene al dia con cada alta, pago y cierre
+    public int obtenerScore(Cliente cliente) {
+        return calcularScore(perfilCrediticioService.obtenerPerfil(cliente.getDni()));
+    }
+
+    //puntaje interno combinado con el de los buros, sin bloquear al llamador
+    public CompletableFuture<Integer> obtenerScoreAsync(Cliente cliente) {
+        int interno = obtenerScore(cliente);
+        if (!buroService.isHabilitado()) {
+            return CompletableFuture.completedFuture(interno);
         }
+        return buroService.consultarScores(cliente.getDni()).thenApply(scores -> combinar(interno, scores));
     }
 
-}
+    //promedio entre el puntaje interno y el promedio de los buros que respondieron
+    private int combinar(int interno, List<Integer> scores) {
+        if (scores.isEmpty()) {
+            return politicaFallback == PoliticaFallback.RECHAZAR ? MIN_SCORE : interno;
+        }
+        int suma = 0;
+        for (int score : scores) {
+            suma += score;
+        }
+        return (interno + suma / scores.size()) / 2;
+    }
 
+    //termina con CreditScoreException (dentro de CompletionException) si el puntaje no alcanza
+    public CompletableFuture<Integer> validarScoreAsync(Cliente cliente) {
+        return obtenerScoreAsync(cliente).thenApply(score -> {
+            if (score < Prestamo.SCORE_APROBACION) {
+                throw new CompletionException(new CreditScoreException("El cliente no tiene puntaje suficiente para solicitar el préstamo. Puntaje: " + score));
+            }
+            return score;
+        });
+    }
+
+}
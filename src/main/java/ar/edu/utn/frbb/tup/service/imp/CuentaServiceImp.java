@@ -2,48 +2,71 @@ package ar.edu.utn.frbb.tup.service.imp;
 
 import ar.edu.utn.frbb.tup.controller.dto.CuentaDto;
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.ConjuntoDiferido;
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Movimiento;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
 
 import ar.edu.utn.frbb.tup.persistence.CuentaDao;
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
 import ar.edu.utn.frbb.tup.service.ClienteService;
 import ar.edu.utn.frbb.tup.service.CuentaService;
+import ar.edu.utn.frbb.tup.service.cache.MapaDeIdentidad;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import ar.edu.utn.frbb.tup.service.concurrencia.Reintentos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class CuentaServiceImp implements CuentaService {
     @Autowired  CuentaDao cuentaDao;
     @Autowired ClienteService clienteService;
+    @Autowired BloqueoPorCliente bloqueoPorCliente;
+    @Autowired AsignadorIds asignadorIds;
 
-    public CuentaServiceImp(CuentaDao cuentaDao, ClienteService clienteService) {
+    public CuentaServiceImp(CuentaDao cuentaDao, ClienteService clienteService, BloqueoPorCliente bloqueoPorCliente, AsignadorIds asignadorIds) {
         this.cuentaDao = cuentaDao;
         this.clienteService = clienteService;
+        this.bloqueoPorCliente = bloqueoPorCliente;
+        this.asignadorIds = asignadorIds;
     }
 
     //agregar tipocuentayaexiste
     @Override
     public Cuenta darDeAltaCuenta(CuentaDto cuentaDto) throws TipoCuentaYaExisteException, ClientNoExisteException, CuentaNoSoportadaException, TipoMonedaNoSoportada {
         Cuenta cuenta = new Cuenta(cuentaDto);
-        validarTipoCuentaUnica(cuenta);
-        validarTipoCuenta(cuenta);
-        validarTipoMoneda(cuenta);
-
-        Cliente cliente = clienteService.buscarClientePorDni(cuenta.getDniTitular());
-        if (cliente == null) {
-            throw new ClientNoExisteException("El cliente no existe.");
+        //la validacion de cuenta unica y el alta tienen que ser atomicas para el cliente
+        Lock lock = bloqueoPorCliente.obtener(cuenta.getDniTitular());
+        lock.lock();
+        try {
+            validarTipoCuentaUnica(cuenta);
+            validarTipoCuenta(cuenta);
+            validarTipoMoneda(cuenta);
+
+            Cliente cliente = clienteService.buscarClientePorDni(cuenta.getDniTitular());
+            if (cliente == null) {
+                throw new ClientNoExisteException("El cliente no existe.");
+            }
+            cuenta.setNumeroCuenta(asignadorIds.siguiente(Secuencia.CUENTA));
+            clienteService.agregarCuenta(cuenta, cuenta.getDniTitular());
+            cuentaDao.save(cuenta);
+            return cuenta;
+        } finally {
+            lock.unlock();
         }
-        clienteService.agregarCuenta(cuenta, cuenta.getDniTitular());
-        cuentaDao.save(cuenta);
-        return cuenta;
     }
 
     @Override
@@ -71,9 +94,59 @@ public class CuentaServiceImp implements CuentaService {
     }
 
 
-    //actualizar si el prestamo se aprueba
+    //actualizar si el prestamo se aprueba: acredita el capital en la cuenta corriente de la moneda.
+    //no toma el lock del cliente; el saldo es una celda atomica y el movimiento un alta en el libro
+    @Override
+    public Movimiento actualizarBalance(Prestamo prestamo) throws CuentaNoExisteException {
+        Cuenta cuenta = obtenerCuentaCorriente(prestamo);
+        Movimiento movimiento = new Movimiento(cuenta.getNumeroCuenta(), Movimiento.cuentaCartera(prestamo.getMoneda()),
+                TipoMovimiento.DESEMBOLSO_PRESTAMO, prestamo.getMontoSolicitado(), prestamo.getId());
+        registrar(movimiento);
+        return movimiento;
+    }
+
+    //el pago de una cuota se debita de la misma cuenta corriente (puede quedar en descubierto)
+    @Override
+    public Movimiento debitarCuota(Prestamo prestamo, double montoCuota) throws CuentaNoExisteException {
+        Cuenta cuenta = obtenerCuentaCorriente(prestamo);
+        Movimiento movimiento = new Movimiento(cuenta.getNumeroCuenta(), Movimiento.cuentaCartera(prestamo.getMoneda()),
+                TipoMovimiento.DEBITO_CUOTA, -montoCuota, prestamo.getId());
+        registrar(movimiento);
+        return movimiento;
+    }
+
+    //el libro no se borra: un movimiento se deshace con otro de monto contrario entre las mismas cuentas
+    @Override
+    public void anularMovimiento(Movimiento movimiento) throws CuentaNoExisteException {
+        registrar(new Movimiento(movimiento.getNumeroCuenta(), movimiento.getContrapartida(),
+                TipoMovimiento.ANULACION, -movimiento.getMonto(), movimiento.getIdPrestamo()));
+    }
+
+    //las dos patas del asiento toman su id de la secuencia de movimientos, como las cuentas y los prestamos
+    private void registrar(Movimiento movimiento) throws CuentaNoExisteException {
+        movimiento.setId(asignadorIds.siguiente(Secuencia.MOVIMIENTO));
+        cuentaDao.registrarMovimiento(movimiento, asignadorIds.siguiente(Secuencia.MOVIMIENTO));
+    }
+
+    //movimientos de la cuenta entre dos dias (inclusive); sin desde o hasta el rango queda abierto
     @Override
-    public void actualizarBalance(Prestamo prestamo) throws CuentaNoExisteException {
+    public List<Movimiento> buscarMovimientos(long id, LocalDate desde, LocalDate hasta) throws CuentaNoExisteException {
+        obtenerCuentaExistente(id);
+        return cuentaDao.buscarMovimientos(id,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.atTime(LocalTime.MAX) : null);
+    }
+
+    //en el alta el cliente ya esta en el mapa de identidad con sus cuentas cargadas: se busca ahi sin ir al indice
+    private Cuenta obtenerCuentaCorriente(Prestamo prestamo) throws CuentaNoExisteException {
+        Cliente cliente = MapaDeIdentidad.clienteCargado(prestamo.getDniTitular());
+        if (cliente != null && ConjuntoDiferido.estaCargado(cliente.getCuentas())) {
+            for (Cuenta cuenta : cliente.getCuentas()) {
+                if (cuenta.getTipoCuenta() == TipoCuenta.CUENTA_CORRIENTE && cuenta.getTipoMoneda() == prestamo.getMoneda()) {
+                    return cuenta;
+                }
+            }
+        }
         Cuenta cuenta = cuentaDao.findByClienteYTipoMonedaYTipoCuenta(
                 prestamo.getDniTitular(),
                 prestamo.getMoneda().toString(),
@@ -81,18 +154,25 @@ public class CuentaServiceImp implements CuentaService {
         if (cuenta == null) {
             throw new CuentaNoExisteException("La cuenta no existe.");
         }
-        double nuevoBalance = cuenta.getBalance() + prestamo.getMontoSolicitado();
-        cuenta.setBalance(nuevoBalance);
-        cuentaDao.save(cuenta);
+        return cuenta;
     }
 
     //delete
     @Override
     public Cuenta desactivarCuenta(long id) throws CuentaNoExisteException {
-        Cuenta cuenta = obtenerCuentaExistente(id);
-        cuenta.setEstado(false);
-        cuentaDao.updateEstado(cuenta);
-        return cuenta;
+        //el titular sale de la cuenta; se vuelve a leer con el lock para no pisar un balance recien actualizado
+        Lock lock = bloqueoPorCliente.obtener(obtenerCuentaExistente(id).getDniTitular());
+        lock.lock();
+        try {
+            return Reintentos.obtener(() -> {
+                Cuenta cuenta = obtenerCuentaExistente(id);
+                cuenta.setEstado(false);
+                cuentaDao.updateEstado(cuenta);
+                return cuenta;
+            });
+        } finally {
+            lock.unlock();
+        }
     }
 
     //otro metodos
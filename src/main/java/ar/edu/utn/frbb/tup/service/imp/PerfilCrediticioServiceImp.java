@@ -0,0 +1,57 @@
+package ar.edu.utn.frbb.tup.service.imp;
+
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.service.PerfilCrediticioService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//perfil por dni. la primera vez se arma con los prestamos guardados; despues solo se actualiza.
+//el perfil se carga antes de guardar el cambio y los registrar* corren despues de guardarlo: si el guardado
+//falla el perfil no cambia, y una carga no puede leer el prestamo ya guardado y sumarlo otra vez
+@Service
+public class PerfilCrediticioServiceImp implements PerfilCrediticioService {
+    @Autowired PrestamoDao prestamoDao;
+
+    private final Map<Long, PerfilCrediticio> perfiles = new ConcurrentHashMap<>();
+
+    public PerfilCrediticioServiceImp(PrestamoDao prestamoDao) {
+        this.prestamoDao = prestamoDao;
+    }
+
+    @Override
+    public PerfilCrediticio obtenerPerfil(long dni) {
+        return perfil(dni).copiar();
+    }
+
+    @Override
+    public void cargarPerfil(long dni) {
+        perfil(dni);
+    }
+
+    //si el perfil no estaba cargado no hay nada que actualizar: la carga va a leer el prestamo guardado
+    @Override
+    public void registrarAlta(Prestamo prestamo) {
+        PerfilCrediticio perfil = perfiles.get(prestamo.getDniTitular());
+        if (perfil != null) {
+            perfil.registrarAlta(prestamo);
+        }
+    }
+
+    @Override
+    public void registrarCambio(PerfilCrediticio anterior, Prestamo prestamo) {
+        PerfilCrediticio perfil = perfiles.get(prestamo.getDniTitular());
+        if (perfil != null) {
+            perfil.registrarCambio(anterior, prestamo);
+        }
+    }
+
+    private PerfilCrediticio perfil(long dni) {
+        return perfiles.computeIfAbsent(dni, clave -> PerfilCrediticio.desdePrestamos(clave, prestamoDao.buscarPrestamoPorCliente(clave)));
+    }
+}
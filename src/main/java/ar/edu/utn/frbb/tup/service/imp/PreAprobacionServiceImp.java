@@ -0,0 +1,202 @@
+package ar.edu.utn.frbb.tup.service.imp;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.ResultadoPreAprobacion;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.PreAprobacionNoExisteException;
+import ar.edu.utn.frbb.tup.persistence.ClienteDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
+import ar.edu.utn.frbb.tup.persistence.PreAprobacionDao;
+import ar.edu.utn.frbb.tup.service.CreditScoreService;
+import ar.edu.utn.frbb.tup.service.PreAprobacionService;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+//proceso nocturno de preaprobacion: recorre todos los clientes en particiones y guarda un limite por dni.
+//corre en su propio pool de hilos de baja prioridad y usa solo el puntaje interno, asi no compite
+//con los pedidos online por los hilos de tomcat ni por el pool de los buros
+@Service
+public class PreAprobacionServiceImp implements PreAprobacionService {
+    private static final int SCORE_PISO_LIMITE = 600;
+    //pesos de limite por cada punto de score por encima del piso
+    private static final double LIMITE_POR_PUNTO = 2000.0;
+    //la preaprobacion vale el dia del calculo y el siguiente
+    private static final int DIAS_VIGENCIA = 1;
+
+    @Autowired ClienteDao clienteDao;
+    @Autowired PreAprobacionDao preAprobacionDao;
+    @Autowired CreditScoreService creditScoreService;
+    @Autowired BloqueoPorCliente bloqueoPorCliente;
+    private final int particion;
+    private final ExecutorService pool;
+    private volatile ResultadoPreAprobacion ultimoResultado;
+
+    @Autowired
+    public PreAprobacionServiceImp(ClienteDao clienteDao, PreAprobacionDao preAprobacionDao, CreditScoreService creditScoreService,
+                                   BloqueoPorCliente bloqueoPorCliente,
+                                   @Value("${tup.preaprobacion.hilos:2}") int hilos,
+                                   @Value("${tup.preaprobacion.particion:1000}") int particion) {
+        this.clienteDao = clienteDao;
+        this.preAprobacionDao = preAprobacionDao;
+        this.creditScoreService = creditScoreService;
+        this.bloqueoPorCliente = bloqueoPorCliente;
+        this.particion = particion;
+        AtomicInteger numero = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "preaprobacion-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+    }
+
+    @Scheduled(cron = "${tup.preaprobacion.cron:0 0 3 * * *}")
+    public void ejecutarProgramado() {
+        ejecutar();
+    }
+
+    //un solo proceso a la vez; el llamador espera a que terminen todas las particiones
+    @Override
+    public synchronized ResultadoPreAprobacion ejecutar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        long comienzo = System.nanoTime();
+        LocalDate hoy = inicio.toLocalDate();
+        long[] dnis = clienteDao.buscarDnis();
+        List<Future<Integer>> particiones = new ArrayList<>();
+        for (int desde = 0; desde < dnis.length; desde += particion) {
+            long[] parte = Arrays.copyOfRange(dnis, desde, Math.min(desde + particion, dnis.length));
+            particiones.add(pool.submit(() -> preAprobar(parte, hoy)));
+        }
+        long preAprobados = 0;
+        try {
+            for (Future<Integer> parte : particiones) {
+                preAprobados += parte.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpio el proceso de preaprobacion.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo el proceso de preaprobacion: " + e.getCause().getMessage(), e.getCause());
+        }
+        ResultadoPreAprobacion resultado = new ResultadoPreAprobacion(inicio, dnis.length, preAprobados,
+                (System.nanoTime() - comienzo) / 1_000_000);
+        ultimoResultado = resultado;
+        return resultado;
+    }
+
+    //devuelve cuantos clientes de la particion quedaron con limite
+    private int preAprobar(long[] dnis, LocalDate hoy) {
+        int preAprobados = 0;
+        List<PreAprobacion> resultados = new ArrayList<>(dnis.length);
+        for (long dni : dnis) {
+            Cliente cliente = clienteDao.find(dni, PlanCarga.DIFERIDO);
+            if (cliente == null) {
+                continue;
+            }
+            int score = creditScoreService.obtenerScore(cliente);
+            double limite = cliente.isActivo() ? calcularLimite(score) : 0;
+            if (limite > 0) {
+                preAprobados++;
+            }
+            //se escribe tambien con limite 0 para pisar la preaprobacion anterior
+            resultados.add(new PreAprobacion(dni, score, limite, hoy));
+        }
+        preAprobacionDao.saveAll(resultados);
+        return preAprobados;
+    }
+
+    static double calcularLimite(int score) {
+        return score >= Prestamo.SCORE_APROBACION ? (score - SCORE_PISO_LIMITE) * LIMITE_POR_PUNTO : 0;
+    }
+
+    @Override
+    public ResultadoPreAprobacion getUltimoResultado() {
+        return ultimoResultado;
+    }
+
+    @Override
+    public PreAprobacion buscarPreAprobacion(long dni) throws PreAprobacionNoExisteException {
+        PreAprobacion preAprobacion = preAprobacionDao.find(dni);
+        if (preAprobacion == null || !vigente(preAprobacion)) {
+            throw new PreAprobacionNoExisteException("El cliente con DNI: " + dni + " no tiene una preaprobación vigente.");
+        }
+        return preAprobacion;
+    }
+
+    //descuenta el monto del disponible si alcanza; null si no hay preaprobacion vigente que lo cubra
+    @Override
+    public PreAprobacion consumir(long dni, double monto) {
+        Lock lock = bloqueoPorCliente.obtener(dni);
+        lock.lock();
+        try {
+            PreAprobacion preAprobacion = preAprobacionDao.find(dni);
+            if (preAprobacion == null || !vigente(preAprobacion) || monto <= 0 || preAprobacion.getMontoDisponible() < monto) {
+                return null;
+            }
+            preAprobacion.setMontoDisponible(preAprobacion.getMontoDisponible() - monto);
+            preAprobacionDao.save(preAprobacion);
+            return preAprobacion;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //el alta que consumio el monto no se concreto. si el proceso nocturno ya recalculo la preaprobacion
+    //no se devuelve nada: el limite nuevo no incluia ese consumo
+    @Override
+    public void devolver(PreAprobacion consumida, double monto) {
+        Lock lock = bloqueoPorCliente.obtener(consumida.getDniCliente());
+        lock.lock();
+        try {
+            PreAprobacion preAprobacion = preAprobacionDao.find(consumida.getDniCliente());
+            if (preAprobacion == null || !consumida.getFechaCalculo().equals(preAprobacion.getFechaCalculo())) {
+                return;
+            }
+            preAprobacion.setMontoDisponible(Math.min(preAprobacion.getMontoDisponible() + monto, preAprobacion.getMontoPreAprobado()));
+            preAprobacionDao.save(preAprobacion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //un prestamo dado de alta por fuera de la preaprobacion cambia la deuda del cliente: el limite calculado ya no vale
+    @Override
+    public void anular(long dni) {
+        Lock lock = bloqueoPorCliente.obtener(dni);
+        lock.lock();
+        try {
+            PreAprobacion preAprobacion = preAprobacionDao.find(dni);
+            if (preAprobacion != null && preAprobacion.getMontoDisponible() > 0) {
+                preAprobacion.setMontoDisponible(0);
+                preAprobacionDao.save(preAprobacion);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean vigente(PreAprobacion preAprobacion) {
+        return preAprobacion.getFechaCalculo() != null
+                && !preAprobacion.getFechaCalculo().plusDays(DIAS_VIGENCIA).isBefore(LocalDate.now());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+}
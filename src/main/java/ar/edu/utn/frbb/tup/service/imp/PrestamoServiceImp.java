@@ -2,6 +2,7 @@ package ar.edu.utn.frbb.tup.service.imp;
 
 import ar.edu.utn.frbb.tup.controller.dto.PrestamoDto;
 import ar.edu.utn.frbb.tup.model.*;
+import ar.edu.utn.frbb.tup.model.amortizacion.Cotizacion;
 import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
@@ -10,47 +11,111 @@ import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
 import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
 import ar.edu.utn.frbb.tup.service.ClienteService;
+import ar.edu.utn.frbb.tup.service.CotizacionService;
 import ar.edu.utn.frbb.tup.service.CreditScoreService;
 import ar.edu.utn.frbb.tup.service.CuentaService;
+import ar.edu.utn.frbb.tup.service.PerfilCrediticioService;
+import ar.edu.utn.frbb.tup.service.PreAprobacionService;
 import ar.edu.utn.frbb.tup.service.PrestamoService;
+import ar.edu.utn.frbb.tup.service.cache.MapaDeIdentidad;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 @Service
 public class PrestamoServiceImp implements PrestamoService {
+    //escenarios que simula cada tarea del pool sin seguir dividiendo
+    private static final int UMBRAL_SIMULACION = 256;
+
     @Autowired PrestamoDao prestamoDao;
     @Autowired ClienteService clienteService;
     @Autowired CuentaService cuentaService;
     @Autowired CreditScoreService creditScoreService;
+    @Autowired CotizacionService cotizacionService;
+    @Autowired PerfilCrediticioService perfilCrediticioService;
+    @Autowired PreAprobacionService preAprobacionService;
+    @Autowired BloqueoPorCliente bloqueoPorCliente;
+    @Autowired AsignadorIds asignadorIds;
 
-    public PrestamoServiceImp(PrestamoDao prestamoDao, ClienteService clienteService, CuentaService cuentaService, CreditScoreService creditScoreService) {
+    public PrestamoServiceImp(PrestamoDao prestamoDao, ClienteService clienteService, CuentaService cuentaService, CreditScoreService creditScoreService,
+                              CotizacionService cotizacionService, PerfilCrediticioService perfilCrediticioService,
+                              PreAprobacionService preAprobacionService, BloqueoPorCliente bloqueoPorCliente, AsignadorIds asignadorIds) {
         this.prestamoDao = prestamoDao;
         this.clienteService = clienteService;
         this.cuentaService = cuentaService;
         this.creditScoreService = creditScoreService;
+        this.cotizacionService = cotizacionService;
+        this.perfilCrediticioService = perfilCrediticioService;
+        this.preAprobacionService = preAprobacionService;
+        this.bloqueoPorCliente = bloqueoPorCliente;
+        this.asignadorIds = asignadorIds;
     }
 
     //POST - solicitar prestamo -> OK (refactorizado)
+    //el score puede esperar a los buros externos: el alta sigue cuando responden, sin ocupar el hilo del pedido.
+    //todo el alta comparte un mapa de identidad, asi el cliente se lee una vez aunque lo pidan varios servicios
     @Override
-    public PrestamoDetalle darAltaPrestamo(PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException, CreditScoreException {
-        Cliente cliente = obtenerClientePorDni(prestamoDto.getNumeroCliente());
-        validarCuentaCliente(cliente.getDni(), prestamoDto.getTipoMoneda());
-        creditScoreService.validarScore(cliente);
+    public CompletableFuture<PrestamoDetalle> darAltaPrestamo(PrestamoDto prestamoDto) throws ClientNoExisteException, CuentaNoExisteException {
+        try (MapaDeIdentidad.Alcance alcance = MapaDeIdentidad.abrir()) {
+            Cliente cliente = obtenerClientePorDni(prestamoDto.getNumeroCliente());
+            validarCuentaCliente(cliente.getDni(), prestamoDto.getTipoMoneda());
+            //si el monto entra en el limite preaprobado (en pesos) no se vuelve a calcular el score.
+            //el monto se reserva antes del alta, asi dos altas a la vez no usan el mismo disponible
+            PreAprobacion preAprobacion = TipoMoneda.fromString(prestamoDto.getTipoMoneda()) == TipoMoneda.PESOS
+                    ? preAprobacionService.consumir(cliente.getDni(), prestamoDto.getMontoPrestamo()) : null;
+            CompletableFuture<Integer> score = preAprobacion != null
+                    ? CompletableFuture.completedFuture(preAprobacion.getScore())
+                    : creditScoreService.validarScoreAsync(cliente);
+            MapaDeIdentidad mapa = alcance.getMapa();
+            CompletableFuture<PrestamoDetalle> alta = score.thenApply(puntaje -> {
+                try (MapaDeIdentidad.Alcance continuacion = mapa.continuar()) {
+                    PrestamoDetalle detalle = registrarPrestamo(prestamoDto, puntaje);
+                    if (preAprobacion == null && detalle.getEstado() == LoanStatus.APROBADO) {
+                        preAprobacionService.anular(cliente.getDni());
+                    }
+                    return detalle;
+                } catch (ClientNoExisteException | CuentaNoExisteException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            if (preAprobacion == null) {
+                return alta;
+            }
+            //si el alta falla o no se aprueba se devuelve lo reservado
+            return alta.whenComplete((detalle, error) -> {
+                if (error != null || detalle.getEstado() != LoanStatus.APROBADO) {
+                    preAprobacionService.devolver(preAprobacion, prestamoDto.getMontoPrestamo());
+                }
+            });
+        }
+    }
 
-        int score = creditScoreService.calcularScore(cliente.getPrestamos());
+    //corre en el hilo que completo el score. no toma el lock del cliente: el desembolso es un movimiento
+    //en el libro de la cuenta, el prestamo es una fila nueva y agregarPrestamo se protege solo.
+    //si el prestamo no se puede guardar el desembolso se anula
+    private PrestamoDetalle registrarPrestamo(PrestamoDto prestamoDto, int score) throws ClientNoExisteException, CuentaNoExisteException {
         Prestamo prestamo = crearPrestamo(prestamoDto, score);
 
+        Movimiento desembolso = null;
         if (prestamo.getLoanStatus() == LoanStatus.APROBADO) {
-            planPagos(prestamo);
             System.out.println("\nID del prestamo: " + prestamo.getId());
-            cuentaService.actualizarBalance(prestamo);
+            desembolso = cuentaService.actualizarBalance(prestamo);
         }
-        prestamoDao.savePrestamo(prestamo);
+        perfilCrediticioService.cargarPerfil(prestamo.getDniTitular());
+        guardarOAnular(prestamo, desembolso);
+        perfilCrediticioService.registrarAlta(prestamo);
         clienteService.agregarPrestamo(prestamo, prestamo.getDniTitular());
 
         return new PrestamoDetalle(prestamo.getLoanStatus(), prestamo.getMensaje(), prestamo.getPlanDePagos());
@@ -72,9 +137,18 @@ public class PrestamoServiceImp implements PrestamoService {
     //PUT - paga cuota del prestamo -> OK (refactorizado)
     @Override
     public PrestamoRespuesta pagarCuota(PrestamoDto prestamoDto, long id) throws PrestamoNoExisteException, CuentaNoExisteException, ClientNoExisteException {
-        Prestamo prestamo = obtenerPrestamoAprobado(prestamoDto.getNumeroCliente(), id);
-        validarCuentaCliente(prestamoDto.getNumeroCliente(), prestamoDto.getTipoMoneda());
-        pagarCuotaPrestamo(prestamo);
+        //dos pagos a la vez del mismo prestamo leerian el mismo saldo: el pago se hace con el lock del cliente.
+        //un conflicto de version (otro proceso pago antes) sale como 409 sin tocar el perfil crediticio
+        Lock lock = bloqueoPorCliente.obtener(prestamoDto.getNumeroCliente());
+        lock.lock();
+        try {
+            Prestamo prestamo = obtenerPrestamoAprobado(prestamoDto.getNumeroCliente(), id);
+            //la cuota se debita en la moneda del prestamo, no en la que venga en el pedido
+            validarCuentaCliente(prestamoDto.getNumeroCliente(), prestamo.getMoneda());
+            pagarCuotaPrestamo(prestamo);
+        } finally {
+            lock.unlock();
+        }
 
         List<Prestamo> prestamosAprobados = prestamoDao.buscarPrestamoPorCliente(prestamoDto.getNumeroCliente()).stream()
                 .filter(p -> p.getLoanStatus() == LoanStatus.APROBADO)
@@ -104,13 +178,43 @@ public class PrestamoServiceImp implements PrestamoService {
     //DELETE - cierra el prestamo (refactorizado)
     @Override
     public Prestamo cerrarPrestamo(long id) throws PrestamoNoExisteException {
-        Prestamo prestamo = obtenerPrestamoPorId(id);
-        prestamo.setLoanStatus(LoanStatus.CERRADO);
-        prestamo.setPagosRealizados(prestamo.getPlazoMeses());
-        prestamo.setSaldoRestante(0.0);
-        prestamo.setPlanDePagos(null);
-        prestamoDao.savePrestamo(prestamo);
-        return prestamo;
+        //el titular sale del prestamo; se vuelve a leer con el lock por si se pago una cuota en el medio
+        Lock lock = bloqueoPorCliente.obtener(obtenerPrestamoPorId(id).getDniTitular());
+        lock.lock();
+        try {
+            Prestamo prestamo = obtenerPrestamoPorId(id);
+            perfilCrediticioService.cargarPerfil(prestamo.getDniTitular());
+            PerfilCrediticio anterior = PerfilCrediticio.aporte(prestamo);
+            prestamo.setLoanStatus(LoanStatus.CERRADO);
+            prestamo.setPagosRealizados(prestamo.getPlazoMeses());
+            prestamo.setSaldoRestante(0.0);
+            prestamoDao.savePrestamo(prestamo);
+            perfilCrediticioService.registrarCambio(anterior, prestamo);
+            return prestamo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //POST - simula prestamos sin guardarlos ni tocar balances; los escenarios se reparten en el pool fork-join
+    @Override
+    public List<Simulacion> simularPrestamos(List<PrestamoDto> escenarios) {
+        //cada cliente se busca y se puntua una sola vez por lote
+        Map<Long, Cliente> clientes = new HashMap<>();
+        Map<Long, Integer> scores = new HashMap<>();
+        for (PrestamoDto escenario : escenarios) {
+            long dni = escenario.getNumeroCliente();
+            if (!clientes.containsKey(dni)) {
+                Cliente cliente = buscarClienteSiExiste(dni);
+                clientes.put(dni, cliente);
+                if (cliente != null) {
+                    scores.put(dni, creditScoreService.obtenerScore(cliente));
+                }
+            }
+        }
+        Simulacion[] simulaciones = new Simulacion[escenarios.size()];
+        ForkJoinPool.commonPool().invoke(new SimularEscenarios(escenarios, clientes, scores, simulaciones, 0, simulaciones.length));
+        return Arrays.asList(simulaciones);
     }
 
     //otros metodos
@@ -123,18 +227,83 @@ public class PrestamoServiceImp implements PrestamoService {
     }
 
     public void validarCuentaCliente(long dni, String tipoMoneda) throws CuentaNoExisteException, ClientNoExisteException {
+        validarCuentaCliente(dni, TipoMoneda.fromString(tipoMoneda));
+    }
+
+    private void validarCuentaCliente(long dni, TipoMoneda moneda) throws CuentaNoExisteException, ClientNoExisteException {
         Cliente cliente = clienteService.buscarClientePorDni(dni);
 
         if (cliente.getCuentas().isEmpty()) {
             throw new CuentaNoExisteException("El cliente no tiene cuentas registradas.");
         }
 
-        boolean cuentaValida = cliente.getCuentas().stream()
+        if (!tieneCuentaCorriente(cliente, moneda)) {
+            throw new CuentaNoExisteException("El cliente no tiene una cuenta corriente en la moneda especificada.");
+        }
+    }
+
+    private boolean tieneCuentaCorriente(Cliente cliente, TipoMoneda moneda) {
+        return cliente.getCuentas().stream()
                 .anyMatch(cuenta -> cuenta.getTipoCuenta() == TipoCuenta.CUENTA_CORRIENTE
-                && cuenta.getTipoMoneda() == TipoMoneda.fromString(tipoMoneda));
+                && cuenta.getTipoMoneda() == moneda);
+    }
 
-        if (!cuentaValida) {
-            throw new CuentaNoExisteException("El cliente no tiene una cuenta corriente en la moneda especificada.");
+    private Cliente buscarClienteSiExiste(long dni) {
+        try {
+            return clienteService.buscarClientePorDni(dni);
+        } catch (ClientNoExisteException e) {
+            return null;
+        }
+    }
+
+    //el mismo calculo que el alta pero sin guardar; sin cliente o sin cuenta no hay prediccion
+    private Simulacion simular(PrestamoDto escenario, Cliente cliente, Integer score) {
+        Prestamo prestamo = new Prestamo(escenario, score != null ? score : 0);
+        Cotizacion cotizacion = cotizar(prestamo);
+        aplicarCotizacion(prestamo, cotizacion);
+        Simulacion simulacion = new Simulacion(prestamo, cotizacion);
+        if (cliente == null) {
+            simulacion.setEstado(null);
+            simulacion.setMensaje("El cliente con DNI: " + escenario.getNumeroCliente() + " no existe.");
+        } else if (!tieneCuentaCorriente(cliente, prestamo.getMoneda())) {
+            simulacion.setEstado(null);
+            simulacion.setMensaje("El cliente no tiene una cuenta corriente en la moneda especificada.");
+        }
+        return simulacion;
+    }
+
+    //divide el rango de escenarios a la mitad hasta UMBRAL_SIMULACION y escribe cada resultado en su posicion
+    private class SimularEscenarios extends RecursiveAction {
+        private final List<PrestamoDto> escenarios;
+        private final Map<Long, Cliente> clientes;
+        private final Map<Long, Integer> scores;
+        private final Simulacion[] simulaciones;
+        private final int desde;
+        private final int hasta;
+
+        SimularEscenarios(List<PrestamoDto> escenarios, Map<Long, Cliente> clientes, Map<Long, Integer> scores,
+                          Simulacion[] simulaciones, int desde, int hasta) {
+            this.escenarios = escenarios;
+            this.clientes = clientes;
+            this.scores = scores;
+            this.simulaciones = simulaciones;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL_SIMULACION) {
+                for (int i = desde; i < hasta; i++) {
+                    PrestamoDto escenario = escenarios.get(i);
+                    long dni = escenario.getNumeroCliente();
+                    simulaciones[i] = simular(escenario, clientes.get(dni), scores.get(dni));
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new SimularEscenarios(escenarios, clientes, scores, simulaciones, desde, medio),
+                    new SimularEscenarios(escenarios, clientes, scores, simulaciones, medio, hasta));
         }
     }
 
@@ -155,43 +324,47 @@ public class PrestamoServiceImp implements PrestamoService {
 
     private Prestamo crearPrestamo(PrestamoDto prestamoDto, int score) {
         Prestamo prestamo = new Prestamo(prestamoDto, score);
-        double montoSolicitado = prestamoDto.getMontoPrestamo();
-        double montoConInteres = calcularInteres(prestamo);
-        prestamo.setMontoSolicitado(montoSolicitado);
-        prestamo.setMonto(montoConInteres);
-        prestamo.setSaldoRestante(calcularSaldoRestante(prestamo));
+        prestamo.setId(asignadorIds.siguiente(Secuencia.PRESTAMO));
+        aplicarCotizacion(prestamo, cotizar(prestamo));
         return prestamo;
     }
 
-    //ok - refactorizado
-    private double calcularInteres(Prestamo prestamo) {
-        double monto = prestamo.getMonto();
-        double tiempo = prestamo.getPlazoMeses() / 12.0;
-        double interes = monto * prestamo.getTasaInteres() * tiempo;
-        return monto + interes;
+    private void aplicarCotizacion(Prestamo prestamo, Cotizacion cotizacion) {
+        prestamo.setMonto(cotizacion.getTotal());
+        prestamo.setSaldoRestante(calcularSaldoRestante(prestamo, cotizacion));
     }
 
-    //ok
-    private void planPagos(Prestamo prestamo) {
-        double cuotaMensual = prestamo.getMonto() / prestamo.getPlazoMeses();
-        List<PlanPago> plan = new ArrayList<>();
-        for (int i = 1; i <= prestamo.getPlazoMeses(); i++) {
-            plan.add(new PlanPago(i, cuotaMensual));
-        }
-        prestamo.setPlanDePagos(plan);
+    //ok - el total y el plan dependen del metodo de amortizacion; se memorizan en la cache de cotizaciones
+    private Cotizacion cotizar(Prestamo prestamo) {
+        return cotizacionService.cotizar(prestamo.getMontoSolicitado(), prestamo.getPlazoMeses(), prestamo.getTasaInteres(),
+                prestamo.getMoneda(), prestamo.getMetodoAmortizacion());
     }
 
-    //ok
-    private void pagarCuotaPrestamo(Prestamo prestamo) {
-        if (prestamo.getPlanDePagos().isEmpty()) {
+    //ok - la cuota se debita de la cuenta corriente antes de guardar el pago; si el guardado falla se anula el debito
+    private void pagarCuotaPrestamo(Prestamo prestamo) throws CuentaNoExisteException {
+        List<PlanPago> plan = prestamo.getPlanDePagos();
+        if (plan.isEmpty()) {
             throw new IllegalArgumentException("No hay cuotas para pagar.");
         }
-        PlanPago primerCuota = prestamo.getPlanDePagos().get(0);
-        double montoCuota = primerCuota.getMontoCuota();
+        double montoCuota = plan.get(0).getMontoCuota();
+        perfilCrediticioService.cargarPerfil(prestamo.getDniTitular());
+        PerfilCrediticio anterior = PerfilCrediticio.aporte(prestamo);
+        Movimiento debito = cuentaService.debitarCuota(prestamo, montoCuota);
         prestamo.setSaldoRestante(prestamo.getSaldoRestante() - montoCuota);
-        prestamo.getPlanDePagos().remove(0);
         prestamo.setPagosRealizados(prestamo.getPagosRealizados() + 1);
-        prestamoDao.savePrestamo(prestamo);
+        guardarOAnular(prestamo, debito);
+        perfilCrediticioService.registrarCambio(anterior, prestamo);
+    }
+
+    private void guardarOAnular(Prestamo prestamo, Movimiento movimiento) throws CuentaNoExisteException {
+        try {
+            prestamoDao.savePrestamo(prestamo);
+        } catch (RuntimeException e) {
+            if (movimiento != null) {
+                cuentaService.anularMovimiento(movimiento);
+            }
+            throw e;
+        }
     }
 
     //ok
@@ -209,9 +382,11 @@ public class PrestamoServiceImp implements PrestamoService {
     }
 
     //OK
-    private double calcularSaldoRestante(Prestamo prestamo) {
-        double montoCuota = prestamo.getMonto() / prestamo.getPlazoMeses();
-        double saldoRestante = prestamo.getMonto() - (montoCuota * prestamo.getPagosRealizados());
+    private double calcularSaldoRestante(Prestamo prestamo, Cotizacion cotizacion) {
+        double saldoRestante = cotizacion.getTotal();
+        for (int i = 1; i <= prestamo.getPagosRealizados(); i++) {
+            saldoRestante -= cotizacion.getCuota(i);
+        }
         return Math.max(saldoRestante, 0);
     }
 
@@ -0,0 +1,153 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.MotorAlmacenamiento;
+import ar.edu.utn.frbb.tup.persistence.imp.PreAprobacionDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorJdbc;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorMemoria;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//la misma carga sobre cada motor de almacenamiento (tup.persistence.backend): lecturas sueltas,
+//lectura y reescritura de un prestamo, findAll de un lote de ids y una particion de preaprobaciones con saveAll.
+//en h2 el lote es una consulta con ANY(?) y el saveAll un executeBatch; en memoria son gets y computes
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlmacenamientoBenchmark {
+    private static final long ID_BASE = 2_000_000_000L;
+
+    @Param({"memoria", "h2"})
+    private String backend;
+
+    @Param({"10000"})
+    private int prestamos;
+
+    @Param({"256"})
+    private int lote;
+
+    private Path directorio;
+    private MotorAlmacenamiento motor;
+    private PrestamoDaoImp prestamoDao;
+    private PreAprobacionDaoImp preAprobacionDao;
+    private List<PreAprobacion> particion;
+
+    @Setup(Level.Trial)
+    public void cargar() throws IOException {
+        directorio = Files.createTempDirectory("tup-almacenamiento");
+        motor = "h2".equals(backend)
+                ? new MotorJdbc("jdbc:h2:file:" + directorio.resolve("tup"), 8)
+                : new MotorMemoria();
+        prestamoDao = new PrestamoDaoImp();
+        preAprobacionDao = new PreAprobacionDaoImp();
+        prestamoDao.vaciar();
+        preAprobacionDao.vaciar();
+        prestamoDao.setMotor(motor);
+        preAprobacionDao.setMotor(motor);
+        for (int i = 0; i < prestamos; i++) {
+            prestamoDao.savePrestamo(crearPrestamo(ID_BASE + i));
+        }
+        particion = new ArrayList<>(lote);
+        for (int i = 0; i < lote; i++) {
+            particion.add(new PreAprobacion(30_000_000L + i, 700, 250000.0, LocalDate.now()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        prestamoDao.vaciar();
+        preAprobacionDao.vaciar();
+        motor.cerrar();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object leer1Hilo() {
+        return prestamoDao.findPrestamo(idAlAzar());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object leer4Hilos() {
+        return prestamoDao.findPrestamo(idAlAzar());
+    }
+
+    //un solo hilo: con varios la reescritura chocaria con la version de otro
+    @Benchmark
+    @Threads(1)
+    public Object leerYGuardar() {
+        Prestamo prestamo = prestamoDao.findPrestamo(idAlAzar());
+        prestamo.setSaldoRestante(prestamo.getSaldoRestante() - 1);
+        prestamoDao.savePrestamo(prestamo);
+        return prestamo;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object leerLote() {
+        return prestamoDao.findAll(idsAlAzar());
+    }
+
+    //los mismos ids de a uno, para comparar con leerLote
+    @Benchmark
+    @Threads(1)
+    public Object leerLoteDeAUno() {
+        List<Prestamo> encontrados = new ArrayList<>(lote);
+        for (long id : idsAlAzar()) {
+            encontrados.add(prestamoDao.findPrestamo(id));
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void guardarLote() {
+        preAprobacionDao.saveAll(particion);
+    }
+
+    private long[] idsAlAzar() {
+        long[] ids = new long[lote];
+        for (int i = 0; i < lote; i++) {
+            ids[i] = idAlAzar();
+        }
+        return ids;
+    }
+
+    private long idAlAzar() {
+        return ID_BASE + ThreadLocalRandom.current().nextInt(prestamos);
+    }
+
+    private static Prestamo crearPrestamo(long id) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(10_000_000L + (id % 1_000_000L));
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0);
+        return prestamo;
+    }
+}
@@ -0,0 +1,75 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.PlanPago;
+import ar.edu.utn.frbb.tup.model.amortizacion.LoteCotizacion;
+import ar.edu.utn.frbb.tup.model.amortizacion.MotorAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//camino caliente de las cotizaciones: tiempo por cotizacion (capital, tasa, plazo) con el lote completo,
+//fila por fila con cuota() y total(), y el plan de un prestamo en un double[] contra una lista de PlanPago
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmortizacionBenchmark {
+    private static final int COTIZACIONES = 4096;
+
+    @Param({"DIRECTO", "FRANCES", "ALEMAN"})
+    private MetodoAmortizacion metodo;
+
+    private MotorAmortizacion motor;
+    private LoteCotizacion lote;
+    private double[] plan;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        motor = metodo.getMotor();
+        Random random = new Random(42);
+        lote = new LoteCotizacion(COTIZACIONES);
+        for (int i = 0; i < COTIZACIONES; i++) {
+            lote.agregar(10_000 + random.nextInt(990_000), 0.20 + random.nextInt(60) / 100.0, 1 + random.nextInt(72));
+        }
+        plan = new double[72];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COTIZACIONES)
+    public LoteCotizacion cotizarLote() {
+        motor.cotizar(lote);
+        return lote;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COTIZACIONES)
+    public void cotizarPorFila(Blackhole blackhole) {
+        for (int i = 0; i < COTIZACIONES; i++) {
+            blackhole.consume(motor.cuota(lote.getCapital(i), lote.getTasa(i), lote.getPlazo(i), 1));
+            blackhole.consume(motor.total(lote.getCapital(i), lote.getTasa(i), lote.getPlazo(i)));
+        }
+    }
+
+    //plan completo de 72 cuotas
+    @Benchmark
+    public double[] planEnArreglo() {
+        motor.cuotas(150000.0, 0.40, 72, plan);
+        return plan;
+    }
+
+    @Benchmark
+    public List<PlanPago> planEnLista() {
+        List<PlanPago> lista = new ArrayList<>();
+        for (int i = 1; i <= 72; i++) {
+            lista.add(new PlanPago(i, motor.cuota(150000.0, 0.40, 72, i)));
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,95 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.persistence.ClienteDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
+import ar.edu.utn.frbb.tup.persistence.imp.ClienteDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import ar.edu.utn.frbb.tup.persistence.snapshot.SnapshotManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//tiempo desde que arranca la capa de persistencia hasta responder find(dni) con 1M clientes,
+//reproduciendo todo el journal (JOURNAL) o cargando un snapshot (SNAPSHOT).
+//cada cliente se guarda varias veces, asi el journal tiene mas registros que el snapshot como en uso real
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ArranqueBenchmark {
+    private static final int CLIENTES = 1_000_000;
+    private static final long DNI_BASE = 10_000_000L;
+
+    @Param({"JOURNAL", "SNAPSHOT"})
+    private String modo;
+
+    private Path directorio;
+
+    @Setup(Level.Trial)
+    public void cargar() throws IOException {
+        directorio = Files.createTempDirectory("arranque");
+        try (AnnotationConfigApplicationContext contexto = crearContexto()) {
+            ClienteDao clienteDao = contexto.getBean(ClienteDao.class);
+            for (int i = 0; i < CLIENTES; i++) {
+                clienteDao.save(crearCliente(DNI_BASE + i));
+            }
+            if ("SNAPSHOT".equals(modo)) {
+                contexto.getBean(SnapshotManager.class).tomarSnapshot();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void borrar() throws IOException {
+        JournalBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public Cliente arrancarYBuscar() {
+        try (AnnotationConfigApplicationContext contexto = crearContexto()) {
+            return contexto.getBean(ClienteDao.class).find(DNI_BASE + CLIENTES - 1, PlanCarga.DIFERIDO);
+        }
+    }
+
+    private AnnotationConfigApplicationContext crearContexto() {
+        Map<String, Object> propiedades = new HashMap<>();
+        propiedades.put("tup.journal.enabled", "true");
+        propiedades.put("tup.journal.directorio", directorio.toString());
+        propiedades.put("tup.journal.fsync", "false");
+        propiedades.put("tup.snapshot.enabled", "true");
+        AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext();
+        contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", propiedades));
+        contexto.register(Journal.class, SnapshotManager.class, ClienteDaoImp.class, CuentaDaoImp.class, PrestamoDaoImp.class);
+        contexto.refresh();
+        return contexto;
+    }
+
+    private static Cliente crearCliente(long dni) {
+        Cliente cliente = new Cliente();
+        cliente.setDni(dni);
+        cliente.setNombre("Brenda");
+        cliente.setApellido("Yañez");
+        cliente.setTelefono("2916897129");
+        cliente.setEmail("brenda@gmail.com");
+        cliente.setFechaNacimiento(LocalDate.of(1997, 4, 9));
+        cliente.setFechaAlta(LocalDate.of(2024, 6, 1));
+        cliente.setTipoPersona(TipoPersona.PERSONA_FISICA);
+        cliente.setBanco("Provincia");
+        cliente.setActivo(true);
+        return cliente;
+    }
+}
@@ -0,0 +1,48 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+//contencion de los locks por cliente con 8 hilos: una seccion critica corta (lectura-modificacion-escritura
+//de un saldo) bajo el lock del dni. franjas=1 equivale a un unico lock global; clientes=1 es el peor caso
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BloqueoBenchmark {
+    @Param({"1", "256"})
+    private int franjas;
+
+    @Param({"1", "1024"})
+    private int clientes;
+
+    private BloqueoPorCliente bloqueo;
+    private long[] saldos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        bloqueo = new BloqueoPorCliente(franjas);
+        saldos = new long[clientes];
+    }
+
+    @Benchmark
+    public void actualizar() {
+        int cliente = ThreadLocalRandom.current().nextInt(clientes);
+        Lock lock = bloqueo.obtener(30_000_000L + cliente);
+        lock.lock();
+        try {
+            saldos[cliente] += 100;
+            Blackhole.consumeCPU(50);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
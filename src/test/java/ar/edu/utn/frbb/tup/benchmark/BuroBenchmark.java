@@ -0,0 +1,82 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.service.buro.BuroSimulado;
+import ar.edu.utn.frbb.tup.service.buro.PoliticaFallback;
+import ar.edu.utn.frbb.tup.service.buro.ProveedorScore;
+import ar.edu.utn.frbb.tup.service.imp.BuroServiceImp;
+import ar.edu.utn.frbb.tup.service.imp.CreditScoreServiceImp;
+import ar.edu.utn.frbb.tup.service.imp.PerfilCrediticioServiceImp;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+//pedidos de score por segundo con buros lentos: SOLICITUDES pedidos juntos, esperando uno por uno
+//(como un hilo de tomcat bloqueado en cada consulta) o lanzados todos y esperados al final
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuroBenchmark {
+    private static final int SOLICITUDES = 64;
+
+    @Param({"10", "50"})
+    private long latenciaMs;
+
+    @Param({"3"})
+    private int proveedores;
+
+    private BuroServiceImp buroService;
+    private CreditScoreServiceImp creditScoreService;
+    private Cliente[] clientes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<ProveedorScore> buros = new ArrayList<>();
+        for (int i = 1; i <= proveedores; i++) {
+            buros.add(new BuroSimulado("buro-" + i, latenciaMs));
+        }
+        buroService = new BuroServiceImp(buros, 1000, SOLICITUDES * proveedores, SOLICITUDES * proveedores,
+                8, SOLICITUDES, 5, 10000);
+        //clientes sin prestamos: el costo es solo el de los buros
+        PerfilCrediticioServiceImp perfiles = new PerfilCrediticioServiceImp(new PrestamoDaoImp());
+        creditScoreService = new CreditScoreServiceImp(perfiles, buroService, PoliticaFallback.INTERNO);
+        clientes = new Cliente[SOLICITUDES];
+        for (int i = 0; i < SOLICITUDES; i++) {
+            clientes[i] = new Cliente();
+            clientes[i].setDni(30_000_000L + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        buroService.cerrar();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SOLICITUDES)
+    public void bloqueante(Blackhole blackhole) {
+        for (Cliente cliente : clientes) {
+            blackhole.consume(creditScoreService.obtenerScoreAsync(cliente).join());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SOLICITUDES)
+    public void asincronico(Blackhole blackhole) {
+        List<CompletableFuture<Integer>> scores = new ArrayList<>(SOLICITUDES);
+        for (Cliente cliente : clientes) {
+            scores.add(creditScoreService.obtenerScoreAsync(cliente));
+        }
+        for (CompletableFuture<Integer> score : scores) {
+            blackhole.consume(score.join());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//cartera de 5M prestamos a 12 cuotas: latencia (p99 en la salida de SampleTime) de una carga mixta
+//findPrestamo/savePrestamo, y al terminar el heap vivo, la memoria directa y el tiempo de GC de la medicion
+//segun las entidades esten en el heap (OBJETOS), codificadas en el heap (COMPACTO) o fuera del heap (OFF_HEAP)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class CarteraBenchmark {
+    private static final long ID_BASE = 2_000_000_000L;
+
+    @Param({"OBJETOS", "COMPACTO", "OFF_HEAP"})
+    private String modo;
+
+    @Param({"5000000"})
+    private int prestamos;
+
+    //porcentaje de escrituras sobre el total de operaciones
+    @Param({"20"})
+    private int escrituras;
+
+    private AnnotationConfigApplicationContext contexto;
+    private PrestamoDao prestamoDao;
+    private long gcTiempoInicial;
+    private long gcCantidadInicial;
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        Map<String, Object> propiedades = new HashMap<>();
+        propiedades.put("tup.persistence.compact", String.valueOf("COMPACTO".equals(modo)));
+        propiedades.put("tup.persistence.offheap", String.valueOf("OFF_HEAP".equals(modo)));
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", propiedades));
+        contexto.register(PrestamoDaoImp.class);
+        contexto.refresh();
+        prestamoDao = contexto.getBean(PrestamoDao.class);
+        for (int i = 0; i < prestamos; i++) {
+            prestamoDao.savePrestamo(crearPrestamo(ID_BASE + i, 0));
+        }
+        System.gc();
+        gcTiempoInicial = tiempoGc();
+        gcCantidadInicial = cantidadGc();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportar() {
+        long gcTiempo = tiempoGc() - gcTiempoInicial;
+        long gcCantidad = cantidadGc() - gcCantidadInicial;
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long directa = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                directa = pool.getMemoryUsed();
+            }
+        }
+        System.out.println();
+        System.out.println(modo + ": heap vivo " + heap / (1024 * 1024) + " MB, memoria directa " + directa / (1024 * 1024)
+                + " MB, GC durante la medicion " + gcTiempo + " ms en " + gcCantidad + " pausas");
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object operar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = ID_BASE + random.nextInt(prestamos);
+        if (random.nextInt(100) < escrituras) {
+            Prestamo prestamo = crearPrestamo(id, random.nextInt(12));
+            prestamoDao.savePrestamo(prestamo);
+            return prestamo;
+        }
+        return prestamoDao.findPrestamo(id);
+    }
+
+    private static long tiempoGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+        return total;
+    }
+
+    private static long cantidadGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionCount();
+        }
+        return total;
+    }
+
+    private static Prestamo crearPrestamo(long id, int pagos) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(10_000_000L + (id % 1_000_000L));
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0 - 17500.0 * pagos);
+        prestamo.setPagosRealizados(pagos);
+        return prestamo;
+    }
+}
@@ -0,0 +1,82 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.persistence.imp.ClienteDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//GET /api/cliente sobre bancos grandes: tiempo de findAll con cada cliente con una cuenta y un prestamo.
+//para ver la memoria asignada por llamada correr con -prof gc (gc.alloc.rate.norm)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ClienteDaoBenchmark {
+    private static final long DNI_BASE = 10_000_000L;
+
+    @Param({"100000", "1000000"})
+    private int clientes;
+
+    private ClienteDaoImp clienteDao;
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        MovimientoDaoImp movimientoDao = new MovimientoDaoImp();
+        CuentaDaoImp cuentaDao = new CuentaDaoImp(movimientoDao);
+        PrestamoDaoImp prestamoDao = new PrestamoDaoImp();
+        clienteDao = new ClienteDaoImp(cuentaDao, prestamoDao);
+        for (int i = 0; i < clientes; i++) {
+            long dni = DNI_BASE + i;
+            Cuenta cuenta = new Cuenta(2_000_000_000L + i, dni, LocalDate.of(2024, 1, 1), 1000.0,
+                    TipoCuenta.CUENTA_CORRIENTE, TipoMoneda.PESOS, true);
+            cuentaDao.save(cuenta);
+            Prestamo prestamo = new Prestamo();
+            prestamo.setId(3_000_000_000L + i);
+            prestamo.setDniTitular(dni);
+            prestamo.setMontoSolicitado(150000.0);
+            prestamo.setMonto(210000.0);
+            prestamo.setMoneda(TipoMoneda.PESOS);
+            prestamo.setPlazoMeses(12);
+            prestamo.setLoanStatus(LoanStatus.APROBADO);
+            prestamo.setSaldoRestante(210000.0);
+            prestamoDao.savePrestamo(prestamo);
+
+            Cliente cliente = new Cliente();
+            cliente.setDni(dni);
+            cliente.setNombre("Nombre");
+            cliente.setApellido("Apellido");
+            cliente.setTipoPersona(TipoPersona.PERSONA_FISICA);
+            cliente.setFechaAlta(LocalDate.of(2024, 1, 1));
+            cliente.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+            cliente.setBanco("Nacion");
+            cliente.setActivo(true);
+            cliente.addCuenta(cuenta);
+            cliente.addPrestamo(prestamo);
+            clienteDao.save(cliente);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void vaciar() {
+        clienteDao.vaciar();
+    }
+
+    @Benchmark
+    public List<Cliente> findAll() {
+        return clienteDao.findAll();
+    }
+}
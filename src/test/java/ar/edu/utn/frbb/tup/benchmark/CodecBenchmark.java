@@ -0,0 +1,66 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.persistence.codec.ClienteEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.CuentaEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.EntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.BaseEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.ClienteEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.CuentaEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+//velocidad de encode/decode de cada codec; los bytes por entidad se imprimen al preparar cada fork
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"CLIENTE", "CUENTA", "PRESTAMO"})
+    private String entidad;
+
+    private EntityCodec<BaseEntity> codec;
+    private BaseEntity entity;
+    private byte[] codificada;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void preparar() {
+        switch (entidad) {
+            case "CLIENTE":
+                codec = (EntityCodec<BaseEntity>) (EntityCodec<?>) new ClienteEntityCodec();
+                entity = new ClienteEntity(40860006L, "F", "Brenda", "Yañez", "2916897129", "brendayanez@gmail.com",
+                        LocalDate.of(2024, 6, 1), LocalDate.of(1997, 4, 9), "Provincia",
+                        new HashSet<>(Arrays.asList(2_100_000_001L, 2_100_000_002L)), new HashSet<>(Arrays.asList(2_300_000_001L)), true);
+                break;
+            case "CUENTA":
+                codec = (EntityCodec<BaseEntity>) (EntityCodec<?>) new CuentaEntityCodec();
+                entity = new CuentaEntity(2_100_000_001L, 40860006L, "A", "P", 150000.0, LocalDate.of(2024, 6, 1), true);
+                break;
+            default:
+                codec = (EntityCodec<BaseEntity>) (EntityCodec<?>) new PrestamoEntityCodec();
+                entity = new PrestamoEntity(2_300_000_001L, 40860006L, 150000.0, 210000.0, "P", 12, "A", 210000.0, 0, "D");
+        }
+        codificada = codec.encode(entity);
+        System.out.println("Bytes por " + entidad + ": " + codificada.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(entity);
+    }
+
+    @Benchmark
+    public BaseEntity decode() {
+        return codec.decode(ByteBuffer.wrap(codificada));
+    }
+}
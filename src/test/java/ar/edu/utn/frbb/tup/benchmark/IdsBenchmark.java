@@ -0,0 +1,49 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
+import ar.edu.utn.frbb.tup.persistence.imp.SecuenciaDaoImp;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//ids de altas con 8 hilos a la vez: el asignador por bloques contra el id aleatorio de antes (un Random
+//nuevo por objeto). bloque=1 va a la tabla de secuencias en cada id, como una secuencia sin bloques
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdsBenchmark {
+    @Param({"1", "64", "1024"})
+    private int bloque;
+
+    private SecuenciaDaoImp secuenciaDao;
+    private AsignadorIds asignadorIds;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        secuenciaDao = new SecuenciaDaoImp();
+        secuenciaDao.vaciar();
+        asignadorIds = new AsignadorIds(secuenciaDao, bloque);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        secuenciaDao.vaciar();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long asignador() {
+        return asignadorIds.siguiente(Secuencia.PRESTAMO);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long aleatorio() {
+        return Math.abs(new Random().nextLong() % 1_000_000_000L) + 2_000_000_000L;
+    }
+}
@@ -0,0 +1,67 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+//escrituras con fsync por lote: al subir los hilos cada fsync confirma mas registros
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+    private final PrestamoEntityCodec codec = new PrestamoEntityCodec();
+    private final AtomicLong ids = new AtomicLong(2_000_000_000L);
+    private Path directorio;
+    private Journal journal;
+    private byte[] datos;
+
+    @Setup(Level.Trial)
+    public void abrir() throws IOException {
+        directorio = Files.createTempDirectory("journal-bench");
+        journal = new Journal(true, directorio.toString(), true);
+        journal.abrir();
+        datos = codec.encode(new PrestamoEntity(ids.get(), 40860006L, 150000.0, 210000.0, "P", 12, "A", 210000.0, 0, "D"));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        journal.cerrar();
+        borrar(directorio);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void registrar1Hilo() {
+        journal.esperar(journal.registrar("PRESTAMO", ids.incrementAndGet(), datos));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void registrar16Hilos() {
+        journal.esperar(journal.registrar("PRESTAMO", ids.incrementAndGet(), datos));
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void registrar64Hilos() {
+        journal.esperar(journal.registrar("PRESTAMO", ids.incrementAndGet(), datos));
+    }
+
+    static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//tiempo de recuperacion por registro de un journal de 3M registros (resultado en ns/registro)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JournalReplayBenchmark {
+    private static final int REGISTROS = 3_000_000;
+    //los prestamos se guardan varias veces (alta y pagos), como en el journal real
+    private static final int PRESTAMOS = 1_000_000;
+
+    private final PrestamoEntityCodec codec = new PrestamoEntityCodec();
+    private Path directorio;
+
+    @Setup(Level.Trial)
+    public void escribir() throws IOException {
+        directorio = Files.createTempDirectory("journal-replay");
+        Journal journal = new Journal(true, directorio.toString(), false);
+        journal.abrir();
+        for (int i = 0; i < REGISTROS; i++) {
+            long id = 2_000_000_000L + (i % PRESTAMOS);
+            int pagos = i / PRESTAMOS;
+            journal.registrar("PRESTAMO", id, codec.encode(crearPrestamo(id, pagos)));
+        }
+        journal.cerrar();
+    }
+
+    @TearDown(Level.Trial)
+    public void borrar() throws IOException {
+        JournalBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGISTROS)
+    public Map<Long, PrestamoEntity> recuperar() {
+        Map<Long, PrestamoEntity> tabla = new ConcurrentHashMap<>(PRESTAMOS * 2);
+        Journal journal = new Journal(true, directorio.toString(), false);
+        journal.registrarTabla("PRESTAMO", (id, datos) -> tabla.put(id, codec.decode(datos)));
+        journal.abrir();
+        journal.cerrar();
+        return tabla;
+    }
+
+    private static PrestamoEntity crearPrestamo(long id, int pagos) {
+        return new PrestamoEntity(id, 10_000_000L + id % 1_000_000L, 150000.0, 210000.0, "P", 12, "A", 210000.0 - 17500.0 * pagos, pagos, "D");
+    }
+}
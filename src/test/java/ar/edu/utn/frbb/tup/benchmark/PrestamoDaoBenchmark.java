@@ -0,0 +1,81 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//carga mixta savePrestamo/findPrestamo sobre el store en memoria.
+//comparar ops/s de mixto1Hilo, mixto4Hilos y mixtoTodosLosHilos para ver como escala con los nucleos
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrestamoDaoBenchmark {
+    private static final long ID_BASE = 2_000_000_000L;
+
+    @Param({"100000"})
+    private int prestamos;
+
+    //porcentaje de escrituras sobre el total de operaciones
+    @Param({"20"})
+    private int escrituras;
+
+    private PrestamoDaoImp prestamoDao;
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        prestamoDao = new PrestamoDaoImp();
+        for (int i = 0; i < prestamos; i++) {
+            prestamoDao.savePrestamo(crearPrestamo(ID_BASE + i));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object mixto1Hilo() {
+        return operar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object mixto4Hilos() {
+        return operar();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object mixtoTodosLosHilos() {
+        return operar();
+    }
+
+    private Object operar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = ID_BASE + random.nextInt(prestamos);
+        if (random.nextInt(100) < escrituras) {
+            Prestamo prestamo = crearPrestamo(id);
+            prestamoDao.savePrestamo(prestamo);
+            return prestamo;
+        }
+        return prestamoDao.findPrestamo(id);
+    }
+
+    private static Prestamo crearPrestamo(long id) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(10_000_000L + (id % 1_000_000L));
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0);
+        return prestamo;
+    }
+}
@@ -0,0 +1,77 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.SecuenciaDaoImp;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import ar.edu.utn.frbb.tup.service.imp.CuentaServiceImp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//desembolsos concurrentes (actualizarBalance: celda atomica + alta en el libro) con 1 y 8 hilos.
+//clientes=1 es una sola cuenta caliente. el libro se vacia en cada iteracion para no crecer sin limite
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SaldoBenchmark {
+    @Param({"1", "1024"})
+    private int clientes;
+
+    private MovimientoDaoImp movimientoDao;
+    private CuentaDaoImp cuentaDao;
+    private CuentaServiceImp cuentaService;
+    private Prestamo[] prestamos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        movimientoDao = new MovimientoDaoImp();
+        cuentaDao = new CuentaDaoImp(movimientoDao);
+        cuentaService = new CuentaServiceImp(cuentaDao, null, new BloqueoPorCliente(256),
+                new AsignadorIds(new SecuenciaDaoImp(), 1024));
+        prestamos = new Prestamo[clientes];
+        for (int i = 0; i < clientes; i++) {
+            Prestamo prestamo = new Prestamo();
+            prestamo.setDniTitular(30_000_000L + i);
+            prestamo.setMontoSolicitado(100.0);
+            prestamo.setMoneda(TipoMoneda.PESOS);
+            prestamos[i] = prestamo;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void cargarCuentas() {
+        movimientoDao.vaciar();
+        cuentaDao.vaciar();
+        for (int i = 0; i < clientes; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setNumeroCuenta(1_000_000L + i);
+            cuenta.setDniTitular(30_000_000L + i);
+            cuenta.setTipoMoneda(TipoMoneda.PESOS);
+            cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+            cuentaDao.save(cuenta);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void acreditarUnHilo() throws CuentaNoExisteException {
+        cuentaService.actualizarBalance(prestamos[ThreadLocalRandom.current().nextInt(clientes)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void acreditarOchoHilos() throws CuentaNoExisteException {
+        cuentaService.actualizarBalance(prestamos[ThreadLocalRandom.current().nextInt(clientes)]);
+    }
+}
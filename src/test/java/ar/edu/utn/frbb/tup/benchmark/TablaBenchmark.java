@@ -0,0 +1,84 @@
+package ar.edu.utn.frbb.tup.benchmark;
+
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.collection.LongObjectHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+//latencia de get y huella en memoria de una tabla de 1M entradas segun la implementacion del mapa.
+//la huella se imprime al preparar cada fork (sin contar los valores, que son el mismo objeto)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TablaBenchmark {
+    private static final Object ENTIDAD = new Object();
+
+    @Param({"HASH_MAP", "CONCURRENT_HASH_MAP", "LONG_OBJECT_HASH_MAP", "CONCURRENT_LONG_OBJECT_MAP"})
+    private String tipo;
+
+    @Param({"1000000"})
+    private int entradas;
+
+    private long[] claves;
+    private LongFunction<Object> buscar;
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        claves = new long[entradas];
+        for (int i = 0; i < entradas; i++) {
+            //ids como los de prestamos y cuentas, no consecutivos
+            claves[i] = 2_000_000_000L + i * 7L;
+        }
+        Object mapa;
+        switch (tipo) {
+            case "HASH_MAP":
+                Map<Long, Object> hashMap = new HashMap<>();
+                for (long clave : claves) {
+                    hashMap.put(clave, ENTIDAD);
+                }
+                buscar = hashMap::get;
+                mapa = hashMap;
+                break;
+            case "CONCURRENT_HASH_MAP":
+                Map<Long, Object> concurrentHashMap = new ConcurrentHashMap<>();
+                for (long clave : claves) {
+                    concurrentHashMap.put(clave, ENTIDAD);
+                }
+                buscar = concurrentHashMap::get;
+                mapa = concurrentHashMap;
+                break;
+            case "LONG_OBJECT_HASH_MAP":
+                LongObjectHashMap<Object> longMap = new LongObjectHashMap<>();
+                for (long clave : claves) {
+                    longMap.put(clave, ENTIDAD);
+                }
+                buscar = longMap::get;
+                mapa = longMap;
+                break;
+            default:
+                ConcurrentLongObjectMap<Object> concurrentLongMap = new ConcurrentLongObjectMap<>();
+                for (long clave : claves) {
+                    concurrentLongMap.put(clave, ENTIDAD);
+                }
+                buscar = concurrentLongMap::get;
+                mapa = concurrentLongMap;
+        }
+        long huella = GraphLayout.parseInstance(mapa).totalSize() - GraphLayout.parseInstance(ENTIDAD).totalSize();
+        System.out.println("Huella de " + tipo + ": " + huella / (1024 * 1024) + " MB, " + huella / entradas + " bytes por entrada");
+    }
+
+    @Benchmark
+    public Object buscar() {
+        return buscar.apply(claves[ThreadLocalRandom.current().nextInt(entradas)]);
+    }
+}
@@ -3,12 +3,14 @@ package ar.edu.utn.frbb.tup.controller;
 import ar.edu.utn.frbb.tup.controller.dto.ClienteDto;
 import ar.edu.utn.frbb.tup.controller.validator.ClienteValidator;
 import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteAlreadyExistsException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.TipoPersonaNoSoportada;
 import ar.edu.utn.frbb.tup.service.ClienteService;
+import ar.edu.utn.frbb.tup.service.PerfilCrediticioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -27,6 +29,9 @@ public class ClienteControllerTest {
     @Mock
     private ClienteValidator clienteValidator;
 
+    @Mock
+    private PerfilCrediticioService perfilCrediticioService;
+
     @InjectMocks
     private ClienteController clienteController;
 
@@ -141,4 +146,26 @@ public class ClienteControllerTest {
         assertEquals(dni, resultado.getDni());
         verify(clienteService, times(1)).desactivarCliente(dni);
     }
+
+    //perfil crediticio de un cliente existente
+    @Test
+    void testObtenerPerfilCrediticio_Success() throws ClientNoExisteException {
+        PerfilCrediticio perfil = new PerfilCrediticio(40860006L);
+        perfil.setPrestamosAprobados(2);
+        when(clienteService.buscarClientePorDni(40860006L)).thenReturn(new Cliente());
+        when(perfilCrediticioService.obtenerPerfil(40860006L)).thenReturn(perfil);
+
+        PerfilCrediticio resultado = clienteController.obtenerPerfilCrediticio(40860006L);
+
+        assertEquals(2, resultado.getPrestamosAprobados());
+    }
+
+    //perfil crediticio de un cliente que no existe
+    @Test
+    void testObtenerPerfilCrediticio_ClienteNoExiste() throws ClientNoExisteException {
+        when(clienteService.buscarClientePorDni(12345678L)).thenThrow(new ClientNoExisteException("El cliente no existe"));
+
+        assertThrows(ClientNoExisteException.class, () -> clienteController.obtenerPerfilCrediticio(12345678L));
+        verify(perfilCrediticioService, never()).obtenerPerfil(anyLong());
+    }
 }
@@ -4,6 +4,7 @@ import ar.edu.utn.frbb.tup.controller.dto.CuentaDto;
 import ar.edu.utn.frbb.tup.controller.validator.CuentaValidator;
 import ar.edu.utn.frbb.tup.model.Cliente;
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Movimiento;
 import ar.edu.utn.frbb.tup.model.exception.CampoIncorrecto;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
@@ -14,6 +15,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -117,6 +120,17 @@ public class CuentaControllerTest {
         System.out.println("Excepcion encontrada: " + e.getMessage());
     }
 
+    @Test
+    void testObtenerMovimientos_Success() throws CuentaNoExisteException {
+        long id = 2_000_000_001L;
+        List<Movimiento> movimientos = Collections.singletonList(new Movimiento());
+
+        when(cuentaService.buscarMovimientos(id, LocalDate.of(2026, 1, 1), null)).thenReturn(movimientos);
+
+        assertSame(movimientos, cuentaController.obtenerMovimientos(id, LocalDate.of(2026, 1, 1), null));
+        verify(cuentaService, times(1)).buscarMovimientos(id, LocalDate.of(2026, 1, 1), null);
+    }
+
     //busca cuentas del cliente por su dni
     @Test
     void testBuscarCuentasPorDniCliente_Success() throws CuentaNoExisteException, ClientNoExisteException {
@@ -11,6 +11,7 @@ import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoMonedaNoSoportada;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
 import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.service.CotizacionService;
 import ar.edu.utn.frbb.tup.service.PrestamoService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,8 +21,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +33,7 @@ public class PrestamoControllerTest {
     @Mock private PrestamoService prestamoService;
     @Mock private PrestamoDao prestamoDao;
     @Mock private PrestamoValidator prestamoValidator;
+    @Mock private CotizacionService cotizacionService;
     @InjectMocks private PrestamoController prestamoController;
 
     private PrestamoRespuesta prestamoRespuesta;
@@ -82,9 +86,9 @@ public class PrestamoControllerTest {
                 planPagos);
 
         doNothing().when(prestamoValidator).validatePrestamo(prestamoNuevo);
-        when(prestamoService.darAltaPrestamo(prestamoNuevo)).thenReturn(prestamoDetalle);
+        when(prestamoService.darAltaPrestamo(prestamoNuevo)).thenReturn(CompletableFuture.completedFuture(prestamoDetalle));
 
-        PrestamoDetalle resultado = prestamoController.crearPrestamo(prestamoNuevo);
+        PrestamoDetalle resultado = prestamoController.crearPrestamo(prestamoNuevo).join();
 
         assertNotNull(resultado);
         assertEquals(prestamoDetalle.getEstado(), resultado.getEstado());
@@ -171,6 +175,22 @@ public class PrestamoControllerTest {
         verify(prestamoValidator, times(1)).validatePrestamo(prestamoNuevo);
     }
 
+    //simula prestamos
+    @Test
+    void testSimularPrestamos_Success() throws CreditScoreException, TipoMonedaNoSoportada, CampoIncorrecto {
+        List<PrestamoDto> escenarios = Arrays.asList(crearPrestamoDto(40860006, 1000, "P", 12), crearPrestamoDto(40860006, 2000, "P", 24));
+        List<Simulacion> simulaciones = Arrays.asList(new Simulacion(), new Simulacion());
+
+        doNothing().when(prestamoValidator).validateSimulacion(escenarios);
+        when(prestamoService.simularPrestamos(escenarios)).thenReturn(simulaciones);
+
+        List<Simulacion> resultado = prestamoController.simularPrestamos(escenarios);
+
+        assertEquals(2, resultado.size());
+        verify(prestamoValidator, times(1)).validateSimulacion(escenarios);
+        verify(prestamoService, times(1)).simularPrestamos(escenarios);
+    }
+
     //obtener prestamo por id
     @Test
     void testObtenerPrestamoPorId_Success() throws PrestamoNoExisteException {
@@ -421,4 +441,16 @@ public class PrestamoControllerTest {
         verify(prestamoService, times(1)).buscarPrestamoPorId(id);
     }
 
+
+    //estadisticas de la cache de cotizaciones
+    @Test
+    void testObtenerEstadisticasCotizaciones() {
+        when(cotizacionService.getEstadisticas()).thenReturn(new EstadisticasCache(9, 1, 0, 1, 10000));
+
+        EstadisticasCache estadisticas = prestamoController.obtenerEstadisticasCotizaciones();
+
+        assertEquals(0.9, estadisticas.getTasaAciertos(), 0.0001);
+        assertEquals(10000, estadisticas.getCapacidad());
+        verify(cotizacionService, times(1)).getEstadisticas();
+    }
 }
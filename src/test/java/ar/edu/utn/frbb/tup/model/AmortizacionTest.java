@@ -0,0 +1,82 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.amortizacion.LoteCotizacion;
+import ar.edu.utn.frbb.tup.model.amortizacion.MotorAmortizacion;
+import ar.edu.utn.frbb.tup.model.enums.MetodoAmortizacion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AmortizacionTest {
+    private static final double DELTA = 0.01;
+
+    @Test
+    void testDirecto_MismoCalculoQueAntes() {
+        MotorAmortizacion motor = MetodoAmortizacion.DIRECTO.getMotor();
+
+        assertEquals(210000.0, motor.total(150000.0, 0.40, 12), DELTA);
+        assertEquals(17500.0, motor.cuota(150000.0, 0.40, 12, 1), DELTA);
+        assertEquals(17500.0, motor.cuota(150000.0, 0.40, 12, 12), DELTA);
+    }
+
+    @Test
+    void testFrances_CuotaConstante() {
+        MotorAmortizacion motor = MetodoAmortizacion.FRANCES.getMotor();
+        double[] cuotas = new double[12];
+        motor.cuotas(100000.0, 0.12, 12, cuotas);
+
+        assertEquals(8884.88, cuotas[0], DELTA);
+        assertEquals(8884.88, cuotas[11], DELTA);
+        assertEquals(106618.55, motor.total(100000.0, 0.12, 12), DELTA);
+        assertEquals(10000.0, motor.cuota(120000.0, 0.0, 12, 1), DELTA);
+    }
+
+    @Test
+    void testAleman_CuotaDecreciente() {
+        MotorAmortizacion motor = MetodoAmortizacion.ALEMAN.getMotor();
+        double[] cuotas = new double[12];
+        motor.cuotas(120000.0, 0.12, 12, cuotas);
+
+        assertEquals(11200.0, cuotas[0], DELTA);
+        assertEquals(10100.0, cuotas[11], DELTA);
+        assertEquals(10900.0, motor.cuota(120000.0, 0.12, 12, 4), DELTA);
+        double suma = 0;
+        for (double cuota : cuotas) {
+            suma += cuota;
+        }
+        assertEquals(127800.0, suma, DELTA);
+        assertEquals(127800.0, motor.total(120000.0, 0.12, 12), DELTA);
+    }
+
+    @Test
+    void testCotizarLote_IgualQuePorFila() {
+        LoteCotizacion lote = new LoteCotizacion(2);
+        lote.agregar(150000.0, 0.40, 12);
+        lote.agregar(80000.0, 0.25, 36);
+        lote.agregar(500000.0, 0.0, 6);
+
+        for (MetodoAmortizacion metodo : MetodoAmortizacion.values()) {
+            MotorAmortizacion motor = metodo.getMotor();
+            motor.cotizar(lote);
+            assertEquals(3, lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                assertEquals(motor.cuota(lote.getCapital(i), lote.getTasa(i), lote.getPlazo(i), 1), lote.getPrimeraCuota(i), DELTA, metodo.name());
+                assertEquals(motor.total(lote.getCapital(i), lote.getTasa(i), lote.getPlazo(i)), lote.getTotal(i), DELTA, metodo.name());
+            }
+        }
+    }
+
+    @Test
+    void testPlanDePagos_VistaDeCuotasPendientes() {
+        List<PlanPago> plan = new PlanDePagos(MetodoAmortizacion.ALEMAN.getMotor(), 120000.0, 0.12, 12, 3);
+
+        assertEquals(9, plan.size());
+        assertEquals(4, plan.get(0).getCuotaNro());
+        assertEquals(10900.0, plan.get(0).getMontoCuota(), DELTA);
+        assertEquals(12, plan.get(8).getCuotaNro());
+        assertThrows(UnsupportedOperationException.class, () -> plan.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> plan.get(9));
+    }
+}
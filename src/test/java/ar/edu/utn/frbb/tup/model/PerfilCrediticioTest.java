@@ -0,0 +1,78 @@
+package ar.edu.utn.frbb.tup.model;
+
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerfilCrediticioTest {
+    private static final double DELTA = 0.01;
+
+    private Prestamo crearPrestamo(long id, LoanStatus estado, TipoMoneda moneda, int plazo, int pagos, double saldo) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setLoanStatus(estado);
+        prestamo.setMoneda(moneda);
+        prestamo.setPlazoMeses(plazo);
+        prestamo.setPagosRealizados(pagos);
+        prestamo.setSaldoRestante(saldo);
+        return prestamo;
+    }
+
+    //recorrer los prestamos da lo mismo que registrar alta, pagos y cierre uno por uno despues de cada cambio
+    @Test
+    void testRegistrar_IgualQueRecorrerLosPrestamos() {
+        Prestamo pesos = crearPrestamo(1, LoanStatus.APROBADO, TipoMoneda.PESOS, 2, 0, 2000.0);
+        Prestamo dolares = crearPrestamo(2, LoanStatus.APROBADO, TipoMoneda.DOLARES, 12, 0, 1200.0);
+        Prestamo rechazado = crearPrestamo(3, LoanStatus.RECHAZADO, TipoMoneda.PESOS, 12, 0, 5000.0);
+        PerfilCrediticio perfil = new PerfilCrediticio(40860006L);
+        perfil.registrarAlta(pesos);
+        perfil.registrarAlta(dolares);
+        perfil.registrarAlta(rechazado);
+
+        for (int i = 0; i < 2; i++) {
+            PerfilCrediticio anterior = PerfilCrediticio.aporte(pesos);
+            pesos.setPagosRealizados(pesos.getPagosRealizados() + 1);
+            pesos.setSaldoRestante(pesos.getSaldoRestante() - 1000.0);
+            perfil.registrarCambio(anterior, pesos);
+        }
+        PerfilCrediticio anterior = PerfilCrediticio.aporte(dolares);
+        dolares.setPagosRealizados(1);
+        dolares.setSaldoRestante(1100.0);
+        perfil.registrarCambio(anterior, dolares);
+        anterior = PerfilCrediticio.aporte(dolares);
+        dolares.setLoanStatus(LoanStatus.CERRADO);
+        dolares.setPagosRealizados(12);
+        dolares.setSaldoRestante(0.0);
+        perfil.registrarCambio(anterior, dolares);
+
+        PerfilCrediticio recorrido = PerfilCrediticio.desdePrestamos(40860006L, Arrays.asList(pesos, dolares, rechazado));
+        for (PerfilCrediticio p : Arrays.asList(perfil, recorrido)) {
+            //el cerrado sigue contando como aprobado y con sus 12 cuotas
+            assertEquals(2, p.getPrestamosAprobados());
+            assertEquals(0, p.getPrestamosVigentes());
+            assertEquals(1, p.getPrestamosCerrados());
+            assertEquals(2 + 12, p.getPagosRealizados());
+            assertEquals(0.0, p.getSaldoPendiente(TipoMoneda.PESOS), DELTA);
+            assertEquals(0.0, p.getSaldoPendiente(TipoMoneda.DOLARES), DELTA);
+        }
+    }
+
+    //la copia no cambia con los registros posteriores
+    @Test
+    void testCopiar_Independiente() {
+        PerfilCrediticio perfil = PerfilCrediticio.desdePrestamos(40860006L, Collections.emptyList());
+        PerfilCrediticio copia = perfil.copiar();
+
+        perfil.registrarAlta(crearPrestamo(1, LoanStatus.APROBADO, TipoMoneda.PESOS, 12, 0, 1000.0));
+
+        assertEquals(0, copia.getPrestamosVigentes());
+        assertEquals(1, perfil.getPrestamosVigentes());
+        assertEquals(1000.0, perfil.getSaldoPendiente(TipoMoneda.PESOS), DELTA);
+    }
+}
@@ -0,0 +1,150 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.ConjuntoDiferido;
+import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
+import ar.edu.utn.frbb.tup.persistence.imp.ClienteDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClienteDaoTest {
+    private CuentaDaoImp cuentaDao;
+    private PrestamoDaoImp prestamoDao;
+    private ClienteDaoImp clienteDao;
+
+    @BeforeEach
+    void setUp() {
+        cuentaDao = new CuentaDaoImp(new MovimientoDaoImp());
+        prestamoDao = new PrestamoDaoImp();
+        clienteDao = new ClienteDaoImp(cuentaDao, prestamoDao);
+        vaciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vaciar();
+    }
+
+    private void vaciar() {
+        clienteDao.vaciar();
+        cuentaDao.vaciar();
+        prestamoDao.vaciar();
+    }
+
+    //guarda un cliente con una cuenta por cada moneda pedida y cantidadPrestamos prestamos
+    private void crearCliente(long dni, int cantidadPrestamos, TipoMoneda... monedas) {
+        Cliente cliente = new Cliente();
+        cliente.setDni(dni);
+        cliente.setNombre("Brenda");
+        cliente.setApellido("Yañez");
+        cliente.setTipoPersona(TipoPersona.PERSONA_FISICA);
+        cliente.setFechaNacimiento(LocalDate.of(1997, 4, 9));
+        cliente.setBanco("Nacion");
+        for (TipoMoneda moneda : monedas) {
+            Cuenta cuenta = new Cuenta(2_000_000_000L + dni * 2 + moneda.ordinal(), dni, LocalDate.of(2024, 1, 1), 100.0,
+                    TipoCuenta.CUENTA_CORRIENTE, moneda, true);
+            cuentaDao.save(cuenta);
+            cliente.addCuenta(cuenta);
+        }
+        for (int i = 0; i < cantidadPrestamos; i++) {
+            Prestamo prestamo = new Prestamo();
+            prestamo.setId(dni * 10 + i);
+            prestamo.setDniTitular(dni);
+            prestamo.setMoneda(TipoMoneda.PESOS);
+            prestamo.setLoanStatus(LoanStatus.APROBADO);
+            prestamoDao.savePrestamo(prestamo);
+            cliente.addPrestamo(prestamo);
+        }
+        clienteDao.save(cliente);
+    }
+
+    //los lotes reparten a cada cliente sus propias cuentas y prestamos, tambien entre particiones
+    @Test
+    void testFindAll_CargaEnLotes() {
+        for (long dni = 1; dni <= 5000; dni++) {
+            if (dni % 2 == 0) {
+                crearCliente(dni, (int) (dni % 3), TipoMoneda.PESOS, TipoMoneda.DOLARES);
+            } else {
+                crearCliente(dni, (int) (dni % 3), TipoMoneda.PESOS);
+            }
+        }
+
+        List<Cliente> clientes = clienteDao.findAll();
+
+        assertEquals(5000, clientes.size());
+        for (Cliente cliente : clientes) {
+            assertEquals(cliente.getDni() % 2 == 0 ? 2 : 1, cliente.getCuentas().size());
+            assertEquals(cliente.getDni() % 3, cliente.getPrestamos().size());
+            for (Cuenta cuenta : cliente.getCuentas()) {
+                assertEquals(cliente.getDni(), cuenta.getDniTitular());
+            }
+            for (Prestamo prestamo : cliente.getPrestamos()) {
+                assertEquals(cliente.getDni(), prestamo.getDniTitular());
+            }
+        }
+    }
+
+    //una cuenta referenciada que ya no esta en la tabla se omite sin correr las del resto
+    @Test
+    void testFindAll_OmiteReferenciasFaltantes() {
+        crearCliente(1L, 1, TipoMoneda.PESOS, TipoMoneda.DOLARES);
+        crearCliente(2L, 1, TipoMoneda.PESOS);
+        cuentaDao.vaciar();
+        Cuenta cuenta = new Cuenta(2_000_000_004L, 2L, LocalDate.of(2024, 1, 1), 100.0,
+                TipoCuenta.CUENTA_CORRIENTE, TipoMoneda.PESOS, true);
+        cuentaDao.save(cuenta);
+
+        List<Cliente> clientes = clienteDao.findAll();
+
+        for (Cliente cliente : clientes) {
+            assertEquals(cliente.getDni() == 2L ? 1 : 0, cliente.getCuentas().size());
+            assertEquals(1, cliente.getPrestamos().size());
+        }
+    }
+
+    //con el plan de cuentas los prestamos quedan diferidos hasta que se los toca
+    @Test
+    void testFind_PlanCuentas() {
+        crearCliente(1L, 2, TipoMoneda.PESOS);
+
+        Cliente cliente = clienteDao.find(1L, PlanCarga.CUENTAS);
+
+        assertTrue(ConjuntoDiferido.estaCargado(cliente.getCuentas()));
+        assertFalse(ConjuntoDiferido.estaCargado(cliente.getPrestamos()));
+        assertEquals(1, cliente.getCuentas().size());
+        assertEquals(2, cliente.getPrestamos().size());
+        assertTrue(ConjuntoDiferido.estaCargado(cliente.getPrestamos()));
+    }
+
+    //guardar un cliente con colecciones diferidas sin tocar conserva sus cuentas y prestamos
+    @Test
+    void testSave_ConservaColeccionesDiferidas() throws ClientNoExisteException {
+        crearCliente(1L, 2, TipoMoneda.PESOS, TipoMoneda.DOLARES);
+
+        Cliente cliente = clienteDao.find(1L, PlanCarga.DIFERIDO);
+        cliente.setTelefono("2914785135");
+        clienteDao.save(cliente);
+        assertFalse(ConjuntoDiferido.estaCargado(cliente.getCuentas()));
+        clienteDao.update(cliente);
+
+        Cliente leido = clienteDao.find(1L, PlanCarga.COMPLETO);
+        assertEquals("2914785135", leido.getTelefono());
+        assertEquals(2, leido.getCuentas().size());
+        assertEquals(2, leido.getPrestamos().size());
+    }
+}
@@ -0,0 +1,140 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+import ar.edu.utn.frbb.tup.persistence.codec.ClienteEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.CuentaEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.MovimientoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.PreAprobacionEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.ClienteEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.CuentaEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.MovimientoEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.PreAprobacionEntity;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityCodecTest {
+
+    @Test
+    void testCliente_IdaYVuelta() {
+        ClienteEntityCodec codec = new ClienteEntityCodec();
+        ClienteEntity cliente = new ClienteEntity(40860006L, "F", "Brenda", "Yañez", "2916897129", null,
+                LocalDate.of(2024, 6, 1), LocalDate.of(1997, 4, 9), "Provincia",
+                new HashSet<>(Arrays.asList(2_100_000_001L)), new HashSet<>(), true);
+
+        ClienteEntity leido = codec.decode(ByteBuffer.wrap(codec.encode(cliente)));
+
+        assertEquals(40860006L, leido.getId());
+        assertEquals("F", leido.getTipoPersona());
+        assertEquals("Yañez", leido.getApellido());
+        assertNull(leido.getEmail());
+        assertEquals(LocalDate.of(1997, 4, 9), leido.getFechaNacimiento());
+        assertEquals(new HashSet<>(Arrays.asList(2_100_000_001L)), leido.getCuentas());
+        assertTrue(leido.isActivo());
+    }
+
+    @Test
+    void testCuenta_IdaYVuelta() {
+        CuentaEntityCodec codec = new CuentaEntityCodec();
+        CuentaEntity cuenta = new CuentaEntity(2_100_000_001L, null, "C", "D", -1250.5, null, true);
+
+        CuentaEntity leida = codec.decode(ByteBuffer.wrap(codec.encode(cuenta)));
+
+        assertNull(leida.getTitular());
+        assertEquals("C", leida.getTipoCuenta());
+        assertEquals("D", leida.getTipoMoneda());
+        assertEquals(-1250.5, leida.getBalance());
+        assertNull(leida.getFechaCreacion());
+        assertTrue(leida.isEstado());
+    }
+
+    @Test
+    void testPreAprobacion_IdaYVuelta() {
+        PreAprobacionEntityCodec codec = new PreAprobacionEntityCodec();
+        PreAprobacionEntity preAprobacion = new PreAprobacionEntity(40860006L, 750, 300000.0, 125000.5, LocalDate.of(2026, 10, 17));
+
+        PreAprobacionEntity leida = codec.decode(ByteBuffer.wrap(codec.encode(preAprobacion)));
+
+        assertEquals(40860006L, leida.getId());
+        assertEquals(750, leida.getScore());
+        assertEquals(300000.0, leida.getMontoPreAprobado());
+        assertEquals(125000.5, leida.getMontoDisponible());
+        assertEquals(LocalDate.of(2026, 10, 17), leida.getFechaCalculo());
+    }
+
+    //los debitos guardan el monto con signo
+    @Test
+    void testMovimiento_IdaYVuelta() {
+        MovimientoEntityCodec codec = new MovimientoEntityCodec();
+        Movimiento movimiento = new Movimiento(123456L, 1L, TipoMovimiento.DEBITO_CUOTA, -17500.25, 987654L);
+        movimiento.setId(42L);
+        movimiento.setIdAsiento(41L);
+
+        Movimiento leido = codec.decode(ByteBuffer.wrap(codec.encode(new MovimientoEntity(movimiento)))).toMovimiento();
+
+        assertEquals(42L, leido.getId());
+        assertEquals(41L, leido.getIdAsiento());
+        assertEquals(123456L, leido.getNumeroCuenta());
+        assertEquals(1L, leido.getContrapartida());
+        assertEquals(TipoMovimiento.DEBITO_CUOTA, leido.getTipo());
+        assertEquals(-17500.25, leido.getMonto());
+        assertEquals(987654L, leido.getIdPrestamo());
+        assertEquals(movimiento.getFecha(), leido.getFecha());
+    }
+
+    @Test
+    void testPrestamo_MontosEnPuntoFijo() {
+        PrestamoEntityCodec codec = new PrestamoEntityCodec();
+        PrestamoEntity prestamo = new PrestamoEntity(2_300_000_001L, 40860006L, 12345.67891, 140000.0, "P", 2, "A", 140000.0, 0, "A");
+
+        byte[] datos = codec.encode(prestamo);
+        PrestamoEntity leido = codec.decode(ByteBuffer.wrap(datos));
+
+        assertEquals(12345.6789, leido.getMontoSolicitado());
+        assertEquals("A", leido.getMetodoAmortizacion());
+        assertEquals(2, leido.getPlanPagos().size());
+        assertEquals(140000.0, leido.getSaldoRestante());
+        assertEquals("A", leido.getEstado());
+        assertTrue(datos.length < 48);
+    }
+
+    @Test
+    void testPrestamo_VersionDesconocida() {
+        assertThrows(IllegalStateException.class, () -> new PrestamoEntityCodec().decode(ByteBuffer.wrap(new byte[]{9})));
+    }
+
+    @Test
+    void testModoCompacto_GuardaYBusca() {
+        PrestamoDaoImp prestamoDao = new PrestamoDaoImp();
+        prestamoDao.compacto = true;
+        prestamoDao.vaciar();
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(2_300_000_001L);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0);
+
+        prestamoDao.savePrestamo(prestamo);
+
+        assertTrue(prestamoDao.getInMemoryDatabase().get(2_300_000_001L) instanceof byte[]);
+        assertEquals(210000.0, prestamoDao.findPrestamo(2_300_000_001L).getSaldoRestante());
+        assertEquals(1, prestamoDao.buscarPrestamoPorCliente(40860006L).size());
+        prestamoDao.vaciar();
+    }
+}
@@ -0,0 +1,162 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.codec.PrestamoEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.PrestamoEntity;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+    private final PrestamoEntityCodec codec = new PrestamoEntityCodec();
+
+    @TempDir
+    Path directorio;
+
+    //metodo para crear la entidad de un prestamo
+    private PrestamoEntity crearPrestamo(long id, String estado, int pagos) {
+        return new PrestamoEntity(id, 40860006L, 150000.0, 210000.0, "P", 12, estado, 210000.0 - 17500.0 * pagos, pagos, "D");
+    }
+
+    //abre el journal y devuelve lo recuperado por tabla e id
+    private Map<Long, PrestamoEntity> recuperar(Journal journal) {
+        Map<Long, PrestamoEntity> tabla = new LinkedHashMap<>();
+        journal.registrarTabla("PRESTAMO", (id, datos) -> tabla.put(id, codec.decode(datos)));
+        journal.abrir();
+        return tabla;
+    }
+
+    @Test
+    void testRecuperar_Success() {
+        Journal journal = new Journal(true, directorio.toString(), true);
+        recuperar(journal);
+        journal.esperar(journal.registrar("PRESTAMO", 1L, codec.encode(crearPrestamo(1L, "A", 0))));
+        journal.esperar(journal.registrar("PRESTAMO", 2L, codec.encode(crearPrestamo(2L, "A", 0))));
+        journal.esperar(journal.registrar("PRESTAMO", 1L, codec.encode(crearPrestamo(1L, "A", 3))));
+        journal.cerrar();
+
+        Journal reabierto = new Journal(true, directorio.toString(), true);
+        Map<Long, PrestamoEntity> tabla = recuperar(reabierto);
+        reabierto.cerrar();
+
+        assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(tabla.keySet()));
+        assertEquals(3, tabla.get(1L).getPagosRealizados());
+        assertEquals(9, tabla.get(1L).getPlanPagos().size());
+        assertEquals(157500.0, tabla.get(1L).getSaldoRestante());
+        assertEquals(40860006L, tabla.get(2L).getNumeroCliente());
+    }
+
+    @Test
+    void testRecuperar_DescartaRegistroIncompleto() throws IOException {
+        Journal journal = new Journal(true, directorio.toString(), true);
+        recuperar(journal);
+        journal.esperar(journal.registrar("PRESTAMO", 1L, codec.encode(crearPrestamo(1L, "A", 0))));
+        journal.cerrar();
+        Path archivo = directorio.resolve("journal-0000000000.log");
+        long tamanioValido = Files.size(archivo);
+        //simula un corte en medio de una escritura
+        Files.write(archivo, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        Journal reabierto = new Journal(true, directorio.toString(), true);
+        Map<Long, PrestamoEntity> tabla = recuperar(reabierto);
+        reabierto.esperar(reabierto.registrar("PRESTAMO", 2L, codec.encode(crearPrestamo(2L, "C", 12))));
+        reabierto.cerrar();
+
+        assertEquals(1, tabla.size());
+        assertTrue(Files.size(archivo) > tamanioValido);
+        Journal ultimo = new Journal(true, directorio.toString(), true);
+        Map<Long, PrestamoEntity> recuperado = recuperar(ultimo);
+        ultimo.cerrar();
+        assertEquals(2, recuperado.size());
+        assertEquals("C", recuperado.get(2L).getEstado());
+    }
+
+    //un grupo de filas es un solo registro: si se corta a medias no se aplica ninguna
+    @Test
+    void testRecuperar_GrupoEnteroONada() throws IOException {
+        Journal journal = new Journal(true, directorio.toString(), true);
+        recuperar(journal);
+        journal.esperar(journal.registrar("PRESTAMO", new long[]{1L, 2L},
+                Arrays.asList(codec.encode(crearPrestamo(1L, "A", 0)), codec.encode(crearPrestamo(2L, "A", 1)))));
+        journal.esperar(journal.registrar("PRESTAMO", new long[]{3L, 4L},
+                Arrays.asList(codec.encode(crearPrestamo(3L, "A", 0)), codec.encode(crearPrestamo(4L, "A", 0)))));
+        journal.cerrar();
+        //simula un corte en medio del segundo grupo
+        Path archivo = directorio.resolve("journal-0000000000.log");
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(archivo) - 5);
+        }
+
+        Journal reabierto = new Journal(true, directorio.toString(), true);
+        Map<Long, PrestamoEntity> tabla = recuperar(reabierto);
+        reabierto.cerrar();
+
+        assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(tabla.keySet()));
+        assertEquals(1, tabla.get(2L).getPagosRealizados());
+    }
+
+    @Test
+    void testRegistrar_JournalCerrado() {
+        Journal journal = new Journal(true, directorio.toString(), true);
+        assertThrows(IllegalStateException.class, () -> journal.registrar("PRESTAMO", 1L, new byte[]{1}));
+    }
+
+    @Test
+    void testGuardar_JournalRechazaNoQuedaEnMemoria() {
+        AtomicBoolean falla = new AtomicBoolean();
+        Journal journal = new Journal(true, directorio.toString(), true) {
+            @Override
+            public void esperar(Escritura escritura) {
+                super.esperar(escritura);
+                if (falla.get()) {
+                    throw new UncheckedIOException(new IOException("disco lleno"));
+                }
+            }
+        };
+        journal.abrir();
+        PrestamoDaoImp prestamoDao = new PrestamoDaoImp();
+        prestamoDao.vaciar();
+        prestamoDao.journal = journal;
+        try {
+            Prestamo prestamo = new Prestamo(40860006L, 150000.0, LoanStatus.APROBADO);
+            prestamo.setId(2_000_000_001L);
+            prestamo.setMoneda(TipoMoneda.PESOS);
+            prestamo.setPlazoMeses(12);
+            prestamo.setSaldoRestante(210000.0);
+            prestamoDao.savePrestamo(prestamo);
+
+            falla.set(true);
+            prestamo.setSaldoRestante(192500.0);
+            assertThrows(UncheckedIOException.class, () -> prestamoDao.savePrestamo(prestamo));
+            Prestamo nuevo = new Prestamo(30111222L, 1000.0, LoanStatus.APROBADO);
+            nuevo.setId(2_000_000_002L);
+            assertThrows(UncheckedIOException.class, () -> prestamoDao.savePrestamo(nuevo));
+
+            //la tabla y el indice quedan como antes del guardado rechazado
+            assertEquals(1, prestamo.getVersion());
+            assertEquals(210000.0, prestamoDao.findPrestamo(2_000_000_001L).getSaldoRestante());
+            assertNull(prestamoDao.findPrestamo(2_000_000_002L));
+            assertTrue(prestamoDao.buscarPrestamoPorCliente(30111222L).isEmpty());
+        } finally {
+            journal.cerrar();
+            prestamoDao.vaciar();
+        }
+    }
+}
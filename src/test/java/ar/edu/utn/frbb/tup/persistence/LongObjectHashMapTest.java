@@ -0,0 +1,72 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.persistence.collection.ConcurrentLongObjectMap;
+import ar.edu.utn.frbb.tup.persistence.collection.LongObjectHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    void testPutGetRemove_IgualQueHashMap() {
+        LongObjectHashMap<String> mapa = new LongObjectHashMap<>();
+        Map<Long, String> esperado = new HashMap<>();
+        Random random = new Random(42);
+        //claves en un rango chico para forzar reemplazos, colisiones y borrados en medio de las cadenas
+        for (int i = 0; i < 200_000; i++) {
+            long clave = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(clave), mapa.remove(clave));
+            } else {
+                String valor = "v" + i;
+                assertEquals(esperado.put(clave, valor), mapa.put(clave, valor));
+            }
+        }
+        assertEquals(esperado.size(), mapa.size());
+        for (long clave = 0; clave < 5_000; clave++) {
+            assertEquals(esperado.get(clave), mapa.get(clave));
+        }
+    }
+
+    @Test
+    void testPut_ValorNull() {
+        LongObjectHashMap<String> mapa = new LongObjectHashMap<>();
+        assertThrows(NullPointerException.class, () -> mapa.put(1L, null));
+    }
+
+    @Test
+    void testCompute_BorraSiDevuelveNull() {
+        ConcurrentLongObjectMap<String> mapa = new ConcurrentLongObjectMap<>();
+        mapa.put(40860006L, "cliente");
+        assertEquals("cliente-2", mapa.compute(40860006L, actual -> actual + "-2"));
+        assertNull(mapa.compute(40860006L, actual -> null));
+        assertNull(mapa.get(40860006L));
+        assertEquals(0, mapa.size());
+    }
+
+    @Test
+    void testEscriturasConcurrentes() throws InterruptedException {
+        ConcurrentLongObjectMap<Long> mapa = new ConcurrentLongObjectMap<>();
+        Thread[] hilos = new Thread[4];
+        for (int h = 0; h < hilos.length; h++) {
+            long base = h * 100_000L;
+            hilos[h] = new Thread(() -> {
+                for (long i = 0; i < 50_000; i++) {
+                    mapa.put(base + i, base + i);
+                    assertEquals(Long.valueOf(base + i), mapa.get(base + i));
+                }
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        assertEquals(200_000, mapa.size());
+        assertEquals(200_000, mapa.values().size());
+    }
+}
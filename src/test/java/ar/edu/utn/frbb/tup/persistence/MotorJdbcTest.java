@@ -0,0 +1,167 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
+import ar.edu.utn.frbb.tup.persistence.imp.PreAprobacionDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.motor.MotorJdbc;
+import ar.edu.utn.frbb.tup.persistence.motor.TablaJdbc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MotorJdbcTest {
+    @TempDir
+    Path directorio;
+
+    private MotorJdbc motor;
+    private PrestamoDaoImp prestamoDao;
+    private PreAprobacionDaoImp preAprobacionDao;
+
+    @BeforeEach
+    void setUp() {
+        //las tablas son compartidas: se sacan las que dejaron otros tests para que se abran en h2
+        new PrestamoDaoImp().vaciar();
+        new PreAprobacionDaoImp().vaciar();
+        motor = new MotorJdbc("jdbc:h2:file:" + directorio.resolve("tup"), 4);
+        prestamoDao = conMotor(new PrestamoDaoImp());
+        preAprobacionDao = conMotor(new PreAprobacionDaoImp());
+    }
+
+    @AfterEach
+    void tearDown() {
+        prestamoDao.vaciar();
+        preAprobacionDao.vaciar();
+        motor.cerrar();
+    }
+
+    private <T extends AbstractBaseDao> T conMotor(T dao) {
+        dao.setMotor(motor);
+        dao.iniciar();
+        return dao;
+    }
+
+    private Prestamo prestamo(long id, long dni) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(dni);
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0);
+        return prestamo;
+    }
+
+    @Test
+    void testGuardaYBusca_ControlaVersion() {
+        Prestamo prestamo = prestamo(2_000_000_001L, 40860006L);
+        prestamoDao.savePrestamo(prestamo);
+        prestamo.setSaldoRestante(192500.0);
+        prestamoDao.savePrestamo(prestamo);
+
+        assertTrue(prestamoDao.getInMemoryDatabase() instanceof TablaJdbc);
+        Prestamo leido = prestamoDao.findPrestamo(2_000_000_001L);
+        assertEquals(192500.0, leido.getSaldoRestante());
+        assertEquals(2, leido.getVersion());
+
+        //una copia con la version vieja no pisa la fila
+        Prestamo viejo = prestamo(2_000_000_001L, 40860006L);
+        viejo.setVersion(1);
+        assertThrows(ConflictoDeVersionException.class, () -> prestamoDao.savePrestamo(viejo));
+        assertEquals(192500.0, prestamoDao.findPrestamo(2_000_000_001L).getSaldoRestante());
+    }
+
+    //si el MERGE falla despues de aplicar la funcion, los indices vuelven a como estaban
+    @Test
+    void testGuardar_FallaMotorNoTocaIndices() throws SQLException {
+        Prestamo prestamo = prestamo(2_000_000_001L, 40860006L);
+        prestamoDao.savePrestamo(prestamo);
+        try (Connection conexion = motor.getDataSource().getConnection();
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("ALTER TABLE PRESTAMO ADD CONSTRAINT SOLO_LECTURA CHECK (id < 2000000002)");
+        }
+
+        Prestamo nuevo = prestamo(2_000_000_002L, 30111222L);
+        assertThrows(RuntimeException.class, () -> prestamoDao.savePrestamo(nuevo));
+
+        assertEquals(0, nuevo.getVersion());
+        assertNull(prestamoDao.findPrestamo(2_000_000_002L));
+        assertNull(AbstractBaseDao.poorMansIndexes.get("PRESTAMO.CLIENTE").get(30111222L));
+        assertEquals(1, prestamoDao.buscarPrestamoPorCliente(40860006L).size());
+    }
+
+    @Test
+    void testFindAll_PorLotesEnOrden() {
+        long[] ids = new long[1200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 2_000_000_001L + i;
+            //uno de cada tres no existe
+            if (i % 3 != 0) {
+                prestamoDao.savePrestamo(prestamo(ids[i], 40000000L + i));
+            }
+        }
+
+        List<Prestamo> prestamos = prestamoDao.findAll(ids);
+
+        assertEquals(ids.length, prestamos.size());
+        for (int i = 0; i < ids.length; i++) {
+            if (i % 3 == 0) {
+                assertNull(prestamos.get(i));
+            } else {
+                assertEquals(ids[i], prestamos.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void testReabrir_ReconstruyeIndices() {
+        prestamoDao.savePrestamo(prestamo(2_000_000_001L, 40860006L));
+        prestamoDao.savePrestamo(prestamo(2_000_000_002L, 40860006L));
+        prestamoDao.savePrestamo(prestamo(2_000_000_003L, 30111222L));
+
+        //otro proceso: mapas vacios y un pool nuevo sobre el mismo archivo
+        AbstractBaseDao.poorMansDatabase.remove("PRESTAMO");
+        AbstractBaseDao.poorMansDatabase.remove("PREAPROBACION");
+        AbstractBaseDao.poorMansIndexes.clear();
+        motor.cerrar();
+        motor = new MotorJdbc("jdbc:h2:file:" + directorio.resolve("tup"), 4);
+        prestamoDao = conMotor(new PrestamoDaoImp());
+        preAprobacionDao = conMotor(new PreAprobacionDaoImp());
+
+        assertEquals(3, prestamoDao.findAll().size());
+        assertEquals(2, prestamoDao.buscarPrestamoPorCliente(40860006L).size());
+        assertEquals(2_000_000_003L, prestamoDao.buscarPrestamoPorCliente(30111222L).get(0).getId());
+    }
+
+    @Test
+    void testSaveAll_UnLote() {
+        List<PreAprobacion> preAprobaciones = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            preAprobaciones.add(new PreAprobacion(30_000_000L + i, 700, 250000.0, LocalDate.now()));
+        }
+        preAprobacionDao.saveAll(preAprobaciones);
+        //la segunda corrida pisa las filas
+        preAprobaciones.set(0, new PreAprobacion(30_000_000L, 500, 0, LocalDate.now()));
+        preAprobacionDao.saveAll(preAprobaciones);
+
+        assertEquals(1000, preAprobacionDao.size());
+        assertEquals(0.0, preAprobacionDao.find(30_000_000L).getMontoPreAprobado());
+        assertEquals(250000.0, preAprobacionDao.find(30_000_999L).getMontoPreAprobado());
+    }
+}
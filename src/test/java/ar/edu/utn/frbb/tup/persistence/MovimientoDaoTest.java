@@ -0,0 +1,84 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.MontoFijo;
+import ar.edu.utn.frbb.tup.model.Movimiento;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovimientoDaoTest {
+    private static final long CUENTA = 2_000_000_001L;
+    private static final long CARTERA = Movimiento.cuentaCartera(TipoMoneda.PESOS);
+
+    private MovimientoDaoImp movimientoDao;
+    private long siguienteId;
+
+    @BeforeEach
+    void setUp() {
+        movimientoDao = new MovimientoDaoImp();
+        movimientoDao.vaciar();
+        siguienteId = 1;
+    }
+
+    @AfterEach
+    void tearDown() {
+        movimientoDao.vaciar();
+    }
+
+    private Movimiento crearMovimiento(TipoMovimiento tipo, double monto, LocalDateTime fecha) {
+        Movimiento movimiento = new Movimiento(CUENTA, CARTERA, tipo, monto, 7L);
+        movimiento.setFecha(fecha);
+        movimiento.setId(siguienteId++);
+        return movimiento;
+    }
+
+    private void guardar(Movimiento movimiento) {
+        movimientoDao.saveAsiento(movimiento, siguienteId++);
+    }
+
+    //cada asiento guarda la pata del cliente y la contraria en la cartera; las dos suman cero
+    @Test
+    void testSaveAsiento_DoblePartida() {
+        guardar(crearMovimiento(TipoMovimiento.DESEMBOLSO_PRESTAMO, 150000.0, LocalDateTime.of(2026, 1, 10, 12, 0)));
+        guardar(crearMovimiento(TipoMovimiento.DEBITO_CUOTA, -17500.0, LocalDateTime.of(2026, 2, 10, 12, 0)));
+
+        List<Movimiento> cliente = movimientoDao.buscarPorCuenta(CUENTA, null, null);
+        List<Movimiento> cartera = movimientoDao.buscarPorCuenta(CARTERA, null, null);
+
+        assertEquals(2, cliente.size());
+        assertEquals(2, cartera.size());
+        assertEquals(cliente.get(0).getIdAsiento(), cartera.get(0).getIdAsiento());
+        assertEquals(CARTERA, cliente.get(0).getContrapartida());
+        assertEquals(CUENTA, cartera.get(0).getContrapartida());
+        assertEquals(-150000.0, cartera.get(0).getMonto());
+        assertEquals(MontoFijo.desde(132500.0), movimientoDao.sumarPorCuenta(CUENTA));
+        assertEquals(0, movimientoDao.sumarPorCuenta(CUENTA) + movimientoDao.sumarPorCuenta(CARTERA));
+    }
+
+    //el rango es inclusivo en los dos extremos y el resultado sale ordenado por fecha aunque se guarde desordenado
+    @Test
+    void testBuscarPorCuenta_Rango() {
+        for (int dia = 28; dia >= 1; dia--) {
+            guardar(crearMovimiento(TipoMovimiento.DEBITO_CUOTA, -dia, LocalDateTime.of(2026, 2, dia, 10, 0)));
+        }
+
+        List<Movimiento> movimientos = movimientoDao.buscarPorCuenta(CUENTA,
+                LocalDateTime.of(2026, 2, 5, 10, 0), LocalDateTime.of(2026, 2, 9, 10, 0));
+
+        assertEquals(5, movimientos.size());
+        for (int i = 0; i < movimientos.size(); i++) {
+            assertEquals(LocalDateTime.of(2026, 2, 5 + i, 10, 0), movimientos.get(i).getFecha());
+        }
+        assertEquals(28, movimientoDao.buscarPorCuenta(CUENTA, LocalDateTime.of(2026, 2, 1, 0, 0), null).size());
+        assertTrue(movimientoDao.buscarPorCuenta(CUENTA, LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 2, 1, 0, 0)).isEmpty());
+        assertTrue(movimientoDao.buscarPorCuenta(99L, null, null).isEmpty());
+    }
+}
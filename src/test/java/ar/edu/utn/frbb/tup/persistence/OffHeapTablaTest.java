@@ -0,0 +1,83 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.collection.AsignadorOffHeap;
+import ar.edu.utn.frbb.tup.persistence.collection.OffHeapTabla;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapTablaTest {
+
+    @Test
+    void testAsignador_ReusaBloquesLiberados() {
+        AsignadorOffHeap asignador = new AsignadorOffHeap();
+        long primera = asignador.asignar(new byte[100]);
+        asignador.asignar(new byte[100]);
+        asignador.liberar(primera);
+
+        long reusada = asignador.asignar(new byte[105]);
+
+        assertEquals(primera, reusada);
+        assertEquals(105, asignador.leer(reusada).length);
+        assertEquals(AsignadorOffHeap.TAMANIO_SLAB, asignador.getBytesReservados());
+    }
+
+    @Test
+    void testCompute_CambiaDeTamanioYBorra() {
+        OffHeapTabla tabla = new OffHeapTabla();
+        tabla.compute(7L, actual -> new byte[]{1, 2, 3});
+        tabla.compute(7L, actual -> {
+            byte[] mas = Arrays.copyOf((byte[]) actual, 300);
+            mas[299] = 9;
+            return mas;
+        });
+
+        byte[] leido = (byte[]) tabla.get(7L);
+        assertEquals(300, leido.length);
+        assertEquals(1, leido[0]);
+        assertEquals(9, leido[299]);
+
+        assertNull(tabla.compute(7L, actual -> null));
+        assertNull(tabla.get(7L));
+        assertEquals(0, tabla.size());
+        assertEquals(0, tabla.getBytesUsados());
+    }
+
+    @Test
+    void testCompute_SoloRegistrosCodificados() {
+        OffHeapTabla tabla = new OffHeapTabla();
+        assertThrows(IllegalArgumentException.class, () -> tabla.compute(1L, actual -> "entidad"));
+    }
+
+    @Test
+    void testModoOffHeap_GuardaYBusca() {
+        PrestamoDaoImp prestamoDao = new PrestamoDaoImp();
+        prestamoDao.offHeap = true;
+        prestamoDao.vaciar();
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(2_300_000_001L);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(210000.0);
+
+        prestamoDao.savePrestamo(prestamo);
+        prestamo.setSaldoRestante(192500.0);
+        prestamoDao.savePrestamo(prestamo);
+
+        assertTrue(prestamoDao.getInMemoryDatabase() instanceof OffHeapTabla);
+        assertEquals(192500.0, prestamoDao.findPrestamo(2_300_000_001L).getSaldoRestante());
+        assertEquals(1, prestamoDao.findAll().size());
+        assertEquals(1, prestamoDao.buscarPrestamoPorCliente(40860006L).size());
+        prestamoDao.vaciar();
+    }
+}
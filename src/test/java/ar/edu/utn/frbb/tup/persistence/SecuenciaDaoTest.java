@@ -0,0 +1,131 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.SecuenciaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SecuenciaDaoTest {
+    @TempDir
+    Path directorio;
+
+    private SecuenciaDaoImp secuenciaDao;
+    private PrestamoDaoImp prestamoDao;
+    private CuentaDaoImp cuentaDao;
+
+    //las tablas son compartidas: sin vaciarlas el techo arrancaria por encima de lo que dejaron otros tests
+    @BeforeEach
+    void setUp() {
+        secuenciaDao = new SecuenciaDaoImp();
+        prestamoDao = new PrestamoDaoImp();
+        cuentaDao = new CuentaDaoImp(new MovimientoDaoImp());
+        tearDown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        secuenciaDao.vaciar();
+        prestamoDao.vaciar();
+        cuentaDao.vaciar();
+    }
+
+    @Test
+    void testReservar_BloquesConsecutivos() {
+        long primero = secuenciaDao.reservar(Secuencia.CUENTA, 64);
+        long segundo = secuenciaDao.reservar(Secuencia.CUENTA, 64);
+
+        assertEquals(2_000_000_001L, primero);
+        assertEquals(primero + 64, segundo);
+        assertEquals(segundo + 63, secuenciaDao.getTecho(Secuencia.CUENTA));
+        //cada secuencia lleva su propio techo
+        assertEquals(2_000_000_001L, secuenciaDao.reservar(Secuencia.PRESTAMO, 64));
+    }
+
+    //los ids aleatorios guardados antes del asignador no se vuelven a entregar
+    @Test
+    void testReservar_SuperaIdsExistentes() {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(2_900_000_000L);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamoDao.savePrestamo(prestamo);
+
+        assertEquals(2_900_000_001L, secuenciaDao.reservar(Secuencia.PRESTAMO, 64));
+    }
+
+    //cada hilo entrega ids crecientes de sus bloques y ningun id se repite entre hilos
+    @Test
+    void testAsignador_Concurrente() throws Exception {
+        AsignadorIds asignadorIds = new AsignadorIds(secuenciaDao, 64);
+        Set<Long> entregados = ConcurrentHashMap.newKeySet();
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                resultados.add(hilos.submit(() -> {
+                    long anterior = 0;
+                    boolean creciente = true;
+                    for (int i = 0; i < 5000; i++) {
+                        long id = asignadorIds.siguiente(Secuencia.PRESTAMO);
+                        creciente &= id > anterior;
+                        anterior = id;
+                        entregados.add(id);
+                    }
+                    return creciente;
+                }));
+            }
+            for (Future<Boolean> resultado : resultados) {
+                assertTrue(resultado.get());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+
+        assertEquals(40000, entregados.size());
+        assertTrue(secuenciaDao.getTecho(Secuencia.PRESTAMO) >= 2_000_040_000L);
+    }
+
+    //el techo pasa por el journal: despues de reiniciar los bloques siguen desde ahi
+    @Test
+    void testReservar_RecuperaTechoDelJournal() {
+        Journal journal = new Journal(true, directorio.toString(), true);
+        secuenciaDao.journal = journal;
+        secuenciaDao.registrarEnJournal();
+        journal.abrir();
+        secuenciaDao.reservar(Secuencia.CUENTA, 1024);
+        long ultimo = secuenciaDao.reservar(Secuencia.CUENTA, 1024);
+        journal.cerrar();
+        secuenciaDao.vaciar();
+
+        Journal reabierto = new Journal(true, directorio.toString(), true);
+        secuenciaDao.journal = reabierto;
+        secuenciaDao.registrarEnJournal();
+        reabierto.abrir();
+        long siguiente = secuenciaDao.reservar(Secuencia.CUENTA, 1024);
+        reabierto.cerrar();
+
+        assertEquals(ultimo + 1024, siguiente);
+    }
+}
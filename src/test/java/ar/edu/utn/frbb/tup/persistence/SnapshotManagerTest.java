@@ -0,0 +1,118 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.persistence.imp.PrestamoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.journal.Journal;
+import ar.edu.utn.frbb.tup.persistence.snapshot.SnapshotManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotManagerTest {
+    @TempDir
+    Path directorio;
+
+    private Journal journal;
+    private PrestamoDaoImp prestamoDao;
+    private SnapshotManager snapshotManager;
+
+    //levanta journal, dao y snapshots como lo haria spring al arrancar
+    private void arrancar() {
+        journal = new Journal(true, directorio.toString(), true);
+        prestamoDao = new PrestamoDaoImp();
+        prestamoDao.journal = journal;
+        prestamoDao.registrarEnJournal();
+        snapshotManager = new SnapshotManager(journal, Collections.<AbstractBaseDao>singletonList(prestamoDao), true);
+        snapshotManager.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void cerrar() {
+        journal.cerrar();
+        prestamoDao.vaciar();
+    }
+
+    //metodo para crear un prestamo
+    private Prestamo crearPrestamo(long id, double saldo) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMontoSolicitado(150000.0);
+        prestamo.setMonto(210000.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setSaldoRestante(saldo);
+        return prestamo;
+    }
+
+    @Test
+    void testRecuperar_SnapshotYJournalPosterior() throws IOException {
+        arrancar();
+        prestamoDao.savePrestamo(crearPrestamo(1L, 210000.0));
+        prestamoDao.savePrestamo(crearPrestamo(2L, 210000.0));
+        snapshotManager.tomarSnapshot();
+        Prestamo pagado = prestamoDao.findPrestamo(1L);
+        pagado.setSaldoRestante(192500.0);
+        prestamoDao.savePrestamo(pagado);
+        prestamoDao.savePrestamo(crearPrestamo(3L, 210000.0));
+        journal.cerrar();
+
+        arrancar();
+
+        assertEquals(192500.0, prestamoDao.findPrestamo(1L).getSaldoRestante());
+        assertEquals(2, prestamoDao.findPrestamo(1L).getVersion());
+        assertNotNull(prestamoDao.findPrestamo(2L));
+        assertNotNull(prestamoDao.findPrestamo(3L));
+        assertEquals(3, prestamoDao.buscarPrestamoPorCliente(40860006L).size());
+    }
+
+    @Test
+    void testTomarSnapshot_BorraSegmentosViejos() throws IOException {
+        arrancar();
+        prestamoDao.savePrestamo(crearPrestamo(1L, 210000.0));
+        snapshotManager.tomarSnapshot();
+        prestamoDao.savePrestamo(crearPrestamo(2L, 210000.0));
+        snapshotManager.tomarSnapshot();
+        prestamoDao.savePrestamo(crearPrestamo(3L, 210000.0));
+        snapshotManager.tomarSnapshot();
+
+        assertFalse(Files.exists(directorio.resolve("journal-0000000000.log")));
+        assertFalse(Files.exists(directorio.resolve("snapshot-0000000001.snap")));
+        assertTrue(Files.exists(directorio.resolve("snapshot-0000000002.snap")));
+        assertTrue(Files.exists(directorio.resolve("snapshot-0000000003.snap")));
+    }
+
+    @Test
+    void testRecuperar_SnapshotCorruptoUsaElAnterior() throws IOException {
+        arrancar();
+        prestamoDao.savePrestamo(crearPrestamo(1L, 210000.0));
+        snapshotManager.tomarSnapshot();
+        prestamoDao.savePrestamo(crearPrestamo(2L, 210000.0));
+        Path ultimo = snapshotManager.tomarSnapshot();
+        prestamoDao.savePrestamo(crearPrestamo(3L, 210000.0));
+        journal.cerrar();
+        //cambia un byte de los registros del ultimo snapshot
+        try (FileChannel canal = FileChannel.open(ultimo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), Files.size(ultimo) - 1);
+        }
+
+        arrancar();
+
+        assertNotNull(prestamoDao.findPrestamo(1L));
+        assertNotNull(prestamoDao.findPrestamo(2L));
+        assertNotNull(prestamoDao.findPrestamo(3L));
+    }
+}
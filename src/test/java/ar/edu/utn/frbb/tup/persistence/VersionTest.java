@@ -0,0 +1,87 @@
+package ar.edu.utn.frbb.tup.persistence;
+
+import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
+import ar.edu.utn.frbb.tup.persistence.codec.CuentaEntityCodec;
+import ar.edu.utn.frbb.tup.persistence.entity.CuentaEntity;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionTest {
+    private CuentaDaoImp cuentaDao;
+
+    @BeforeEach
+    void setUp() {
+        cuentaDao = new CuentaDaoImp(new MovimientoDaoImp());
+        cuentaDao.vaciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuentaDao.vaciar();
+    }
+
+    private Cuenta crearCuenta(double balance) {
+        return new Cuenta(1L, 40860006L, LocalDate.of(2024, 1, 1), balance, TipoCuenta.CUENTA_CORRIENTE, TipoMoneda.PESOS, true);
+    }
+
+    @Test
+    void testGuardar_IncrementaVersion() {
+        Cuenta cuenta = crearCuenta(1000.0);
+        cuentaDao.save(cuenta);
+        assertEquals(1, cuenta.getVersion());
+
+        Cuenta leida = cuentaDao.find(1L);
+        leida.setEstado(false);
+        cuentaDao.save(leida);
+
+        assertEquals(2, leida.getVersion());
+        assertEquals(2, cuentaDao.find(1L).getVersion());
+    }
+
+    //dos lecturas de la misma version: gana el primer guardado y el segundo no pisa nada
+    @Test
+    void testGuardar_VersionViejaFalla() {
+        cuentaDao.save(crearCuenta(1000.0));
+        Cuenta primera = cuentaDao.find(1L);
+        Cuenta segunda = cuentaDao.find(1L);
+
+        primera.setEstado(false);
+        cuentaDao.save(primera);
+        segunda.setTipoMoneda(TipoMoneda.DOLARES);
+
+        assertThrows(ConflictoDeVersionException.class, () -> cuentaDao.save(segunda));
+        assertEquals(1, segunda.getVersion());
+        assertFalse(cuentaDao.find(1L).isEstado());
+        assertEquals(TipoMoneda.PESOS, cuentaDao.find(1L).getTipoMoneda());
+        assertEquals(2, cuentaDao.find(1L).getVersion());
+    }
+
+    //una cuenta nueva con un numero que ya existe no pisa la guardada
+    @Test
+    void testGuardar_AltaDuplicadaFalla() {
+        cuentaDao.save(crearCuenta(1000.0));
+
+        assertThrows(ConflictoDeVersionException.class, () -> cuentaDao.save(crearCuenta(0.0)));
+        assertEquals(1000.0, cuentaDao.find(1L).getBalance());
+    }
+
+    @Test
+    void testCodec_GuardaVersion() {
+        CuentaEntityCodec codec = new CuentaEntityCodec();
+        CuentaEntity entity = new CuentaEntity(crearCuenta(1000.0));
+        entity.setVersion(42);
+
+        assertEquals(42, codec.decode(ByteBuffer.wrap(codec.encode(entity))).getVersion());
+    }
+}
@@ -0,0 +1,45 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.service.cache.CacheLRU;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheLRUTest {
+
+    @Test
+    void testObtener_CalculaUnaVezPorClave() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(64);
+        AtomicInteger calculos = new AtomicInteger();
+
+        String primero = cache.obtener(7, clave -> "valor" + calculos.incrementAndGet());
+        String segundo = cache.obtener(7, clave -> "valor" + calculos.incrementAndGet());
+
+        assertSame(primero, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void testObtener_DesalojaLaMenosUsada() {
+        //16 segmentos de 2 lugares: 1, 17 y 33 caen en el mismo segmento
+        CacheLRU<Integer, String> cache = new CacheLRU<>(32);
+        cache.obtener(1, clave -> "uno");
+        cache.obtener(17, clave -> "diecisiete");
+        cache.obtener(1, clave -> "otro");
+        cache.obtener(33, clave -> "treinta y tres");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getDesalojos());
+        assertEquals("uno", cache.obtener(1, clave -> "otro"));
+        assertEquals("recalculado", cache.obtener(17, clave -> "recalculado"));
+    }
+
+    @Test
+    void testCapacidad_MenorQueLosSegmentos() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheLRU<Integer, String>(8));
+    }
+}
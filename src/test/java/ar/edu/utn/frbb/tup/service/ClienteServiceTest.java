@@ -7,11 +7,15 @@ import ar.edu.utn.frbb.tup.model.Cuenta;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteAlreadyExistsException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClienteMayorDeEdadException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.TipoCuentaYaExisteException;
 import ar.edu.utn.frbb.tup.persistence.ClienteDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
+import ar.edu.utn.frbb.tup.service.cache.MapaDeIdentidad;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
 import ar.edu.utn.frbb.tup.service.imp.ClienteServiceImp;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +24,7 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +40,7 @@ import static org.mockito.Mockito.*;
 public class ClienteServiceTest {
 
     @Mock private ClienteDao clienteDao;
+    @Spy private BloqueoPorCliente bloqueoPorCliente = new BloqueoPorCliente(16);
     @InjectMocks private ClienteServiceImp clienteService;
 
     @BeforeEach
@@ -92,7 +98,7 @@ public class ClienteServiceTest {
                 40860006L, "1997-04-09", "F", "Nacion");
         Cliente cliente = new Cliente(clienteDto);
 
-        when(clienteDao.find(cliente.getDni(), false)).thenReturn(null);
+        when(clienteDao.find(cliente.getDni(), PlanCarga.DIFERIDO)).thenReturn(null);
         doNothing().when(clienteDao).save(any(Cliente.class));
 
         Cliente result = clienteService.darDeAltaCliente(clienteDto);
@@ -109,7 +115,7 @@ public class ClienteServiceTest {
                 "2009-03-18", "F", "Provincia");
         Cliente cliente = new Cliente(menorDeEdad);
 
-        when(clienteDao.find(cliente.getDni(), false)).thenReturn(null);
+        when(clienteDao.find(cliente.getDni(), PlanCarga.DIFERIDO)).thenReturn(null);
 
         ClienteMayorDeEdadException e = assertThrows(ClienteMayorDeEdadException.class, () -> clienteService.darDeAltaCliente(menorDeEdad));
         assertEquals("El cliente debe ser mayor a 18 años", e.getMessage());
@@ -123,7 +129,7 @@ public class ClienteServiceTest {
                 "1997-04-09", "F", "Nacion");
         Cliente clienteExistente = new Cliente(cliente);
 
-        when(clienteDao.find(cliente.getDni(), false)).thenReturn(clienteExistente);
+        when(clienteDao.find(cliente.getDni(), PlanCarga.DIFERIDO)).thenReturn(clienteExistente);
 
         ClienteAlreadyExistsException e = assertThrows(ClienteAlreadyExistsException.class, () -> clienteService.darDeAltaCliente(cliente));
         assertEquals("Ya existe un cliente con ese DNI.", e.getMessage());
@@ -136,7 +142,7 @@ public class ClienteServiceTest {
         Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.parse("1997-03-18"));
         Cuenta cuenta = crearCuenta(40860006, TipoMoneda.PESOS, TipoCuenta.CAJA_AHORRO, 100000.0);
 
-        when(clienteDao.find(40860006L, true)).thenReturn(cliente);
+        when(clienteDao.find(40860006L, PlanCarga.CUENTAS)).thenReturn(cliente);
         doNothing().when(clienteDao).save(cliente);
 
         clienteService.agregarCuenta(cuenta, 40860006L);
@@ -144,7 +150,7 @@ public class ClienteServiceTest {
         assertNotNull(cliente.getCuentas());
         assertTrue(cliente.getCuentas().contains(cuenta));
 
-        verify(clienteDao, times(1)).find(40860006L, true);
+        verify(clienteDao, times(1)).find(40860006L, PlanCarga.CUENTAS);
         verify(clienteDao, times(1)).save(cliente);
     }
 
@@ -154,7 +160,7 @@ public class ClienteServiceTest {
         Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.parse("1997-03-18"));
         PrestamoDto dto = crearPrestamoDto(40860006, 210000.0, "P", 12);
         Prestamo prestamo = new Prestamo(dto, 750);
-        when(clienteDao.find(40860006, true)).thenReturn(cliente);
+        when(clienteDao.find(40860006, PlanCarga.PRESTAMOS)).thenReturn(cliente);
         doNothing().when(clienteDao).save(cliente);
 
         clienteService.agregarPrestamo(prestamo, cliente.getDni());
@@ -162,17 +168,54 @@ public class ClienteServiceTest {
         assertNotNull(cliente.getPrestamos());
         assertTrue(cliente.getPrestamos().contains(prestamo));
 
-        verify(clienteDao, times(1)).find(40860006L, true);
+        verify(clienteDao, times(1)).find(40860006L, PlanCarga.PRESTAMOS);
         verify(clienteDao, times(1)).save(cliente);
     }
 
+    //dentro del alcance el cliente se lee una vez para cualquier plan; al cerrarlo se vuelve a leer
+    @Test
+    void testBuscaClientePorDni_MapaDeIdentidad() throws ClientNoExisteException {
+        Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.parse("1997-03-18"));
+        when(clienteDao.find(40860006L, PlanCarga.DIFERIDO)).thenReturn(cliente);
+
+        try (MapaDeIdentidad.Alcance alcance = MapaDeIdentidad.abrir()) {
+            assertSame(cliente, clienteService.buscarClientePorDni(40860006L));
+            assertSame(cliente, clienteService.buscarClientePorDni(40860006L, PlanCarga.PRESTAMOS));
+        }
+        clienteService.buscarClientePorDni(40860006L);
+
+        verify(clienteDao, times(2)).find(40860006L, PlanCarga.DIFERIDO);
+        verify(clienteDao, never()).find(40860006L, PlanCarga.PRESTAMOS);
+        assertNull(MapaDeIdentidad.clienteCargado(40860006L));
+    }
+
+    //si el cliente del mapa quedo viejo el guardado pierde por la version y el reintento lo relee del dao
+    @Test
+    void testAgregarPrestamoACliente_MapaDeIdentidadConflicto() throws ClientNoExisteException {
+        Cliente viejo = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.parse("1997-03-18"));
+        Cliente nuevo = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.parse("1997-03-18"));
+        Prestamo prestamo = new Prestamo(crearPrestamoDto(40860006, 210000.0, "P", 12), 750);
+        when(clienteDao.find(40860006L, PlanCarga.DIFERIDO)).thenReturn(viejo);
+        when(clienteDao.find(40860006L, PlanCarga.PRESTAMOS)).thenReturn(nuevo);
+        doThrow(new ConflictoDeVersionException("conflicto")).when(clienteDao).save(viejo);
+
+        try (MapaDeIdentidad.Alcance alcance = MapaDeIdentidad.abrir()) {
+            clienteService.buscarClientePorDni(40860006L);
+            clienteService.agregarPrestamo(prestamo, 40860006L);
+            assertSame(nuevo, MapaDeIdentidad.clienteCargado(40860006L));
+        }
+
+        assertTrue(nuevo.getPrestamos().contains(prestamo));
+        verify(clienteDao, times(1)).save(nuevo);
+    }
+
     @Test
     public void testBuscaClientePorDni_Success() throws ClientNoExisteException {
         long dni = 40860006L;
         Cliente cliente = new Cliente();
         cliente.setDni(dni);
 
-        when(clienteDao.find(dni, true)).thenReturn(cliente);
+        when(clienteDao.find(dni, PlanCarga.DIFERIDO)).thenReturn(cliente);
 
         Cliente resultado = clienteService.buscarClientePorDni(dni);
 
@@ -184,7 +227,7 @@ public class ClienteServiceTest {
     @Test
     public void testBuscaClientePorDniNoExiste() throws ClientNoExisteException {
         long dni = 12345678L;
-        when(clienteDao.find(dni, true)).thenReturn(null);
+        when(clienteDao.find(dni, PlanCarga.DIFERIDO)).thenReturn(null);
         ClientNoExisteException exception = assertThrows(ClientNoExisteException.class, () -> clienteService.buscarClientePorDni(dni));
         assertEquals("El cliente no existe", exception.getMessage());
     }
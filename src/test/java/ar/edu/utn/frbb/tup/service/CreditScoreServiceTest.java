@@ -0,0 +1,262 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PerfilCrediticio;
+import ar.edu.utn.frbb.tup.model.Prestamo;
+import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
+import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
+import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.service.buro.BuroSimulado;
+import ar.edu.utn.frbb.tup.service.buro.PoliticaFallback;
+import ar.edu.utn.frbb.tup.service.buro.ProveedorScore;
+import ar.edu.utn.frbb.tup.service.imp.BuroServiceImp;
+import ar.edu.utn.frbb.tup.service.imp.CreditScoreServiceImp;
+import ar.edu.utn.frbb.tup.service.imp.PerfilCrediticioServiceImp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CreditScoreServiceTest {
+    @Mock private PrestamoDao prestamoDao;
+    private CreditScoreServiceImp creditScoreService;
+    private PerfilCrediticioServiceImp perfilCrediticioService;
+    private BuroServiceImp buroService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(prestamoDao.buscarPrestamoPorCliente(anyLong())).thenReturn(new ArrayList<>());
+        perfilCrediticioService = new PerfilCrediticioServiceImp(prestamoDao);
+        creditScoreService = conBuros(new ArrayList<>(), PoliticaFallback.INTERNO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buroService.cerrar();
+    }
+
+    private CreditScoreServiceImp conBuros(List<ProveedorScore> proveedores, PoliticaFallback politica) {
+        return conBuros(new BuroServiceImp(proveedores, 100, 4, 16, 2, 16, 2, 60000), politica);
+    }
+
+    private CreditScoreServiceImp conBuros(BuroServiceImp buros, PoliticaFallback politica) {
+        if (buroService != null) {
+            buroService.cerrar();
+        }
+        buroService = buros;
+        return new CreditScoreServiceImp(perfilCrediticioService, buroService, politica);
+    }
+
+    //metodo para crear prestamo
+    private Prestamo crearPrestamo(long id, LoanStatus estado, int pagos, double saldo) {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setLoanStatus(estado);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setPlazoMeses(12);
+        prestamo.setPagosRealizados(pagos);
+        prestamo.setSaldoRestante(saldo);
+        return prestamo;
+    }
+
+    private Cliente crearCliente(long dni) {
+        Cliente cliente = new Cliente();
+        cliente.setDni(dni);
+        return cliente;
+    }
+
+    //mismo historial, mismo puntaje
+    @Test
+    void testCalcularScore_Determinista() {
+        List<Prestamo> prestamos = Arrays.asList(
+                crearPrestamo(1, LoanStatus.APROBADO, 5, 1000.0),
+                crearPrestamo(2, LoanStatus.CERRADO, 12, 0.0),
+                crearPrestamo(3, LoanStatus.RECHAZADO, 0, 0.0));
+
+        int score = creditScoreService.calcularScore(PerfilCrediticio.desdePrestamos(40860006L, prestamos));
+
+        assertEquals(720 + 2 * 10 + (5 + 12) * 2 + 20 - 40, score);
+        assertEquals(score, creditScoreService.calcularScore(PerfilCrediticio.desdePrestamos(40860006L, prestamos)));
+    }
+
+    //los prestamos se leen una sola vez; despues el score sale del perfil actualizado
+    @Test
+    void testObtenerScore_LeePrestamosUnaVez() {
+        Cliente cliente = crearCliente(40860006L);
+        assertEquals(720, creditScoreService.obtenerScore(cliente));
+
+        Prestamo prestamo = crearPrestamo(1, LoanStatus.APROBADO, 0, 1000.0);
+        perfilCrediticioService.registrarAlta(prestamo);
+        assertEquals(690, creditScoreService.obtenerScore(cliente));
+
+        PerfilCrediticio anterior = PerfilCrediticio.aporte(prestamo);
+        prestamo.setPagosRealizados(1);
+        prestamo.setSaldoRestante(900.0);
+        perfilCrediticioService.registrarCambio(anterior, prestamo);
+        assertEquals(692, creditScoreService.obtenerScore(cliente));
+        verify(prestamoDao, times(1)).buscarPrestamoPorCliente(40860006L);
+    }
+
+    //cerrar un prestamo nunca baja el puntaje: conserva el aprobado y las cuotas pagadas
+    @Test
+    void testCalcularScore_CerrarNoResta() {
+        Prestamo prestamo = crearPrestamo(1, LoanStatus.APROBADO, 12, 0.0);
+        int pagado = creditScoreService.calcularScore(PerfilCrediticio.aporte(prestamo));
+        prestamo.setLoanStatus(LoanStatus.CERRADO);
+
+        assertEquals(pagado + 20, creditScoreService.calcularScore(PerfilCrediticio.aporte(prestamo)));
+    }
+
+    //la deuda abierta resta: con un prestamo recien dado el cliente queda debajo de la aprobacion
+    //y vuelve a superarla a medida que paga cuotas
+    @Test
+    void testCalcularScore_DeudaAbiertaResta() {
+        PerfilCrediticio uno = PerfilCrediticio.desdePrestamos(40860006L,
+                Collections.singletonList(crearPrestamo(1, LoanStatus.APROBADO, 0, 1000.0)));
+        PerfilCrediticio dos = PerfilCrediticio.desdePrestamos(40860006L, Arrays.asList(
+                crearPrestamo(1, LoanStatus.APROBADO, 0, 1000.0),
+                crearPrestamo(2, LoanStatus.APROBADO, 0, 1000.0)));
+        PerfilCrediticio pagando = PerfilCrediticio.desdePrestamos(40860006L,
+                Collections.singletonList(crearPrestamo(1, LoanStatus.APROBADO, 6, 500.0)));
+
+        assertTrue(creditScoreService.calcularScore(uno) < Prestamo.SCORE_APROBACION);
+        assertTrue(creditScoreService.calcularScore(dos) < creditScoreService.calcularScore(uno));
+        assertTrue(creditScoreService.calcularScore(pagando) >= Prestamo.SCORE_APROBACION);
+    }
+
+    //el mismo umbral que usa el alta: un cliente con deuda abierta no pasa la validacion
+    @Test
+    void testValidarScore_DeudaAbiertaRechaza() {
+        perfilCrediticioService.cargarPerfil(40860006L);
+        perfilCrediticioService.registrarAlta(crearPrestamo(1, LoanStatus.APROBADO, 0, 1000.0));
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> creditScoreService.validarScoreAsync(crearCliente(40860006L)).join());
+        assertTrue(error.getCause() instanceof CreditScoreException);
+    }
+
+    //con un buro que informa un puntaje bajo el promedio no alcanza el minimo
+    @Test
+    void testValidarScore_PuntajeInsuficiente() {
+        ProveedorScore buro = mock(ProveedorScore.class);
+        when(buro.consultarScore(40860006L)).thenReturn(400);
+        creditScoreService = conBuros(Collections.singletonList(buro), PoliticaFallback.INTERNO);
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> creditScoreService.validarScoreAsync(crearCliente(40860006L)).join());
+        assertTrue(error.getCause() instanceof CreditScoreException);
+    }
+
+    //el puntaje final es el promedio entre el interno y el de los buros
+    @Test
+    void testObtenerScoreAsync_CombinaBuros() {
+        ProveedorScore buro = mock(ProveedorScore.class);
+        when(buro.consultarScore(40860006L)).thenReturn(800);
+        creditScoreService = conBuros(Arrays.asList(buro, buro), PoliticaFallback.INTERNO);
+
+        assertEquals(760, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+        verify(buro, timeout(1000).times(2)).consultarScore(40860006L);
+    }
+
+    //si ningun buro responde a tiempo se aplica la politica de fallback
+    @Test
+    void testObtenerScoreAsync_TimeoutUsaFallback() {
+        List<ProveedorScore> lentos = Collections.singletonList(new BuroSimulado("lento", 2000));
+        creditScoreService = conBuros(lentos, PoliticaFallback.INTERNO);
+        assertEquals(720, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+
+        creditScoreService = conBuros(lentos, PoliticaFallback.RECHAZAR);
+        assertEquals(300, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+    }
+
+    //lo que sigue a la consulta corre en el pool de respuestas de los buros y no en el pool comun
+    @Test
+    void testConsultarScores_CompletaEnPoolPropio() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        ProveedorScore buro = mock(ProveedorScore.class);
+        when(buro.consultarScore(anyLong())).thenAnswer(i -> {
+            liberar.await();
+            return 800;
+        });
+        creditScoreService = conBuros(Collections.singletonList(buro), PoliticaFallback.INTERNO);
+
+        CompletableFuture<String> hilo = buroService.consultarScores(40860006L)
+                .thenApply(scores -> Thread.currentThread().getName());
+        liberar.countDown();
+
+        assertTrue(hilo.join().startsWith("buro-respuesta-"));
+    }
+
+    //despues de dos fallas seguidas el circuito se abre y el buro no se vuelve a consultar
+    @Test
+    void testObtenerScoreAsync_AbreCircuito() {
+        ProveedorScore buro = mock(ProveedorScore.class);
+        when(buro.consultarScore(anyLong())).thenThrow(new IllegalStateException("buro caido"));
+        creditScoreService = conBuros(Collections.singletonList(buro), PoliticaFallback.INTERNO);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(720, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+        }
+
+        assertTrue(buroService.getCircuitos().get(0).isAbierto());
+        verify(buro, times(2)).consultarScore(anyLong());
+    }
+
+    //al vencer el timeout la consulta colgada se interrumpe y libera el hilo
+    @Test
+    void testObtenerScoreAsync_TimeoutCancelaConsulta() throws InterruptedException {
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        ProveedorScore colgado = mock(ProveedorScore.class);
+        when(colgado.consultarScore(anyLong())).thenAnswer(i -> {
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+            }
+            return 800;
+        });
+        creditScoreService = conBuros(Collections.singletonList(colgado), PoliticaFallback.INTERNO);
+
+        assertEquals(720, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+        assertTrue(interrumpida.await(5, TimeUnit.SECONDS));
+    }
+
+    //con el hilo ocupado y la cola llena la consulta se rechaza y cuenta como falla del buro
+    @Test
+    void testObtenerScoreAsync_PoolLlenoCuentaComoFalla() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        ProveedorScore buro = mock(ProveedorScore.class);
+        when(buro.consultarScore(anyLong())).thenAnswer(i -> {
+            liberar.await();
+            return 800;
+        });
+        //un hilo, una consulta en cola y el circuito se abre con la primera falla
+        creditScoreService = conBuros(new BuroServiceImp(Collections.singletonList(buro), 60000, 1, 1, 2, 16, 1, 60000), PoliticaFallback.INTERNO);
+
+        CompletableFuture<Integer> primera = creditScoreService.obtenerScoreAsync(crearCliente(40860006L));
+        CompletableFuture<Integer> segunda = creditScoreService.obtenerScoreAsync(crearCliente(40860006L));
+        assertEquals(720, creditScoreService.obtenerScoreAsync(crearCliente(40860006L)).join());
+        assertTrue(buroService.getCircuitos().get(0).isAbierto());
+
+        liberar.countDown();
+        assertEquals(760, primera.join());
+        assertEquals(760, segunda.join());
+    }
+}
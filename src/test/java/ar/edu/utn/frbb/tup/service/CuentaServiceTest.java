@@ -3,14 +3,25 @@ package ar.edu.utn.frbb.tup.service;
 import ar.edu.utn.frbb.tup.controller.dto.CuentaDto;
 import ar.edu.utn.frbb.tup.model.Cliente;
 import ar.edu.utn.frbb.tup.model.Cuenta;
+import ar.edu.utn.frbb.tup.model.MontoFijo;
+import ar.edu.utn.frbb.tup.model.Movimiento;
 import ar.edu.utn.frbb.tup.model.Prestamo;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
 import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.*;
 import ar.edu.utn.frbb.tup.persistence.ClienteDao;
 import ar.edu.utn.frbb.tup.persistence.CuentaDao;
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
+import ar.edu.utn.frbb.tup.persistence.imp.CuentaDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.MovimientoDaoImp;
+import ar.edu.utn.frbb.tup.persistence.imp.SecuenciaDaoImp;
+import ar.edu.utn.frbb.tup.service.cache.MapaDeIdentidad;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
 import ar.edu.utn.frbb.tup.service.imp.ClienteServiceImp;
 import ar.edu.utn.frbb.tup.service.imp.CuentaServiceImp;
 
@@ -18,15 +29,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +61,8 @@ public class CuentaServiceTest {
     @Mock private CuentaDao cuentaDao;
     @Mock private ClienteDao clienteDao;
     @Mock private ClienteServiceImp clienteService;
+    @Mock private AsignadorIds asignadorIds;
+    @Spy private BloqueoPorCliente bloqueoPorCliente = new BloqueoPorCliente(16);
     @InjectMocks private CuentaServiceImp cuentaService;
 
     @BeforeEach
@@ -93,10 +115,12 @@ public class CuentaServiceTest {
 
         when(clienteService.buscarClientePorDni(40860006L)).thenReturn(clienteNuevo);
         doNothing().when(clienteService).agregarCuenta(any(), anyLong());
+        when(asignadorIds.siguiente(Secuencia.CUENTA)).thenReturn(2_000_000_001L);
 
         Cuenta resultado = cuentaService.darDeAltaCuenta(cuentaNueva);
 
         assertNotNull(resultado, "La cuenta creada no debe ser nula");
+        assertEquals(2_000_000_001L, resultado.getNumeroCuenta());
         assertEquals(nuevaCuenta.getTipoCuenta(), resultado.getTipoCuenta());
         assertEquals(nuevaCuenta.getTipoMoneda(), resultado.getTipoMoneda());
         verify(cuentaDao, times(1)).save(any(Cuenta.class));
@@ -188,13 +212,124 @@ public class CuentaServiceTest {
         when(cuentaDao.findByClienteYTipoMonedaYTipoCuenta(dniTitular, moneda.toString(), tipoCuenta.toString())).thenReturn(cuenta);
         cuentaService.actualizarBalance(prestamo);
 
-        assertEquals(3500.0, cuenta.getBalance(), 0.01); // 2000 + 1500 = 3500
+        //el desembolso es un movimiento en el libro; la cuenta no se reescribe
+        ArgumentCaptor<Movimiento> movimiento = ArgumentCaptor.forClass(Movimiento.class);
+        verify(cuentaDao, times(1)).registrarMovimiento(movimiento.capture(), anyLong());
+        assertEquals(TipoMovimiento.DESEMBOLSO_PRESTAMO, movimiento.getValue().getTipo());
+        assertEquals(MontoFijo.desde(1500.0), movimiento.getValue().getMontoFijo());
+        assertEquals(Movimiento.cuentaCartera(TipoMoneda.PESOS), movimiento.getValue().getContrapartida());
+        verify(cuentaDao, never()).save(any());
+    }
+
+    //con el titular en el mapa de identidad la cuenta corriente sale de sus cuentas ya cargadas
+    @Test
+    void testActualizarBalance_MapaDeIdentidad() throws CuentaNoExisteException {
+        Cliente cliente = new Cliente();
+        cliente.setDni(40860006L);
+        cliente.addCuenta(crearCuenta(40860006L, 0, TipoMoneda.DOLARES, TipoCuenta.CUENTA_CORRIENTE));
+        Cuenta cuenta = crearCuenta(40860006L, 2000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setNumeroCuenta(2_000_000_001L);
+        cliente.addCuenta(cuenta);
+        Prestamo prestamo = new Prestamo();
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMontoSolicitado(1500.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+
+        try (MapaDeIdentidad.Alcance alcance = MapaDeIdentidad.abrir()) {
+            MapaDeIdentidad.cliente(40860006L, dni -> cliente);
+            cuentaService.actualizarBalance(prestamo);
+        }
+
+        ArgumentCaptor<Movimiento> movimiento = ArgumentCaptor.forClass(Movimiento.class);
+        verify(cuentaDao, times(1)).registrarMovimiento(movimiento.capture(), anyLong());
+        assertEquals(cuenta.getNumeroCuenta(), movimiento.getValue().getNumeroCuenta());
+        verify(cuentaDao, never()).findByClienteYTipoMonedaYTipoCuenta(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void testDebitarCuota_Success() throws CuentaNoExisteException {
+        Cuenta cuenta = crearCuenta(40860006L, 2000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE);
+        Prestamo prestamo = new Prestamo();
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+
+        when(cuentaDao.findByClienteYTipoMonedaYTipoCuenta(40860006L, "PESOS", "CUENTA_CORRIENTE")).thenReturn(cuenta);
+        cuentaService.debitarCuota(prestamo, 125.5);
 
-        verify(cuentaDao, times(1)).save(cuenta);
+        ArgumentCaptor<Movimiento> movimiento = ArgumentCaptor.forClass(Movimiento.class);
+        verify(cuentaDao, times(1)).registrarMovimiento(movimiento.capture(), anyLong());
+        assertEquals(TipoMovimiento.DEBITO_CUOTA, movimiento.getValue().getTipo());
+        assertEquals(-125.5, movimiento.getValue().getMonto());
     }
 
+    //la anulacion es otro movimiento entre las mismas cuentas con el monto contrario
     @Test
-    void testActualizarBalance_Failure() {
+    void testAnularMovimiento_Contraasiento() throws CuentaNoExisteException {
+        Movimiento debito = new Movimiento(2_000_000_001L, Movimiento.cuentaCartera(TipoMoneda.PESOS), TipoMovimiento.DEBITO_CUOTA, -125.5, 123L);
+
+        cuentaService.anularMovimiento(debito);
+
+        ArgumentCaptor<Movimiento> movimiento = ArgumentCaptor.forClass(Movimiento.class);
+        verify(cuentaDao, times(1)).registrarMovimiento(movimiento.capture(), anyLong());
+        assertEquals(TipoMovimiento.ANULACION, movimiento.getValue().getTipo());
+        assertEquals(125.5, movimiento.getValue().getMonto());
+        assertEquals(2_000_000_001L, movimiento.getValue().getNumeroCuenta());
+        assertEquals(Movimiento.cuentaCartera(TipoMoneda.PESOS), movimiento.getValue().getContrapartida());
+        assertEquals(123L, movimiento.getValue().getIdPrestamo());
+    }
+
+    //altas concurrentes sobre la misma cuenta no pierden acreditaciones, y el libro reproducido da el mismo saldo
+    @Test
+    void testActualizarBalance_Concurrente() throws Exception {
+        MovimientoDaoImp movimientos = new MovimientoDaoImp();
+        movimientos.vaciar();
+        CuentaDaoImp cuentas = new CuentaDaoImp(movimientos);
+        cuentas.vaciar();
+        CuentaServiceImp servicio = new CuentaServiceImp(cuentas, clienteService, new BloqueoPorCliente(16),
+                new AsignadorIds(new SecuenciaDaoImp(), 64));
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta(2_000_000_001L);
+        cuenta.setDniTitular(40860006L);
+        cuenta.setTipoMoneda(TipoMoneda.PESOS);
+        cuenta.setTipoCuenta(TipoCuenta.CUENTA_CORRIENTE);
+        cuenta.setBalance(0.0);
+        cuentas.save(cuenta);
+
+        Prestamo prestamo = new Prestamo();
+        prestamo.setDniTitular(40860006L);
+        prestamo.setMontoSolicitado(100.0);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tareas.add(pool.submit(() -> {
+                    for (int j = 0; j < 250; j++) {
+                        servicio.actualizarBalance(prestamo);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(100000.0, cuentas.find(2_000_000_001L).getBalance());
+        assertEquals(1000, movimientos.buscarPorCuenta(2_000_000_001L, null, null).size());
+        //la cartera lleva la contrapartida de cada desembolso
+        assertEquals(-MontoFijo.desde(100000.0), movimientos.sumarPorCuenta(Movimiento.cuentaCartera(TipoMoneda.PESOS)));
+        //un dao nuevo arma la celda desde la apertura y el libro
+        assertEquals(100000.0, new CuentaDaoImp(movimientos).find(2_000_000_001L).getBalance());
+        cuentas.vaciar();
+        movimientos.vaciar();
+    }
+
+    @Test
+    void testActualizarBalance_Failure() throws CuentaNoExisteException {
         Long dniTitular = 40860006L;
         TipoMoneda moneda = TipoMoneda.PESOS;
         double montoSolicitado = 1500.0;
@@ -209,6 +344,7 @@ public class CuentaServiceTest {
         assertThrows(CuentaNoExisteException.class, () -> cuentaService.actualizarBalance(prestamo));
 
         verify(cuentaDao, times(0)).save(any(Cuenta.class));
+        verify(cuentaDao, never()).registrarMovimiento(any(), anyLong());
     }
 
     //desactiva la cuenta
@@ -224,7 +360,51 @@ public class CuentaServiceTest {
         Cuenta cuentaDesactivada = cuentaService.desactivarCuenta(id);
 
         assertFalse(cuentaDesactivada.isEstado(), "El estado de la cuenta debería ser false");
-        verify(cuentaDao, times(1)).update(cuenta);
+        verify(cuentaDao, times(1)).updateEstado(cuenta);
+    }
+
+    //los dias del rango se pasan como el comienzo de desde y el final de hasta
+    @Test
+    void testBuscarMovimientos_Success() throws CuentaNoExisteException {
+        long id = 2_000_000_001L;
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta(id);
+        List<Movimiento> movimientos = Collections.singletonList(new Movimiento());
+
+        when(cuentaDao.find(id)).thenReturn(cuenta);
+        when(cuentaDao.buscarMovimientos(id, LocalDateTime.of(2026, 1, 1, 0, 0), LocalDate.of(2026, 1, 31).atTime(LocalTime.MAX)))
+                .thenReturn(movimientos);
+
+        assertSame(movimientos, cuentaService.buscarMovimientos(id, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)));
+    }
+
+    @Test
+    void testBuscarMovimientos_Failure() {
+        when(cuentaDao.find(12568734L)).thenReturn(null);
+
+        assertThrows(CuentaNoExisteException.class, () -> cuentaService.buscarMovimientos(12568734L, null, null));
+        verify(cuentaDao, never()).buscarMovimientos(anyLong(), any(), any());
+    }
+
+    //si otro guardado gano la version se relee la cuenta y se vuelve a desactivar
+    @Test
+    void testDesactivarCuenta_ReintentaConflicto() throws CuentaNoExisteException {
+        long id = 40860006L;
+        Cuenta vieja = new Cuenta();
+        vieja.setNumeroCuenta(id);
+        vieja.setEstado(true);
+        Cuenta nueva = new Cuenta();
+        nueva.setNumeroCuenta(id);
+        nueva.setEstado(true);
+
+        when(cuentaDao.find(id)).thenReturn(vieja, vieja, nueva);
+        doThrow(new ConflictoDeVersionException("conflicto")).when(cuentaDao).updateEstado(vieja);
+
+        Cuenta cuentaDesactivada = cuentaService.desactivarCuenta(id);
+
+        assertSame(nueva, cuentaDesactivada);
+        assertFalse(nueva.isEstado());
+        verify(cuentaDao, times(1)).updateEstado(nueva);
     }
 
     @Test
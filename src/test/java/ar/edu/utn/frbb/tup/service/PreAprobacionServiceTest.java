@@ -0,0 +1,114 @@
+package ar.edu.utn.frbb.tup.service;
+
+import ar.edu.utn.frbb.tup.model.Cliente;
+import ar.edu.utn.frbb.tup.model.PreAprobacion;
+import ar.edu.utn.frbb.tup.model.ResultadoPreAprobacion;
+import ar.edu.utn.frbb.tup.model.exception.prestamo.PreAprobacionNoExisteException;
+import ar.edu.utn.frbb.tup.persistence.ClienteDao;
+import ar.edu.utn.frbb.tup.persistence.PlanCarga;
+import ar.edu.utn.frbb.tup.persistence.imp.PreAprobacionDaoImp;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import ar.edu.utn.frbb.tup.service.imp.PreAprobacionServiceImp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class PreAprobacionServiceTest {
+    private static final int CLIENTES = 2500;
+
+    @Mock private ClienteDao clienteDao;
+    @Mock private CreditScoreService creditScoreService;
+    private PreAprobacionDaoImp preAprobacionDao;
+    private PreAprobacionServiceImp preAprobacionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        preAprobacionDao = new PreAprobacionDaoImp();
+        preAprobacionDao.vaciar();
+        preAprobacionService = new PreAprobacionServiceImp(clienteDao, preAprobacionDao, creditScoreService, new BloqueoPorCliente(16), 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        preAprobacionService.cerrar();
+        preAprobacionDao.vaciar();
+    }
+
+    private Cliente crearCliente(long dni, boolean activo) {
+        Cliente cliente = new Cliente();
+        cliente.setDni(dni);
+        cliente.setActivo(activo);
+        return cliente;
+    }
+
+    //recorre todos los clientes en particiones y guarda una fila por dni
+    @Test
+    void testEjecutar_PreApruebaPorParticiones() {
+        long[] dnis = new long[CLIENTES];
+        for (int i = 0; i < CLIENTES; i++) {
+            dnis[i] = 30_000_000L + i;
+        }
+        when(clienteDao.buscarDnis()).thenReturn(dnis);
+        when(clienteDao.find(anyLong(), eq(PlanCarga.DIFERIDO))).thenAnswer(i -> crearCliente(i.getArgument(0), i.<Long>getArgument(0) != 30_000_001L));
+        //los dnis pares tienen buen puntaje
+        when(creditScoreService.obtenerScore(any())).thenAnswer(i -> i.<Cliente>getArgument(0).getDni() % 2 == 0 ? 750 : 650);
+
+        ResultadoPreAprobacion resultado = preAprobacionService.ejecutar();
+
+        assertEquals(CLIENTES, resultado.getClientes());
+        assertEquals(CLIENTES / 2, resultado.getPreAprobados());
+        assertEquals(CLIENTES, preAprobacionDao.size());
+        assertEquals(300000.0, preAprobacionDao.find(30_000_000L).getMontoPreAprobado());
+        assertEquals(0.0, preAprobacionDao.find(30_000_001L).getMontoPreAprobado());
+        assertSame(resultado, preAprobacionService.getUltimoResultado());
+        verify(creditScoreService, times(CLIENTES)).obtenerScore(any());
+    }
+
+    //el alta contra la preaprobacion descuenta del disponible hasta agotarlo
+    @Test
+    void testConsumir_DescuentaDisponible() throws PreAprobacionNoExisteException {
+        preAprobacionDao.save(new PreAprobacion(40860006L, 750, 300000.0, LocalDate.now()));
+
+        assertNotNull(preAprobacionService.consumir(40860006L, 200000.0));
+        assertNull(preAprobacionService.consumir(40860006L, 200000.0));
+        assertEquals(100000.0, preAprobacionService.buscarPreAprobacion(40860006L).getMontoDisponible());
+
+        preAprobacionService.anular(40860006L);
+        assertNull(preAprobacionService.consumir(40860006L, 1000.0));
+    }
+
+    //un alta que no se concreto devuelve lo consumido, salvo que la preaprobacion se haya recalculado
+    @Test
+    void testDevolver_RestauraDisponible() throws PreAprobacionNoExisteException {
+        preAprobacionDao.save(new PreAprobacion(40860006L, 750, 300000.0, LocalDate.now()));
+
+        PreAprobacion consumida = preAprobacionService.consumir(40860006L, 200000.0);
+        preAprobacionService.devolver(consumida, 200000.0);
+        assertEquals(300000.0, preAprobacionService.buscarPreAprobacion(40860006L).getMontoDisponible());
+
+        consumida = preAprobacionService.consumir(40860006L, 200000.0);
+        preAprobacionDao.save(new PreAprobacion(40860006L, 720, 240000.0, LocalDate.now().plusDays(1)));
+        preAprobacionService.devolver(consumida, 200000.0);
+        assertEquals(240000.0, preAprobacionDao.find(40860006L).getMontoDisponible());
+    }
+
+    //una preaprobacion de hace dos dias ya no vale
+    @Test
+    void testBuscarPreAprobacion_Vencida() {
+        preAprobacionDao.save(new PreAprobacion(40860006L, 750, 300000.0, LocalDate.now().minusDays(2)));
+
+        assertNull(preAprobacionService.consumir(40860006L, 1000.0));
+        assertThrows(PreAprobacionNoExisteException.class, () -> preAprobacionService.buscarPreAprobacion(40860006L));
+    }
+}
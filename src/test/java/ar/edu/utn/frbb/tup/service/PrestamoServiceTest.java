@@ -6,24 +6,34 @@ import ar.edu.utn.frbb.tup.model.*;
 import ar.edu.utn.frbb.tup.model.enums.LoanStatus;
 import ar.edu.utn.frbb.tup.model.enums.TipoCuenta;
 import ar.edu.utn.frbb.tup.model.enums.TipoMoneda;
+import ar.edu.utn.frbb.tup.model.enums.TipoMovimiento;
 import ar.edu.utn.frbb.tup.model.enums.TipoPersona;
+import ar.edu.utn.frbb.tup.model.exception.ConflictoDeVersionException;
 import ar.edu.utn.frbb.tup.model.exception.cliente.ClientNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.cuenta.CuentaNoExisteException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.CreditScoreException;
 import ar.edu.utn.frbb.tup.model.exception.prestamo.PrestamoNoExisteException;
 import ar.edu.utn.frbb.tup.persistence.PrestamoDao;
+import ar.edu.utn.frbb.tup.persistence.Secuencia;
+import ar.edu.utn.frbb.tup.service.concurrencia.AsignadorIds;
+import ar.edu.utn.frbb.tup.service.concurrencia.BloqueoPorCliente;
+import ar.edu.utn.frbb.tup.service.imp.CotizacionServiceImp;
 import ar.edu.utn.frbb.tup.service.imp.PrestamoServiceImp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +46,11 @@ public class PrestamoServiceTest {
     @Mock private ClienteService clienteService;
     @Mock private CuentaService cuentaService;
     @Mock private CreditScoreService creditScoreService;
+    @Spy private CotizacionService cotizacionService = new CotizacionServiceImp(1000);
+    @Mock private PerfilCrediticioService perfilCrediticioService;
+    @Mock private PreAprobacionService preAprobacionService;
+    @Mock private AsignadorIds asignadorIds;
+    @Spy private BloqueoPorCliente bloqueoPorCliente = new BloqueoPorCliente(16);
     @InjectMocks private PrestamoServiceImp prestamoService;
 
     @BeforeEach
@@ -91,14 +106,81 @@ public class PrestamoServiceTest {
         PrestamoDto prestamoDto = crearPrestamoDto(clienteNuevo.getDni(), 150000.0, "P", 12);
 
         when(clienteService.buscarClientePorDni(prestamoDto.getNumeroCliente())).thenReturn(clienteNuevo);
-        doNothing().when(creditScoreService).validarScore(clienteNuevo);
-        when(creditScoreService.calcularScore(any())).thenReturn(750);
+        when(creditScoreService.validarScoreAsync(clienteNuevo)).thenReturn(CompletableFuture.completedFuture(750));
+        when(asignadorIds.siguiente(Secuencia.PRESTAMO)).thenReturn(2_000_000_001L);
 
-        PrestamoDetalle prestamoDetalle = prestamoService.darAltaPrestamo(prestamoDto);
+        PrestamoDetalle prestamoDetalle = prestamoService.darAltaPrestamo(prestamoDto).join();
 
         assertNotNull(prestamoDetalle);
         assertEquals(LoanStatus.APROBADO, prestamoDetalle.getEstado());
         assertEquals("El préstamo fue aprobado.", prestamoDetalle.getMensaje());
+        ArgumentCaptor<Prestamo> guardado = ArgumentCaptor.forClass(Prestamo.class);
+        verify(prestamoDao, times(1)).savePrestamo(guardado.capture());
+        assertEquals(2_000_000_001L, guardado.getValue().getId());
+        verify(creditScoreService, times(1)).validarScoreAsync(clienteNuevo);
+        verify(perfilCrediticioService, times(1)).registrarAlta(any());
+        verify(preAprobacionService, times(1)).anular(clienteNuevo.getDni());
+    }
+
+    //con limite preaprobado suficiente no se consulta el score
+    @Test
+    void testCrearPrestamo_PreAprobado() throws ClientNoExisteException, CuentaNoExisteException, CreditScoreException {
+        Cliente clienteNuevo = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997,4,9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        clienteNuevo.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(clienteNuevo.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+        PrestamoDto prestamoDto = crearPrestamoDto(clienteNuevo.getDni(), 150000.0, "P", 12);
+
+        when(clienteService.buscarClientePorDni(prestamoDto.getNumeroCliente())).thenReturn(clienteNuevo);
+        when(preAprobacionService.consumir(clienteNuevo.getDni(), 150000.0)).thenReturn(new PreAprobacion(clienteNuevo.getDni(), 760, 320000.0, LocalDate.now()));
+
+        PrestamoDetalle prestamoDetalle = prestamoService.darAltaPrestamo(prestamoDto).join();
+
+        assertEquals(LoanStatus.APROBADO, prestamoDetalle.getEstado());
+        verify(creditScoreService, never()).validarScoreAsync(any());
+        verify(preAprobacionService, never()).anular(anyLong());
+        verify(preAprobacionService, never()).devolver(any(), anyDouble());
+        verify(prestamoDao, times(1)).savePrestamo(any());
+    }
+
+    //si el guardado del alta falla se devuelve el monto reservado de la preaprobacion
+    @Test
+    void testCrearPrestamo_PreAprobadoFallaDevuelve() throws ClientNoExisteException, CuentaNoExisteException {
+        Cliente clienteNuevo = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997,4,9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        clienteNuevo.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(clienteNuevo.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+        PrestamoDto prestamoDto = crearPrestamoDto(clienteNuevo.getDni(), 150000.0, "P", 12);
+        PreAprobacion preAprobacion = new PreAprobacion(clienteNuevo.getDni(), 760, 320000.0, LocalDate.now());
+
+        when(clienteService.buscarClientePorDni(prestamoDto.getNumeroCliente())).thenReturn(clienteNuevo);
+        when(preAprobacionService.consumir(clienteNuevo.getDni(), 150000.0)).thenReturn(preAprobacion);
+        doThrow(new ConflictoDeVersionException("La fila cambio")).when(prestamoDao).savePrestamo(any());
+
+        CompletableFuture<PrestamoDetalle> alta = prestamoService.darAltaPrestamo(prestamoDto);
+
+        assertThrows(CompletionException.class, alta::join);
+        verify(preAprobacionService, times(1)).devolver(preAprobacion, 150000.0);
+    }
+
+    //dos altas con el mismo monto, plazo y moneda comparten la cotizacion
+    @Test
+    void testCrearPrestamo_ReusaCotizacion() throws ClientNoExisteException, CuentaNoExisteException, CreditScoreException {
+        Cliente clienteNuevo = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997,4,9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        clienteNuevo.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(clienteNuevo.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+        PrestamoDto prestamoDto = crearPrestamoDto(clienteNuevo.getDni(), 123456.0, "P", 18);
+
+        when(clienteService.buscarClientePorDni(prestamoDto.getNumeroCliente())).thenReturn(clienteNuevo);
+        when(creditScoreService.validarScoreAsync(any())).thenReturn(CompletableFuture.completedFuture(750));
+        EstadisticasCache antes = cotizacionService.getEstadisticas();
+
+        PrestamoDetalle primero = prestamoService.darAltaPrestamo(prestamoDto).join();
+        PrestamoDetalle segundo = prestamoService.darAltaPrestamo(prestamoDto).join();
+
+        EstadisticasCache despues = cotizacionService.getEstadisticas();
+        assertEquals(1, despues.getFallos() - antes.getFallos());
+        assertEquals(1, despues.getAciertos() - antes.getAciertos());
+        assertEquals(primero.getPlanPagos().get(0).getMontoCuota(), segundo.getPlanPagos().get(0).getMontoCuota());
+        assertEquals(18, segundo.getPlanPagos().size());
     }
 
     //crea préstamo rechazado por score insuficiente
@@ -115,10 +197,9 @@ public class PrestamoServiceTest {
         PrestamoDto prestamoDto = crearPrestamoDto(40860006L, 150000.0, "P", 12);
 
         when(clienteService.buscarClientePorDni(prestamoDto.getNumeroCliente())).thenReturn(clienteNuevo);
-        doNothing().when(creditScoreService).validarScore(clienteNuevo);
-        when(creditScoreService.calcularScore(any())).thenReturn(500);
+        when(creditScoreService.validarScoreAsync(clienteNuevo)).thenReturn(CompletableFuture.completedFuture(500));
 
-        PrestamoDetalle prestamoDetalle = prestamoService.darAltaPrestamo(prestamoDto);
+        PrestamoDetalle prestamoDetalle = prestamoService.darAltaPrestamo(prestamoDto).join();
 
         assertNotNull(prestamoDetalle);
         assertEquals(LoanStatus.RECHAZADO, prestamoDetalle.getEstado());
@@ -211,6 +292,103 @@ public class PrestamoServiceTest {
         verify(prestamoDao, times(1)).buscarPrestamoPorCliente(dniCliente);
     }
 
+    //paga una cuota: el plan de pagos se achica sin guardar una lista de cuotas
+    @Test
+    void testPagarCuota_Success() throws PrestamoNoExisteException, CuentaNoExisteException, ClientNoExisteException {
+        Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997, 4, 9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        cliente.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(cliente.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(123456789L);
+        prestamo.setDniTitular(cliente.getDni());
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setMonto(210000.0);
+        prestamo.setPlazoMeses(12);
+        prestamo.setSaldoRestante(210000.0);
+        prestamo.setMontoSolicitado(150000.0);
+
+        when(clienteService.buscarClientePorDni(cliente.getDni())).thenReturn(cliente);
+        when(prestamoDao.buscarPrestamoPorCliente(cliente.getDni())).thenReturn(Collections.singletonList(prestamo));
+
+        //la moneda del pedido no cuenta: la cuota se valida y debita en la moneda del prestamo
+        PrestamoRespuesta respuesta = prestamoService.pagarCuota(crearPrestamoDto(cliente.getDni(), 150000.0, "D", 12), 123456789L);
+
+        assertEquals(1, respuesta.getPrestamoResume().get(0).getPagosRealizados());
+        assertEquals(192500.0, respuesta.getPrestamoResume().get(0).getSaldoRestante());
+        assertEquals(11, prestamo.getPlanDePagos().size());
+        assertEquals(2, prestamo.getPlanDePagos().get(0).getCuotaNro());
+        verify(prestamoDao, times(1)).savePrestamo(prestamo);
+        verify(cuentaService, times(1)).debitarCuota(prestamo, 17500.0);
+        verify(cuentaService, never()).anularMovimiento(any());
+    }
+
+    //si el pago no se puede guardar el debito se anula con un contraasiento
+    @Test
+    void testPagarCuota_GuardadoFallaAnulaDebito() throws CuentaNoExisteException, ClientNoExisteException {
+        Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997, 4, 9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        cliente.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(cliente.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(123456789L);
+        prestamo.setDniTitular(cliente.getDni());
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+        prestamo.setMoneda(TipoMoneda.PESOS);
+        prestamo.setMonto(210000.0);
+        prestamo.setPlazoMeses(12);
+        prestamo.setSaldoRestante(210000.0);
+        prestamo.setMontoSolicitado(150000.0);
+        Movimiento debito = new Movimiento(2_000_000_001L, 1L, TipoMovimiento.DEBITO_CUOTA, -17500.0, 123456789L);
+
+        when(clienteService.buscarClientePorDni(cliente.getDni())).thenReturn(cliente);
+        when(prestamoDao.buscarPrestamoPorCliente(cliente.getDni())).thenReturn(Collections.singletonList(prestamo));
+        when(cuentaService.debitarCuota(prestamo, 17500.0)).thenReturn(debito);
+        doThrow(new ConflictoDeVersionException("La fila cambio")).when(prestamoDao).savePrestamo(prestamo);
+
+        assertThrows(ConflictoDeVersionException.class,
+                () -> prestamoService.pagarCuota(crearPrestamoDto(cliente.getDni(), 150000.0, "P", 12), 123456789L));
+        verify(cuentaService, times(1)).anularMovimiento(debito);
+        verify(perfilCrediticioService, never()).registrarCambio(any(), any());
+    }
+
+    //simula un lote que se reparte en varias tareas: calcula cada escenario sin guardar ni tocar balances
+    @Test
+    void testSimularPrestamos_SinEfectos() throws ClientNoExisteException, CuentaNoExisteException {
+        Cliente cliente = crearCliente("Brenda", "Yañez", 40860006L, LocalDate.of(1997, 4, 9),
+                "2914785135", "brendayañez@gmail.com", TipoPersona.PERSONA_FISICA, "Nacion");
+        cliente.setCuentas(new HashSet<>(Collections.singletonList(crearCuenta(cliente.getDni(), 100000.0, TipoMoneda.PESOS, TipoCuenta.CUENTA_CORRIENTE))));
+
+        List<PrestamoDto> escenarios = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            escenarios.add(crearPrestamoDto(cliente.getDni(), 150000.0, "P", 12));
+        }
+        escenarios.add(crearPrestamoDto(cliente.getDni(), 150000.0, "D", 12));
+        escenarios.add(crearPrestamoDto(12345678L, 150000.0, "P", 12));
+
+        when(clienteService.buscarClientePorDni(cliente.getDni())).thenReturn(cliente);
+        when(clienteService.buscarClientePorDni(12345678L)).thenThrow(new ClientNoExisteException("El cliente no existe"));
+        when(creditScoreService.obtenerScore(any())).thenReturn(750);
+
+        List<Simulacion> simulaciones = prestamoService.simularPrestamos(escenarios);
+
+        assertEquals(1002, simulaciones.size());
+        assertEquals(LoanStatus.APROBADO, simulaciones.get(999).getEstado());
+        assertEquals(210000.0, simulaciones.get(999).getMontoTotal(), 0.01);
+        assertEquals(60000.0, simulaciones.get(999).getInteresTotal(), 0.01);
+        assertEquals(12, simulaciones.get(999).getPlanPagos().size());
+        assertNull(simulaciones.get(1000).getEstado());
+        assertEquals("El cliente no tiene una cuenta corriente en la moneda especificada.", simulaciones.get(1000).getMensaje());
+        assertNull(simulaciones.get(1001).getEstado());
+        assertEquals(12, simulaciones.get(1001).getPlanPagos().size());
+        verify(clienteService, times(1)).buscarClientePorDni(cliente.getDni());
+        verify(cotizacionService, times(1002)).cotizar(anyDouble(), anyInt(), anyDouble(), any(), any());
+        verify(prestamoDao, never()).savePrestamo(any());
+        verify(cuentaService, never()).actualizarBalance(any());
+        verify(clienteService, never()).agregarPrestamo(any(), anyLong());
+    }
+
     // cerrar prestamo
     @Test
     void testCerrarPrestamo_Success() throws PrestamoNoExisteException {
@@ -225,5 +403,23 @@ public class PrestamoServiceTest {
 
         assertEquals(LoanStatus.CERRADO, resultado.getLoanStatus());
         verify(prestamoDao, times(1)).savePrestamo(prestamo);
+        verify(perfilCrediticioService, times(1)).registrarCambio(any(), eq(prestamo));
+    }
+
+    //si el guardado falla el perfil crediticio no registra el cierre
+    @Test
+    void testCerrarPrestamo_GuardadoFallaNoTocaPerfil() {
+        long id = 123456789;
+        Prestamo prestamo = new Prestamo();
+        prestamo.setId(id);
+        prestamo.setDniTitular(40860006L);
+        prestamo.setLoanStatus(LoanStatus.APROBADO);
+
+        when(prestamoDao.findPrestamo(id)).thenReturn(prestamo);
+        doThrow(new ConflictoDeVersionException("La fila cambio")).when(prestamoDao).savePrestamo(prestamo);
+
+        assertThrows(ConflictoDeVersionException.class, () -> prestamoService.cerrarPrestamo(id));
+        verify(perfilCrediticioService, times(1)).cargarPerfil(40860006L);
+        verify(perfilCrediticioService, never()).registrarCambio(any(), any());
     }
 }